@@ -0,0 +1,25 @@
+package org.folio.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import io.vertx.core.json.JsonObject;
+
+public class BenchmarkData {
+  private static final Path REQUEST_EXAMPLE = Path.of("ramls", "examples", "request.json");
+
+  private BenchmarkData() { }
+
+  /**
+   * Request from the RAML examples, benchmarks are run from the project directory.
+   */
+  public static JsonObject requestJson() {
+    try {
+      return new JsonObject(Files.readString(REQUEST_EXAMPLE));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package org.folio.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing of the loan and return dates done by {@code LoanService.validateLoan} for every
+ * created or updated loan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LoanDateParsingBenchmark {
+  @Param({"2017-03-01T23:11:00.000Z", "2017-03-01T23:11:00.000+01:00", "2017-03-01T23:11:00Z"})
+  public String loanDate;
+
+  @Benchmark
+  public DateTime parseLoanDate() {
+    return DateTime.parse(loanDate);
+  }
+}
@@ -0,0 +1,46 @@
+package org.folio.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.folio.rest.jaxrs.model.Request;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Mapping of a request row to the model, done for every expired request in
+ * {@link org.folio.service.RequestExpirationService}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RequestMappingBenchmark {
+  private JsonObject request;
+
+  @Setup
+  public void setUp() {
+    request = BenchmarkData.requestJson();
+  }
+
+  @Benchmark
+  public Request mapToRequest() {
+    return request.mapTo(Request.class);
+  }
+
+  @Benchmark
+  public JsonObject mapFromRequest() {
+    return JsonObject.mapFrom(request.mapTo(Request.class));
+  }
+}
@@ -0,0 +1,50 @@
+package org.folio.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.folio.rest.impl.util.RequestsApiUtil;
+import org.folio.rest.jaxrs.model.Errors;
+import org.folio.rest.jaxrs.model.Request;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.vertx.core.json.JsonObject;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RequestValidationBenchmark {
+  private Request validItemRequest;
+  private Request invalidTitleRequest;
+
+  @Setup
+  public void setUp() {
+    JsonObject request = BenchmarkData.requestJson();
+    validItemRequest = request.mapTo(Request.class);
+
+    request.put("requestLevel", "Title");
+    request.remove("holdingsRecordId");
+    invalidTitleRequest = request.mapTo(Request.class);
+  }
+
+  @Benchmark
+  public Errors validateValidItemRequest() {
+    return RequestsApiUtil.validateRequest(validItemRequest);
+  }
+
+  @Benchmark
+  public Errors validateInvalidTitleRequest() {
+    return RequestsApiUtil.validateRequest(invalidTitleRequest);
+  }
+}
@@ -0,0 +1,78 @@
+package org.folio.service.event.handler;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Parsing of an item update event which changes only the item status, with the whole payload
+ * decoded and with only the properties used by the item update handler decoded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EventPayloadParserBenchmark {
+  private final EventPayloadParser parser = new EventPayloadParser(
+    Set.of("id", "effectiveShelvingOrder", "effectiveCallNumberComponents"));
+  private String payload;
+
+  @Setup
+  public void setUp() {
+    JsonArray notes = new JsonArray();
+    for (int i = 0; i < 20; i++) {
+      notes.add(new JsonObject()
+        .put("itemNoteTypeId", "8d0a5eca-25de-4391-81a9-236eeefdd20b")
+        .put("note", "Circulation note number " + i + " of a heavily circulated item")
+        .put("staffOnly", i % 2 == 0));
+    }
+
+    JsonObject oldItem = new JsonObject()
+      .put("id", "195efae1-588f-47bd-a181-13a2eb437701")
+      .put("holdingsRecordId", "e63273e7-48f5-4c43-ab4e-1751ecacaa21")
+      .put("barcode", "760932543816")
+      .put("status", new JsonObject().put("name", "Available"))
+      .put("notes", notes)
+      .put("circulationNotes", notes.copy())
+      .put("effectiveShelvingOrder", "F 416 H37 A2 59001")
+      .put("effectiveCallNumberComponents", new JsonObject()
+        .put("callNumber", "F16.H37 A2 9001")
+        .put("prefix", "PFX")
+        .put("suffix", "SFX"));
+
+    JsonObject newItem = oldItem.copy()
+      .put("status", new JsonObject().put("name", "Checked out"));
+
+    payload = new JsonObject()
+      .put("type", "UPDATE")
+      .put("tenant", "diku")
+      .put("old", oldItem)
+      .put("new", newItem)
+      .encode();
+  }
+
+  @Benchmark
+  public JsonObject parseWholePayload() {
+    return new JsonObject(payload);
+  }
+
+  @Benchmark
+  public JsonObject parseRelevantProperties() {
+    return parser.parse(payload);
+  }
+}
@@ -0,0 +1,68 @@
+package org.folio.service.event.handler;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.folio.rest.jaxrs.model.Request;
+import org.folio.service.event.handler.UpdateEventAbstractHandler.Change;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Comparison of the old and the new item done for every item update event. Placed in the
+ * package of the handler to access the protected method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ItemUpdateEventHandlerBenchmark {
+  private final ItemUpdateEventHandler handler = new ItemUpdateEventHandler(null, 1);
+  private JsonObject oldItem;
+  private JsonObject unchangedItem;
+  private JsonObject changedItem;
+
+  @Setup
+  public void setUp() {
+    oldItem = new JsonObject()
+      .put("id", "195efae1-588f-47bd-a181-13a2eb437701")
+      .put("holdingsRecordId", "e63273e7-48f5-4c43-ab4e-1751ecacaa21")
+      .put("barcode", "760932543816")
+      .put("status", new JsonObject().put("name", "Available"))
+      .put("effectiveShelvingOrder", "F 416 H37 A2 59001")
+      .put("effectiveCallNumberComponents", new JsonObject()
+        .put("callNumber", "F16.H37 A2 9001")
+        .put("prefix", "PFX")
+        .put("suffix", "SFX"));
+
+    unchangedItem = oldItem.copy()
+      .put("status", new JsonObject().put("name", "Checked out"));
+
+    changedItem = oldItem.copy()
+      .put("effectiveShelvingOrder", "F 416 H37 A2 59002");
+    changedItem.getJsonObject("effectiveCallNumberComponents")
+      .put("callNumber", "F16.H37 A2 9002");
+  }
+
+  @Benchmark
+  public List<Change<Request>> collectChangesOfUnchangedItem() {
+    return handler.collectRelevantChanges(oldItem, unchangedItem);
+  }
+
+  @Benchmark
+  public List<Change<Request>> collectChangesOfChangedItem() {
+    return handler.collectRelevantChanges(oldItem, changedItem);
+  }
+}
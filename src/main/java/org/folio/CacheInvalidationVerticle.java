@@ -0,0 +1,100 @@
+package org.folio;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.service.policy.PolicyCache;
+import org.folio.service.rules.CirculationRulesCache;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonObject;
+import io.vertx.pgclient.PgConnectOptions;
+import io.vertx.pgclient.pubsub.PgSubscriber;
+
+/**
+ * Listens to the change notifications of Postgres and invalidates the cached data of the changed
+ * tenant, so that a change made through any module instance is seen by all of them. The caches
+ * are enabled only while the listening connection is open, and are cleared whenever it is
+ * (re)opened because notifications sent while it was closed are lost.
+ * <p>
+ * Also logs the hit ratio of the policy caches.
+ */
+public class CacheInvalidationVerticle extends AbstractVerticle {
+
+  private static final Logger log = LogManager.getLogger(CacheInvalidationVerticle.class);
+  private static final long RECONNECT_DELAY_MS = 5_000;
+
+  private PgSubscriber subscriber;
+  private long metricsTimerId = -1;
+
+  @Override
+  public void start(Promise<Void> promise) {
+    log.info("start:: starting verticle");
+
+    CirculationRulesCache circulationRulesCache = CirculationRulesCache.getInstance();
+
+    subscriber = PgSubscriber.subscriber(vertx, getConnectOptions())
+      .reconnectPolicy(retries -> RECONNECT_DELAY_MS)
+      .closeHandler(v -> {
+        log.warn("start:: change notifications connection closed");
+        circulationRulesCache.setNotificationsReceived(false);
+        PolicyCache.setNotificationsReceived(false);
+      });
+
+    subscriber.channel(CirculationRulesCache.CHANGE_CHANNEL)
+      .subscribeHandler(v -> circulationRulesCache.setNotificationsReceived(true))
+      .handler(circulationRulesCache::invalidate);
+
+    subscriber.channel(PolicyCache.CHANGE_CHANNEL)
+      .subscribeHandler(v -> PolicyCache.setNotificationsReceived(true))
+      .handler(PolicyCache::handleNotification);
+
+    int metricsIntervalMs = PolicyCache.getConfiguration().getMetricsIntervalMs();
+    if (metricsIntervalMs > 0) {
+      metricsTimerId = vertx.setPeriodic(metricsIntervalMs, id -> reportPolicyCacheMetrics());
+    }
+
+    subscriber.connect()
+      .onSuccess(v -> log.info("start:: verticle started"))
+      .onFailure(t -> log.warn("start:: failed to listen to change notifications, caches are " +
+        "disabled until the connection succeeds", t));
+
+    // the module works without the caches, so it does not wait for the connection
+    promise.complete();
+  }
+
+  @Override
+  public void stop(Promise<Void> promise) {
+    log.info("stop:: stopping verticle");
+
+    vertx.cancelTimer(metricsTimerId);
+    CirculationRulesCache.getInstance().setNotificationsReceived(false);
+    PolicyCache.setNotificationsReceived(false);
+    subscriber.close();
+    promise.complete();
+  }
+
+  private static void reportPolicyCacheMetrics() {
+    for (PolicyCache<?> cache : PolicyCache.all()) {
+      long hits = cache.getHits();
+      long reads = hits + cache.getMisses();
+
+      log.info("reportPolicyCacheMetrics:: {} policies: reads {}, hits {}, hit ratio {}",
+        cache.getPolicyType(), reads, hits,
+        reads == 0 ? "n/a" : String.format("%.3f", (double) hits / reads));
+    }
+  }
+
+  private PgConnectOptions getConnectOptions() {
+    JsonObject config = PostgresClient.getInstance(vertx).getConnectionConfig();
+
+    return new PgConnectOptions()
+      .setHost(config.getString("host"))
+      .setPort(config.getInteger("port"))
+      .setDatabase(config.getString("database"))
+      .setUser(config.getString("username"))
+      .setPassword(config.getString("password"));
+  }
+
+}
@@ -0,0 +1,49 @@
+package org.folio;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.configuration.DomainEventOutboxConfiguration;
+import org.folio.service.event.DomainEventOutboxRelay;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Promise;
+import io.vertx.core.eventbus.MessageConsumer;
+
+/**
+ * Publishes the domain events of the outbox to Kafka: the events of a tenant as soon as they
+ * are committed (see {@link org.folio.service.event.DomainEventOutbox#relay()}) and the events
+ * of all tenants on a schedule, so that events left by failed runs or by a crashed module
+ * instance are published too.
+ */
+public class DomainEventOutboxRelayVerticle extends AbstractVerticle {
+
+  private static final Logger log = LogManager.getLogger(DomainEventOutboxRelayVerticle.class);
+
+  private MessageConsumer<String> relayConsumer;
+  private long relayTimerId;
+
+  @Override
+  public void start(Promise<Void> promise) {
+    DomainEventOutboxConfiguration configuration = DomainEventOutboxConfiguration.fromEnvironment();
+    log.info("start:: starting verticle, {}", configuration);
+
+    DomainEventOutboxRelay relay = new DomainEventOutboxRelay(context,
+      configuration.getRelayBatchSize(), configuration.getRelayClaimSeconds());
+
+    relayConsumer = vertx.eventBus().localConsumer(DomainEventOutboxRelay.RELAY_ADDRESS,
+      message -> relay.relay(message.body()));
+    relayTimerId = vertx.setPeriodic(configuration.getRelayIntervalMs(),
+      id -> relay.relayAllTenants());
+
+    relayConsumer.completionHandler(promise);
+  }
+
+  @Override
+  public void stop(Promise<Void> promise) {
+    log.info("stop:: stopping verticle");
+
+    vertx.cancelTimer(relayTimerId);
+    relayConsumer.unregister(promise);
+  }
+
+}
@@ -0,0 +1,61 @@
+package org.folio;
+
+import static org.apache.kafka.clients.CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG;
+
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.kafka.services.KafkaEnvironmentProperties;
+import org.folio.service.event.EventConsumerMetrics;
+import org.folio.service.event.InventoryEventType;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Promise;
+import io.vertx.kafka.admin.KafkaAdminClient;
+
+/**
+ * Logs the lag of the consumer groups of the inventory events and the events in flight,
+ * processed and failed by the consumers of the module instance, so that the number of module
+ * instances and consumer instances can be adjusted to bursts of inventory events.
+ */
+public class EventConsumerMetricsVerticle extends AbstractVerticle {
+
+  public static final String INTERVAL_MS = "intervalMs";
+
+  private static final Logger log = LogManager.getLogger(EventConsumerMetricsVerticle.class);
+
+  private KafkaAdminClient adminClient;
+  private long reportTimerId;
+
+  @Override
+  public void start(Promise<Void> promise) {
+    log.info("start:: starting verticle");
+
+    adminClient = KafkaAdminClient.create(vertx, Map.of(BOOTSTRAP_SERVERS_CONFIG,
+      KafkaEnvironmentProperties.host() + ":" + KafkaEnvironmentProperties.port()));
+    reportTimerId = vertx.setPeriodic(config().getLong(INTERVAL_MS), id -> reportMetrics());
+
+    promise.complete();
+  }
+
+  @Override
+  public void stop(Promise<Void> promise) {
+    log.info("stop:: stopping verticle");
+
+    vertx.cancelTimer(reportTimerId);
+    adminClient.close().onComplete(promise);
+  }
+
+  private void reportMetrics() {
+    for (InventoryEventType eventType : InventoryEventType.values()) {
+      EventConsumerMetrics.getLag(adminClient, EventConsumerVerticle.getConsumerGroupId(eventType))
+        .onSuccess(lag -> log.info("reportMetrics:: {}: lag {}, in flight {}, processed {}, " +
+            "failed {}", eventType, lag, EventConsumerMetrics.getInFlight(eventType),
+          EventConsumerMetrics.getProcessed(eventType), EventConsumerMetrics.getFailed(eventType)))
+        .onFailure(t -> log.warn("reportMetrics:: failed to get lag of {} consumer group",
+          eventType, t));
+    }
+  }
+
+}
@@ -23,7 +23,12 @@ import org.folio.kafka.KafkaConfig;
 import org.folio.kafka.KafkaConsumerWrapper;
 import org.folio.kafka.SubscriptionDefinition;
 import org.folio.kafka.services.KafkaTopic;
+import org.folio.rest.configuration.EventConsumerConfiguration;
+import org.folio.rest.configuration.InventoryEventRetryConfiguration;
+import org.folio.service.event.EventConsumerMetrics;
 import org.folio.service.event.InventoryEventType;
+import org.folio.service.event.handler.BatchingRecordHandler;
+import org.folio.service.event.handler.DeadLetteringRecordHandler;
 import org.folio.service.event.handler.ItemUpdateEventHandler;
 import org.folio.service.event.handler.ServicePointUpdateEventHandler;
 
@@ -35,8 +40,9 @@ import io.vertx.core.json.JsonObject;
 
 public class EventConsumerVerticle extends AbstractVerticle {
 
+  public static final String EVENT_TYPE = "eventType";
+
   private static final Logger log = LogManager.getLogger(EventConsumerVerticle.class);
-  private static final int DEFAULT_LOAD_LIMIT = 5;
   private static final String TENANT_ID_PATTERN = "\\w+";
   private static final String MODULE_ID = getModuleId();
 
@@ -74,33 +80,87 @@ public class EventConsumerVerticle extends AbstractVerticle {
 
   private Future<Void> createConsumers() {
     final KafkaConfig config = getKafkaConfig();
+    final EventConsumerConfiguration consumerConfig = EventConsumerConfiguration.fromEnvironment();
+    final InventoryEventRetryConfiguration retryConfig =
+      InventoryEventRetryConfiguration.fromEnvironment();
+    log.info("createConsumers:: {}, {}", consumerConfig, retryConfig);
+
+    Future<Void> result = Future.succeededFuture();
+    for (InventoryEventType eventType : getConsumedEventTypes()) {
+      // failed events are counted by the metrics before they are saved for retry
+      AsyncRecordHandler<String, String> handler = new DeadLetteringRecordHandler(context,
+        eventType, retryConfig,
+        EventConsumerMetrics.metered(eventType, createHandler(eventType, consumerConfig)));
+
+      result = result.compose(r -> createInventoryEventConsumer(eventType, config, handler,
+          consumerConfig.getLoadLimit(eventType)))
+        .mapEmpty();
+    }
+
+    return result;
+  }
 
-    return createInventoryEventConsumer(INVENTORY_ITEM_UPDATED, config, new ItemUpdateEventHandler(context))
-      .compose(r -> createInventoryEventConsumer(INVENTORY_SERVICE_POINT_UPDATED, config,
-        new ServicePointUpdateEventHandler(context)))
-      .mapEmpty();
+  /**
+   * Returns the event type of the {@link #EVENT_TYPE} configuration of the verticle, which is
+   * deployed per event type, or all event types when it is missing.
+   */
+  private List<InventoryEventType> getConsumedEventTypes() {
+    String eventType = config().getString(EVENT_TYPE);
+
+    return eventType == null
+      ? List.of(INVENTORY_ITEM_UPDATED, INVENTORY_SERVICE_POINT_UPDATED)
+      : List.of(InventoryEventType.valueOf(eventType));
+  }
+
+  private AsyncRecordHandler<String, String> createHandler(InventoryEventType eventType,
+    EventConsumerConfiguration consumerConfig) {
+
+    switch (eventType) {
+      case INVENTORY_ITEM_UPDATED:
+        return createItemUpdateEventHandler(consumerConfig);
+      case INVENTORY_SERVICE_POINT_UPDATED:
+        return new ServicePointUpdateEventHandler(context,
+          consumerConfig.getLoadLimit(eventType), consumerConfig.getServicePointUpdateChunkSize());
+      default:
+        throw new IllegalArgumentException("Unsupported event type: " + eventType);
+    }
+  }
+
+  private AsyncRecordHandler<String, String> createItemUpdateEventHandler(
+    EventConsumerConfiguration consumerConfig) {
+
+    ItemUpdateEventHandler handler = new ItemUpdateEventHandler(context,
+      consumerConfig.getLoadLimit(INVENTORY_ITEM_UPDATED));
+
+    if (!consumerConfig.isItemUpdateBatchingEnabled()) {
+      return handler;
+    }
+
+    return new BatchingRecordHandler(vertx, consumerConfig.getItemUpdateBatchSize(),
+      consumerConfig.getItemUpdateBatchWaitMs(), handler::handleBatch);
   }
 
   private Future<KafkaConsumerWrapper<String, String>> createInventoryEventConsumer(
     InventoryEventType eventType, KafkaConfig kafkaConfig,
-    AsyncRecordHandler<String, String> handler) {
+    AsyncRecordHandler<String, String> handler, int loadLimit) {
 
     SubscriptionDefinition subscriptionDefinition = SubscriptionDefinition.builder()
       .eventType(eventType.name())
       .subscriptionPattern(buildSubscriptionPattern(eventType.getKafkaTopic(), kafkaConfig))
       .build();
 
-    return createConsumer(kafkaConfig, subscriptionDefinition, handler);
+    return createConsumer(kafkaConfig, subscriptionDefinition, handler, loadLimit);
   }
 
   private Future<KafkaConsumerWrapper<String, String>> createConsumer(KafkaConfig kafkaConfig,
-    SubscriptionDefinition subscriptionDefinition, AsyncRecordHandler<String, String> recordHandler) {
+    SubscriptionDefinition subscriptionDefinition, AsyncRecordHandler<String, String> recordHandler,
+    int loadLimit) {
 
     var consumer = KafkaConsumerWrapper.<String, String>builder()
       .context(context)
       .vertx(vertx)
       .kafkaConfig(kafkaConfig)
-      .loadLimit(DEFAULT_LOAD_LIMIT)
+      .loadLimit(loadLimit)
       .globalLoadSensor(new GlobalLoadSensor())
       .subscriptionDefinition(subscriptionDefinition)
       .build();
@@ -129,6 +189,13 @@ public class EventConsumerVerticle extends AbstractVerticle {
     return config;
   }
 
+  /**
+   * Returns the ID of the Kafka consumer group which consumes the events of the type.
+   */
+  public static String getConsumerGroupId(InventoryEventType eventType) {
+    return eventType.name() + "." + MODULE_ID;
+  }
+
   private static String getModuleId() {
     return getModuleName().replace("_", "-") + "-" + getModuleVersion();
   }
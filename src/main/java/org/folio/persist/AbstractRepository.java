@@ -1,17 +1,26 @@
 package org.folio.persist;
 
+import static io.vertx.core.Future.failedFuture;
 import static io.vertx.core.Future.succeededFuture;
 import static io.vertx.core.Promise.promise;
 import static java.lang.String.format;
+import static org.folio.rest.persist.PostgresClient.convertToPsqlStandard;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.StringUtils;
+import org.folio.cql2pgjson.CQL2PgJSON;
+import org.folio.cql2pgjson.exception.FieldException;
+import org.folio.cql2pgjson.exception.QueryValidationException;
+import org.folio.cql2pgjson.model.SqlSelect;
+import org.folio.rest.persist.Conn;
 import org.folio.rest.persist.Criteria.Criterion;
 import org.folio.rest.persist.PostgresClient;
 import org.folio.rest.persist.SQLConnection;
@@ -19,13 +28,49 @@ import org.folio.rest.persist.interfaces.Results;
 
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Promise;
 import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
 import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.RowStream;
+import io.vertx.sqlclient.Tuple;
 
 public abstract class AbstractRepository<T> {
 
+  /**
+   * Updates all records of a batch in one statement, {@code $1} are the IDs and {@code $2} are
+   * the new JSONB values in the same order.
+   */
+  private static final String UPDATE_BATCH_SQL = "UPDATE %s.%s AS record " +
+    "SET jsonb = batch.jsonb::jsonb " +
+    "FROM unnest($1::text[], $2::text[]) AS batch(id, jsonb) " +
+    "WHERE record.id = batch.id::uuid";
+
+  /**
+   * Creates or updates a record in one statement and returns the stored JSONB, {@code $1} is
+   * the ID and {@code $2} is the JSONB value. {@code xmax} of a row version is 0 unless it has
+   * been updated, so it tells an inserted row from an updated one.
+   */
+  private static final String UPSERT_SQL = "INSERT INTO %s.%s (id, jsonb) " +
+    "VALUES ($1::uuid, $2::jsonb) " +
+    "ON CONFLICT (id) DO UPDATE SET jsonb = EXCLUDED.jsonb " +
+    "RETURNING jsonb, (xmax = 0) AS inserted";
+
+  private static final String TRUNCATE_SQL = "TRUNCATE TABLE %s.%s";
+
+  /**
+   * Counts the records of a query like PgUtil.get does, exactly for a small result and from the
+   * query plan for a large one, {@code $1} is the query.
+   */
+  private static final String COUNT_ESTIMATE_SQL = "SELECT %s.count_estimate($1)";
+
+  private static final int STREAM_FETCH_SIZE = 100;
+
+  private static final String SELECT_JSON_BY_ID_SQL =
+    "SELECT jsonb::text FROM %s.%s WHERE id = $1";
+
   protected final PostgresClient postgresClient;
   protected final String tableName;
   protected final Class<T> recordType;
@@ -46,6 +91,81 @@ public abstract class AbstractRepository<T> {
     return postgresClient.getById(tableName, id, recordType);
   }
 
+  public Future<T> getById(Conn conn, String id) {
+    return conn.getById(tableName, id, recordType);
+  }
+
+  /**
+   * Returns the record as stored, without mapping it to the record type, or null when there is
+   * no record with the ID.
+   */
+  public Future<String> getJsonById(String id) {
+    String sql = format(SELECT_JSON_BY_ID_SQL, convertToPsqlStandard(postgresClient.getTenantId()),
+      tableName);
+
+    return postgresClient.execute(sql, Tuple.of(UUID.fromString(id)))
+      .map(rows -> rows.size() == 0 ? null : rows.iterator().next().getString(0));
+  }
+
+  /**
+   * Reads the records matching the CQL query through a cursor and passes the stored JSON of
+   * every record to the handler, in the order of the query. Only the rows of one fetch are held
+   * in memory however large the limit is, and the records are not mapped to the record type.
+   *
+   * @return the number of matching records, estimated for a large result like PgUtil.get does
+   */
+  public Future<Integer> streamJson(String cql, int offset, int limit,
+    Handler<String> recordHandler) {
+
+    final SqlSelect select;
+    try {
+      select = StringUtils.isBlank(cql) ? null : new CQL2PgJSON(tableName + ".jsonb").toSql(cql);
+    } catch (FieldException | QueryValidationException e) {
+      return failedFuture(e);
+    }
+
+    String schemaName = convertToPsqlStandard(postgresClient.getTenantId());
+    String from = format("FROM %s.%s", schemaName, tableName);
+    String where = select == null || select.getWhere().isEmpty()
+      ? "" : " WHERE " + select.getWhere();
+    String orderBy = select == null || select.getOrderBy().isEmpty()
+      ? "" : " ORDER BY " + select.getOrderBy();
+
+    String countedSql = "SELECT jsonb " + from + where;
+    String sql = format("SELECT jsonb::text %s%s%s LIMIT %d OFFSET %d", from, where, orderBy,
+      limit, offset);
+
+    // a cursor only exists within a transaction
+    return postgresClient.withTrans(conn -> conn.execute(format(COUNT_ESTIMATE_SQL, schemaName),
+        Tuple.of(countedSql))
+      .compose(count -> streamRows(conn, sql, recordHandler)
+        .map(count.iterator().next().getInteger(0))));
+  }
+
+  private static Future<Void> streamRows(Conn conn, String sql, Handler<String> rowHandler) {
+    return conn.getPgConnection().prepare(sql).compose(statement -> {
+      final Promise<Void> promise = promise();
+      RowStream<Row> rows = statement.createStream(STREAM_FETCH_SIZE);
+
+      rows.exceptionHandler(promise::tryFail);
+      rows.endHandler(notUsed -> promise.tryComplete());
+      rows.handler(row -> rowHandler.handle(row.getString(0)));
+
+      return promise.future().eventually(notUsed -> statement.close());
+    });
+  }
+
+  /**
+   * Saves a new record and returns it as stored, with the changes made by the triggers.
+   */
+  public Future<T> saveAndReturnUpdatedEntity(Conn conn, String id, T entity) {
+    return conn.saveAndReturnUpdatedEntity(tableName, id, entity);
+  }
+
+  public <R> Future<R> withTransaction(Function<Conn, Future<R>> function) {
+    return postgresClient.withTrans(function);
+  }
+
   public Future<List<T>> get(Criterion criterion) {
     final Promise<Results<T>> getItemsResult = promise();
 
@@ -107,10 +227,89 @@ public abstract class AbstractRepository<T> {
     return promise.future();
   }
 
+  /**
+   * Updates the records in one statement instead of one statement per record.
+   * Records which do not exist are ignored.
+   */
+  public Future<RowSet<Row>> updateBatch(AsyncResult<SQLConnection> connection,
+      List<T> records) {
+
+    if (records.isEmpty()) {
+      return succeededFuture();
+    }
+
+    return updateBatchParams(records).compose(params -> {
+      final Promise<RowSet<Row>> promise = promise();
+
+      postgresClient.execute(connection, updateBatchSql(), params, promise);
+
+      return promise.future();
+    });
+  }
+
+  public Future<RowSet<Row>> updateBatch(List<T> records) {
+    if (records.isEmpty()) {
+      return succeededFuture();
+    }
+
+    return updateBatchParams(records)
+        .compose(params -> postgresClient.execute(updateBatchSql(), params));
+  }
+
+  private String updateBatchSql() {
+    return format(UPDATE_BATCH_SQL, convertToPsqlStandard(postgresClient.getTenantId()),
+        tableName);
+  }
+
+  private static <T> Future<Tuple> updateBatchParams(List<T> records) {
+    final String[] ids = new String[records.size()];
+    final String[] values = new String[records.size()];
+
+    for (int i = 0; i < records.size(); i++) {
+      final JsonObject json;
+      try {
+        // the same conversion as PostgresClient.update
+        json = PostgresClient.pojo2JsonObject(records.get(i));
+      } catch (Exception e) {
+        return failedFuture(e);
+      }
+
+      ids[i] = json.getString("id");
+      values[i] = json.encode();
+
+      if (ids[i] == null) {
+        return failedFuture(new IllegalArgumentException("Cannot update a record without id"));
+      }
+    }
+
+    return succeededFuture(Tuple.of(ids, values));
+  }
+
   public Future<String> upsert(String id, T rec) {
     return postgresClient.upsert(tableName, id, rec);
   }
 
+  /**
+   * Creates or updates the record and returns it as stored, without reading it again.
+   */
+  public Future<UpsertResult<T>> upsertAndReturnUpdatedEntity(Conn conn, String id, T rec) {
+    final JsonObject json;
+    try {
+      // the same conversion as PostgresClient.upsert
+      json = PostgresClient.pojo2JsonObject(rec);
+    } catch (Exception e) {
+      return failedFuture(e);
+    }
+
+    String sql = format(UPSERT_SQL, convertToPsqlStandard(postgresClient.getTenantId()),
+        tableName);
+
+    return conn.execute(sql, Tuple.of(id, json))
+        .map(rows -> rows.iterator().next())
+        .map(row -> new UpsertResult<>(row.getJsonObject("jsonb").mapTo(recordType),
+            row.getBoolean("inserted")));
+  }
+
   public Future<RowSet<Row>> deleteAll() {
     return postgresClient.delete(tableName, new Criterion());
   }
@@ -119,4 +318,16 @@ public abstract class AbstractRepository<T> {
     return postgresClient.delete(tableName, id);
   }
 
+  public Future<RowSet<Row>> deleteById(Conn conn, String id) {
+    return conn.delete(tableName, id);
+  }
+
+  /**
+   * Removes all records in the transaction of the connection.
+   */
+  public Future<RowSet<Row>> truncate(Conn conn) {
+    return conn.execute(format(TRUNCATE_SQL,
+        convertToPsqlStandard(postgresClient.getTenantId()), tableName));
+  }
+
 }
@@ -1,19 +1,94 @@
 package org.folio.persist;
 
+import static io.vertx.core.Future.succeededFuture;
+import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
 import static org.folio.rest.persist.PgUtil.postgresClient;
+import static org.folio.rest.persist.PostgresClient.convertToPsqlStandard;
+import static org.folio.support.DbUtil.rowSetToStream;
 import static org.folio.support.ModuleConstants.REQUEST_CLASS;
 import static org.folio.support.ModuleConstants.REQUEST_TABLE;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 import org.folio.rest.jaxrs.model.Request;
 
 import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
 
 public class RequestRepository extends AbstractRepository<Request> {
 
+  /**
+   * Finds the requests of several items in one statement, {@code $1} are the lower case item
+   * IDs. The condition is the expression of the itemId index of the request table.
+   */
+  private static final String FIND_BY_ITEM_IDS_SQL = "SELECT jsonb FROM %1$s.%2$s " +
+    "WHERE left(lower(%1$s.f_unaccent(jsonb->>'itemId')), 600) = ANY($1)";
+
+  /**
+   * Sets the pickup service point name in the search index of a chunk of requests of the pickup
+   * service point, {@code $1} is the service point ID, {@code $2} is the new name, null removes
+   * it, and {@code $3} is the chunk size. Requests which already have the name are skipped, so
+   * every chunk updates requests not updated by the previous ones. The condition on the service
+   * point ID is the expression of the pickupServicePointId index of the request table.
+   */
+  private static final String UPDATE_PICKUP_SERVICE_POINT_NAME_SQL =
+    "UPDATE %1$s.%2$s AS request " +
+    "SET jsonb = jsonb_set(request.jsonb, '{searchIndex}', CASE WHEN $2::text IS NULL " +
+      "THEN coalesce(request.jsonb->'searchIndex', '{}') - 'pickupServicePointName' " +
+      "ELSE coalesce(request.jsonb->'searchIndex', '{}') " +
+        "|| jsonb_build_object('pickupServicePointName', $2::text) END) " +
+    "WHERE request.id IN (SELECT id FROM %1$s.%2$s " +
+      "WHERE left(lower(jsonb->>'pickupServicePointId'), 600) = lower($1) " +
+        "AND jsonb->'searchIndex'->>'pickupServicePointName' IS DISTINCT FROM $2::text " +
+      "LIMIT $3)";
+
   public RequestRepository(Context context, Map<String, String> okapiHeaders) {
     super(postgresClient(context, okapiHeaders), REQUEST_TABLE, REQUEST_CLASS);
   }
 
-}
\ No newline at end of file
+  public Future<List<Request>> findByItemIds(Collection<String> itemIds) {
+    String[] lowerCaseItemIds = itemIds.stream()
+      .map(String::toLowerCase)
+      .toArray(String[]::new);
+
+    String sql = format(FIND_BY_ITEM_IDS_SQL,
+      convertToPsqlStandard(postgresClient.getTenantId()), tableName);
+
+    return postgresClient.execute(sql, Tuple.of(lowerCaseItemIds))
+      .map(rows -> rowSetToStream(rows)
+        .map(row -> row.getJsonObject("jsonb").mapTo(recordType))
+        .collect(toList()));
+  }
+
+  /**
+   * Sets the pickup service point name of all requests of the pickup service point, chunk by
+   * chunk, without loading the requests. Every chunk is updated by its own statement, so that
+   * a statement locks at most {@code chunkSize} requests.
+   *
+   * @return number of updated requests
+   */
+  public Future<Integer> updatePickupServicePointName(String servicePointId,
+    String servicePointName, int chunkSize) {
+
+    String sql = format(UPDATE_PICKUP_SERVICE_POINT_NAME_SQL,
+      convertToPsqlStandard(postgresClient.getTenantId()), tableName);
+
+    return updateInChunks(sql, Tuple.of(servicePointId, servicePointName, chunkSize), chunkSize, 0);
+  }
+
+  private Future<Integer> updateInChunks(String sql, Tuple params, int chunkSize,
+    int updatedRequests) {
+
+    return postgresClient.execute(sql, params)
+      .map(RowSet::rowCount)
+      .compose(updated -> updated < chunkSize
+        ? succeededFuture(updatedRequests + updated)
+        : updateInChunks(sql, params, chunkSize, updatedRequests + updated));
+  }
+
+}
@@ -0,0 +1,11 @@
+package org.folio.persist;
+
+import lombok.Value;
+
+@Value
+public class UpsertResult<T> {
+  // the record as stored, with the changes made by the triggers
+  T entity;
+  // true when the record was created, false when an existing record was updated
+  boolean inserted;
+}
@@ -0,0 +1,113 @@
+package org.folio.rest.client;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * {@link OkapiClient} which remembers the records fetched by IDs, so that every record is
+ * fetched only once during the lifetime of the client. IDs which were not found are remembered
+ * too, a failed lookup is not. The number of remembered records is limited, the least recently
+ * used ones are evicted first.
+ * <p>
+ * Not thread safe, the client must be used on a single Vert.x context.
+ */
+public class CachingOkapiClient extends OkapiClient {
+  private final Map<String, Future<JsonObject>> cache;
+  private long hits;
+  private long misses;
+
+  public CachingOkapiClient(Vertx vertx, Map<String, String> okapiHeaders, int maxSize) {
+    super(vertx, okapiHeaders);
+
+    cache = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Future<JsonObject>> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  @Override
+  @SuppressWarnings("rawtypes")
+  protected Future<List<JsonObject>> getJsonObjects(String resourcePath, Collection<String> ids,
+    String collectionName) {
+
+    List<Future> records = new ArrayList<>();
+    Map<String, Promise<JsonObject>> missedRecords = new HashMap<>();
+
+    for (String id : new LinkedHashSet<>(ids)) {
+      String key = cacheKey(resourcePath, id);
+      Future<JsonObject> cachedRecord = cache.get(key);
+
+      if (cachedRecord != null) {
+        hits++;
+        records.add(cachedRecord);
+      } else {
+        misses++;
+        Promise<JsonObject> promise = Promise.promise();
+        missedRecords.put(id, promise);
+        cache.put(key, promise.future());
+        records.add(promise.future());
+      }
+    }
+
+    if (!missedRecords.isEmpty()) {
+      log.debug("getJsonObjects:: {}, {} records found in cache, {} records to fetch",
+        resourcePath, records.size() - missedRecords.size(), missedRecords.size());
+
+      super.getJsonObjects(resourcePath, new ArrayList<>(missedRecords.keySet()), collectionName)
+        .onSuccess(fetchedRecords -> {
+          fetchedRecords.forEach(json -> {
+            Promise<JsonObject> promise = missedRecords.remove(json.getString("id"));
+            if (promise != null) {
+              promise.complete(json);
+            }
+          });
+          // records which do not exist
+          missedRecords.values().forEach(promise -> promise.complete(null));
+        })
+        .onFailure(throwable -> missedRecords.forEach((id, promise) -> {
+          // the entry may have been evicted and replaced by a newer lookup in the meantime
+          cache.remove(cacheKey(resourcePath, id), promise.future());
+          promise.fail(throwable);
+        }));
+    }
+
+    return CompositeFuture.all(records)
+      .map(r -> records.stream()
+        .map(record -> (JsonObject) record.result())
+        .filter(Objects::nonNull)
+        .collect(toList()));
+  }
+
+  public long getHits() {
+    return hits;
+  }
+
+  public long getMisses() {
+    return misses;
+  }
+
+  public double getHitRatio() {
+    long lookups = hits + misses;
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  private static String cacheKey(String resourcePath, String id) {
+    return resourcePath + "/" + id;
+  }
+}
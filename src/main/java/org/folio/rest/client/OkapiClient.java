@@ -11,7 +11,9 @@ import static org.folio.rest.RestVerticle.OKAPI_HEADER_TENANT;
 import static org.folio.rest.RestVerticle.OKAPI_HEADER_TOKEN;
 import static org.folio.util.StringUtil.urlEncode;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 import org.slf4j.Logger;
@@ -19,6 +21,7 @@ import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
@@ -29,6 +32,10 @@ import io.vertx.ext.web.client.WebClient;
 public class OkapiClient {
   protected static final Logger log = LoggerFactory.getLogger(OkapiClient.class);
   private static final String OKAPI_URL_HEADER = "x-okapi-url";
+  // safe number of UUIDs which fits into Okapi's URL length limit (4096 characters)
+  static final int MAX_IDS_PER_QUERY = 80;
+  // number of queries for one collection of IDs which are sent without waiting for each other
+  static final int MAX_CONCURRENT_QUERIES = 5;
   protected static final ObjectMapper objectMapper = new ObjectMapper();
 
   private final WebClient webClient;
@@ -57,11 +64,58 @@ public class OkapiClient {
     }
   }
 
+  /**
+   * Fetches records by IDs. IDs are split into queries of at most {@value #MAX_IDS_PER_QUERY}
+   * IDs, up to {@value #MAX_CONCURRENT_QUERIES} queries are sent at the same time.
+   */
   public <T> Future<Collection<T>> get(String resourcePath, Collection<String> ids,
     String collectionName, Class<T> objectType) {
 
-    String query = ids.stream()
+    return getJsonObjects(resourcePath, ids, collectionName)
+      .map(records -> records.stream()
+        .map(json -> json.mapTo(objectType))
+        .collect(toList()));
+  }
+
+  protected Future<List<JsonObject>> getJsonObjects(String resourcePath, Collection<String> ids,
+    String collectionName) {
+
+    List<String> distinctIds = ids.stream()
       .distinct()
+      .collect(toList());
+
+    List<List<String>> idChunks = new ArrayList<>();
+    for (int from = 0; from < distinctIds.size(); from += MAX_IDS_PER_QUERY) {
+      idChunks.add(distinctIds.subList(from,
+        Math.min(from + MAX_IDS_PER_QUERY, distinctIds.size())));
+    }
+
+    return getChunks(resourcePath, idChunks, 0, collectionName, new ArrayList<>());
+  }
+
+  @SuppressWarnings("rawtypes")
+  private Future<List<JsonObject>> getChunks(String resourcePath, List<List<String>> idChunks,
+    int fromChunk, String collectionName, List<JsonObject> records) {
+
+    if (fromChunk >= idChunks.size()) {
+      return succeededFuture(records);
+    }
+
+    int toChunk = Math.min(fromChunk + MAX_CONCURRENT_QUERIES, idChunks.size());
+    List<Future> queries = idChunks.subList(fromChunk, toChunk)
+      .stream()
+      .map(idChunk -> getChunk(resourcePath, idChunk, collectionName)
+        .onSuccess(records::addAll))
+      .collect(toList());
+
+    return CompositeFuture.all(queries)
+      .compose(r -> getChunks(resourcePath, idChunks, toChunk, collectionName, records));
+  }
+
+  private Future<List<JsonObject>> getChunk(String resourcePath, List<String> ids,
+    String collectionName) {
+
+    String query = ids.stream()
       .map(id -> "id==" + id)
       .collect(joining(" OR "));
 
@@ -69,7 +123,6 @@ public class OkapiClient {
       .map(responseJson -> responseJson.getJsonArray(collectionName)
         .stream()
         .map(JsonObject.class::cast)
-        .map(json -> json.mapTo(objectType))
         .collect(toList())
       );
   }
@@ -0,0 +1,28 @@
+package org.folio.rest.configuration;
+
+import static org.folio.rest.configuration.EnvironmentVariables.getIntOrDefault;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@AllArgsConstructor
+@Getter
+@ToString
+public class CollectionStreamingConfiguration {
+  public static final String LIMIT_THRESHOLD_ENV = "COLLECTION_STREAMING_LIMIT_THRESHOLD";
+  public static final int DEFAULT_LIMIT_THRESHOLD = 1_000;
+
+  // loan and request queries with a limit above the threshold are read through a cursor,
+  // 0 reads all of them through a cursor
+  private final int limitThreshold;
+
+  public static CollectionStreamingConfiguration fromEnvironment() {
+    return new CollectionStreamingConfiguration(
+      getIntOrDefault(LIMIT_THRESHOLD_ENV, DEFAULT_LIMIT_THRESHOLD, 0));
+  }
+
+  public boolean isStreamed(int limit) {
+    return limit > limitThreshold;
+  }
+}
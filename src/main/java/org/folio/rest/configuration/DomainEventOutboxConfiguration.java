@@ -0,0 +1,35 @@
+package org.folio.rest.configuration;
+
+import static org.folio.rest.configuration.EnvironmentVariables.getIntOrDefault;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@AllArgsConstructor
+@Getter
+@ToString
+public class DomainEventOutboxConfiguration {
+  public static final String RELAY_BATCH_SIZE_ENV = "DOMAIN_EVENT_OUTBOX_RELAY_BATCH_SIZE";
+  public static final String RELAY_INTERVAL_MS_ENV = "DOMAIN_EVENT_OUTBOX_RELAY_INTERVAL_MS";
+  public static final String RELAY_CLAIM_SECONDS_ENV = "DOMAIN_EVENT_OUTBOX_RELAY_CLAIM_SECONDS";
+  public static final int DEFAULT_RELAY_BATCH_SIZE = 500;
+  public static final int DEFAULT_RELAY_INTERVAL_MS = 5_000;
+  public static final int DEFAULT_RELAY_CLAIM_SECONDS = 300;
+
+  // number of events claimed, published to Kafka and removed from the outbox together
+  private final int relayBatchSize;
+  // interval of the scheduled runs of the relay, which publish the events left in the outbox
+  // by failed or interrupted runs; new events are relayed as soon as they are committed
+  private final int relayIntervalMs;
+  // time a relay has to publish the batch it claimed, the other relays of the tenant wait for
+  // it; must be longer than the delivery timeout of the Kafka producer
+  private final int relayClaimSeconds;
+
+  public static DomainEventOutboxConfiguration fromEnvironment() {
+    return new DomainEventOutboxConfiguration(
+      getIntOrDefault(RELAY_BATCH_SIZE_ENV, DEFAULT_RELAY_BATCH_SIZE, 1),
+      getIntOrDefault(RELAY_INTERVAL_MS_ENV, DEFAULT_RELAY_INTERVAL_MS, 100),
+      getIntOrDefault(RELAY_CLAIM_SECONDS_ENV, DEFAULT_RELAY_CLAIM_SECONDS, 1));
+  }
+}
@@ -0,0 +1,44 @@
+package org.folio.rest.configuration;
+
+import static java.lang.System.getenv;
+
+import java.lang.invoke.MethodHandles;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public final class EnvironmentVariables {
+  private static final Logger log = LogManager.getLogger(MethodHandles.lookup().lookupClass());
+
+  private EnvironmentVariables() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  /**
+   * Reads an integer environment variable, values lower than {@code minValue} are replaced
+   * with {@code minValue}, missing or invalid values with {@code defaultValue}.
+   */
+  public static int getIntOrDefault(String name, int defaultValue, int minValue) {
+    String value = getenv().get(name);
+    if (value == null) {
+      return defaultValue;
+    }
+
+    try {
+      return Math.max(Integer.parseInt(value.trim()), minValue);
+    } catch (NumberFormatException e) {
+      log.warn("Invalid value of {}: {}, using default value {}", name, value, defaultValue);
+      return defaultValue;
+    }
+  }
+
+  /**
+   * Reads a string environment variable, missing or blank values are replaced with
+   * {@code defaultValue}.
+   */
+  public static String getStringOrDefault(String name, String defaultValue) {
+    String value = getenv().get(name);
+
+    return value == null || value.isBlank() ? defaultValue : value.trim();
+  }
+}
@@ -0,0 +1,86 @@
+package org.folio.rest.configuration;
+
+import static org.folio.rest.configuration.EnvironmentVariables.getIntOrDefault;
+import static org.folio.service.event.InventoryEventType.INVENTORY_ITEM_UPDATED;
+
+import org.folio.service.event.InventoryEventType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@AllArgsConstructor
+@Getter
+@ToString
+public class EventConsumerConfiguration {
+  public static final String ITEM_UPDATE_INSTANCES_ENV = "ITEM_UPDATE_EVENT_CONSUMER_INSTANCES";
+  public static final String ITEM_UPDATE_LOAD_LIMIT_ENV = "ITEM_UPDATE_EVENT_CONSUMER_LOAD_LIMIT";
+  public static final String ITEM_UPDATE_BATCH_SIZE_ENV = "ITEM_UPDATE_EVENT_BATCH_SIZE";
+  public static final String ITEM_UPDATE_BATCH_WAIT_MS_ENV = "ITEM_UPDATE_EVENT_BATCH_WAIT_MS";
+  public static final String SERVICE_POINT_UPDATE_INSTANCES_ENV =
+    "SERVICE_POINT_UPDATE_EVENT_CONSUMER_INSTANCES";
+  public static final String SERVICE_POINT_UPDATE_LOAD_LIMIT_ENV =
+    "SERVICE_POINT_UPDATE_EVENT_CONSUMER_LOAD_LIMIT";
+  public static final String SERVICE_POINT_UPDATE_CHUNK_SIZE_ENV =
+    "SERVICE_POINT_UPDATE_EVENT_CHUNK_SIZE";
+  public static final String METRICS_INTERVAL_MS_ENV = "EVENT_CONSUMER_METRICS_INTERVAL_MS";
+  public static final int DEFAULT_INSTANCES = 1;
+  public static final int DEFAULT_LOAD_LIMIT = 5;
+  public static final int DEFAULT_ITEM_UPDATE_BATCH_SIZE = 100;
+  public static final int DEFAULT_ITEM_UPDATE_BATCH_WAIT_MS = 200;
+  public static final int DEFAULT_SERVICE_POINT_UPDATE_CHUNK_SIZE = 1_000;
+  public static final int DEFAULT_METRICS_INTERVAL_MS = 60_000;
+
+  // number of verticle instances consuming item update events, the partitions of the topic
+  // are shared by the instances
+  private final int itemUpdateInstances;
+  // maximum number of item update events handled at the same time by an instance
+  private final int itemUpdateLoadLimit;
+  // maximum number of item update events handled together, 1 handles every event separately
+  private final int itemUpdateBatchSize;
+  // maximum time an item update event waits for the batch to fill up
+  private final int itemUpdateBatchWaitMs;
+  // number of verticle instances consuming service point update events
+  private final int servicePointUpdateInstances;
+  // maximum number of service point update events handled at the same time by an instance
+  private final int servicePointUpdateLoadLimit;
+  // number of requests updated by one statement when a pickup service point is renamed
+  private final int servicePointUpdateChunkSize;
+  // interval of logging the consumer lag and the events in flight, 0 disables it
+  private final int metricsIntervalMs;
+
+  public static EventConsumerConfiguration fromEnvironment() {
+    return new EventConsumerConfiguration(
+      getIntOrDefault(ITEM_UPDATE_INSTANCES_ENV, DEFAULT_INSTANCES, 1),
+      getIntOrDefault(ITEM_UPDATE_LOAD_LIMIT_ENV, DEFAULT_LOAD_LIMIT, 1),
+      getIntOrDefault(ITEM_UPDATE_BATCH_SIZE_ENV, DEFAULT_ITEM_UPDATE_BATCH_SIZE, 1),
+      getIntOrDefault(ITEM_UPDATE_BATCH_WAIT_MS_ENV, DEFAULT_ITEM_UPDATE_BATCH_WAIT_MS, 1),
+      getIntOrDefault(SERVICE_POINT_UPDATE_INSTANCES_ENV, DEFAULT_INSTANCES, 1),
+      getIntOrDefault(SERVICE_POINT_UPDATE_LOAD_LIMIT_ENV, DEFAULT_LOAD_LIMIT, 1),
+      getIntOrDefault(SERVICE_POINT_UPDATE_CHUNK_SIZE_ENV, DEFAULT_SERVICE_POINT_UPDATE_CHUNK_SIZE,
+        1),
+      getIntOrDefault(METRICS_INTERVAL_MS_ENV, DEFAULT_METRICS_INTERVAL_MS, 0));
+  }
+
+  public boolean isItemUpdateBatchingEnabled() {
+    return itemUpdateBatchSize > 1;
+  }
+
+  public int getInstances(InventoryEventType eventType) {
+    return eventType == INVENTORY_ITEM_UPDATED ? itemUpdateInstances : servicePointUpdateInstances;
+  }
+
+  /**
+   * Returns the maximum number of events in flight of a consumer. A batch of item update events
+   * can only fill up if the consumer lets all of its events in at once.
+   */
+  public int getLoadLimit(InventoryEventType eventType) {
+    if (eventType != INVENTORY_ITEM_UPDATED) {
+      return servicePointUpdateLoadLimit;
+    }
+
+    return isItemUpdateBatchingEnabled()
+      ? Math.max(itemUpdateLoadLimit, itemUpdateBatchSize)
+      : itemUpdateLoadLimit;
+  }
+}
@@ -0,0 +1,34 @@
+package org.folio.rest.configuration;
+
+import static org.folio.rest.configuration.EnvironmentVariables.getIntOrDefault;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@AllArgsConstructor
+@Getter
+@ToString
+public class InventoryEventRetryConfiguration {
+  public static final String MAX_ATTEMPTS_ENV = "INVENTORY_EVENT_RETRY_MAX_ATTEMPTS";
+  public static final String BACKOFF_SECONDS_ENV = "INVENTORY_EVENT_RETRY_BACKOFF_SECONDS";
+  public static final String BATCH_SIZE_ENV = "INVENTORY_EVENT_RETRY_BATCH_SIZE";
+  public static final int DEFAULT_MAX_ATTEMPTS = 5;
+  public static final int DEFAULT_BACKOFF_SECONDS = 60;
+  public static final int DEFAULT_BATCH_SIZE = 100;
+
+  // number of attempts to apply a failed event, including the first one, after which the event
+  // stays dead-lettered until it is replayed
+  private final int maxAttempts;
+  // delay of the first retry, every following retry waits twice as long as the previous one
+  private final int backoffSeconds;
+  // number of dead-lettered events retried in one transaction
+  private final int batchSize;
+
+  public static InventoryEventRetryConfiguration fromEnvironment() {
+    return new InventoryEventRetryConfiguration(
+      getIntOrDefault(MAX_ATTEMPTS_ENV, DEFAULT_MAX_ATTEMPTS, 1),
+      getIntOrDefault(BACKOFF_SECONDS_ENV, DEFAULT_BACKOFF_SECONDS, 1),
+      getIntOrDefault(BATCH_SIZE_ENV, DEFAULT_BATCH_SIZE, 1));
+  }
+}
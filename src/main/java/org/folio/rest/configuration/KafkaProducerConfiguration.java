@@ -0,0 +1,48 @@
+package org.folio.rest.configuration;
+
+import static org.folio.rest.configuration.EnvironmentVariables.getIntOrDefault;
+import static org.folio.rest.configuration.EnvironmentVariables.getStringOrDefault;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@AllArgsConstructor
+@Getter
+@ToString
+public class KafkaProducerConfiguration {
+  public static final String LINGER_MS_ENV = "KAFKA_PRODUCER_LINGER_MS";
+  public static final String BATCH_SIZE_ENV = "KAFKA_PRODUCER_BATCH_SIZE";
+  public static final String COMPRESSION_TYPE_ENV = "KAFKA_PRODUCER_COMPRESSION_TYPE";
+  public static final int DEFAULT_LINGER_MS = 5;
+  public static final int DEFAULT_BATCH_SIZE = 16_384;
+  public static final String DEFAULT_COMPRESSION_TYPE = "none";
+
+  // time the producer waits for more events to send them in one batch
+  private final int lingerMs;
+  // maximum size of a batch of events sent to one partition, in bytes
+  private final int batchSize;
+  // none, gzip, snappy, lz4 or zstd
+  private final String compressionType;
+
+  public static KafkaProducerConfiguration fromEnvironment() {
+    return new KafkaProducerConfiguration(
+      getIntOrDefault(LINGER_MS_ENV, DEFAULT_LINGER_MS, 0),
+      getIntOrDefault(BATCH_SIZE_ENV, DEFAULT_BATCH_SIZE, 0),
+      getStringOrDefault(COMPRESSION_TYPE_ENV, DEFAULT_COMPRESSION_TYPE));
+  }
+
+  public Map<String, String> toProducerProperties() {
+    // the idempotent producer keeps the order of the events of a partition when a batch is
+    // retried, with up to 5 batches in flight
+    return Map.of(
+      "linger.ms", String.valueOf(lingerMs),
+      "batch.size", String.valueOf(batchSize),
+      "compression.type", compressionType,
+      "enable.idempotence", "true",
+      "acks", "all",
+      "max.in.flight.requests.per.connection", "5");
+  }
+}
@@ -0,0 +1,34 @@
+package org.folio.rest.configuration;
+
+import static org.folio.rest.configuration.EnvironmentVariables.getIntOrDefault;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@AllArgsConstructor
+@Getter
+@ToString
+public class PolicyCacheConfiguration {
+  public static final String MAX_SIZE_ENV = "POLICY_CACHE_MAX_SIZE";
+  public static final String TTL_SECONDS_ENV = "POLICY_CACHE_TTL_SECONDS";
+  public static final String METRICS_INTERVAL_MS_ENV = "POLICY_CACHE_METRICS_INTERVAL_MS";
+  public static final int DEFAULT_MAX_SIZE = 1_000;
+  public static final int DEFAULT_TTL_SECONDS = 300;
+  public static final int DEFAULT_METRICS_INTERVAL_MS = 60_000;
+
+  // maximum number of policies of a type cached per tenant, the least recently read policy is
+  // evicted first, 0 disables the cache
+  private final int maxSize;
+  // time after which a cached policy is read again from the database, 0 disables the cache
+  private final int ttlSeconds;
+  // interval of logging the hit ratio of the cache, 0 disables the logging
+  private final int metricsIntervalMs;
+
+  public static PolicyCacheConfiguration fromEnvironment() {
+    return new PolicyCacheConfiguration(
+      getIntOrDefault(MAX_SIZE_ENV, DEFAULT_MAX_SIZE, 0),
+      getIntOrDefault(TTL_SECONDS_ENV, DEFAULT_TTL_SECONDS, 0),
+      getIntOrDefault(METRICS_INTERVAL_MS_ENV, DEFAULT_METRICS_INTERVAL_MS, 0));
+  }
+}
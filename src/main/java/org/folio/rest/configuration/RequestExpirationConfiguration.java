@@ -0,0 +1,29 @@
+package org.folio.rest.configuration;
+
+import static org.folio.rest.configuration.EnvironmentVariables.getIntOrDefault;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@AllArgsConstructor
+@Getter
+@ToString
+public class RequestExpirationConfiguration {
+  public static final String BATCH_SIZE_ENV = "REQUEST_EXPIRATION_BATCH_SIZE";
+  public static final String TIME_LIMIT_ENV = "REQUEST_EXPIRATION_TIME_LIMIT_SECONDS";
+  public static final int DEFAULT_BATCH_SIZE = 150;
+  public static final int DEFAULT_TIME_LIMIT_SECONDS = 60;
+
+  // number of requests expired in one transaction
+  private final int batchSize;
+  // batches are processed until there are no expired requests left or the time limit is
+  // exceeded, 0 means that only one batch is processed
+  private final int timeLimitSeconds;
+
+  public static RequestExpirationConfiguration fromEnvironment() {
+    return new RequestExpirationConfiguration(
+      getIntOrDefault(BATCH_SIZE_ENV, DEFAULT_BATCH_SIZE, 1),
+      getIntOrDefault(TIME_LIMIT_ENV, DEFAULT_TIME_LIMIT_SECONDS, 0));
+  }
+}
@@ -0,0 +1,41 @@
+package org.folio.rest.configuration;
+
+import static org.folio.rest.configuration.EnvironmentVariables.getIntOrDefault;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@AllArgsConstructor
+@Getter
+@ToString
+public class RequestMigrationConfiguration {
+  public static final String BATCH_SIZE_ENV = "REQUEST_MIGRATION_BATCH_SIZE";
+  public static final String CHUNK_SIZE_ENV = "REQUEST_MIGRATION_CHUNK_SIZE";
+  public static final String PREFETCH_BATCHES_ENV = "REQUEST_MIGRATION_PREFETCH_BATCHES";
+  public static final String LOOKUP_CACHE_SIZE_ENV = "REQUEST_MIGRATION_LOOKUP_CACHE_SIZE";
+  public static final int DEFAULT_BATCH_SIZE = 500;
+  public static final int DEFAULT_CHUNK_SIZE = 10_000;
+  public static final int DEFAULT_PREFETCH_BATCHES = 2;
+  public static final int DEFAULT_LOOKUP_CACHE_SIZE = 10_000;
+
+  // number of requests fetched, looked up in other modules and updated together
+  private final int batchSize;
+  // number of requests migrated in one transaction, the transaction is committed after
+  // the batch which reaches this number
+  private final int chunkSize;
+  // number of batches which are fetched and looked up in other modules while the current
+  // batch is being updated, 0 means that batches are processed one after another
+  private final int prefetchBatches;
+  // number of records of other modules (items, holdings records, service points) remembered
+  // during a migration, so that they are not fetched again for the next batches
+  private final int lookupCacheSize;
+
+  public static RequestMigrationConfiguration fromEnvironment() {
+    return new RequestMigrationConfiguration(
+      getIntOrDefault(BATCH_SIZE_ENV, DEFAULT_BATCH_SIZE, 1),
+      getIntOrDefault(CHUNK_SIZE_ENV, DEFAULT_CHUNK_SIZE, 1),
+      getIntOrDefault(PREFETCH_BATCHES_ENV, DEFAULT_PREFETCH_BATCHES, 0),
+      getIntOrDefault(LOOKUP_CACHE_SIZE_ENV, DEFAULT_LOOKUP_CACHE_SIZE, 0));
+  }
+}
@@ -4,23 +4,29 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.sqlclient.Tuple;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 import org.folio.rest.annotations.Validate;
 import org.folio.rest.jaxrs.model.CirculationRules;
 import org.folio.rest.jaxrs.resource.CirculationRulesStorage;
-import org.folio.rest.persist.Criteria.Criterion;
-import org.folio.rest.persist.Criteria.UpdateSection;
 import org.folio.rest.persist.PostgresClient;
 import org.folio.rest.tools.utils.TenantTool;
+import org.folio.service.rules.CachedCirculationRules;
+import org.folio.service.rules.CirculationRulesCache;
+import org.folio.service.rules.CirculationRulesPolicyIndex;
 
 import javax.ws.rs.core.Response;
-import java.util.List;
 import java.util.Map;
 
+import static javax.ws.rs.core.HttpHeaders.ETAG;
+import static org.folio.rest.persist.PostgresClient.convertToPsqlStandard;
+
 public class CirculationRulesAPI implements CirculationRulesStorage {
   private static final Logger log = LogManager.getLogger();
-  static final String CIRCULATION_RULES_TABLE = "circulation_rules";
+  static final String CIRCULATION_RULES_TABLE = CirculationRulesCache.CIRCULATION_RULES_TABLE;
+  private static final String UPDATE_RULES_SQL =
+    "UPDATE %s.%s SET jsonb = jsonb_set(jsonb, '{rulesAsText}', to_jsonb($1::text))";
 
   private void internalErrorGet(Handler<AsyncResult<Response>> asyncResultHandler, Throwable e) {
     log.error(e);
@@ -31,38 +37,18 @@ public class CirculationRulesAPI implements CirculationRulesStorage {
 
   @Override
   @Validate
-  public void getCirculationRulesStorage(Map<String, String> okapiHeaders,
+  public void getCirculationRulesStorage(String ifNoneMatch, Map<String, String> okapiHeaders,
       Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
     try {
       vertxContext.runOnContext(v -> {
         try {
-          Criterion filter = new Criterion();
           PostgresClient postgresClient = PostgresClient.getInstance(
               vertxContext.owner(), TenantTool.tenantId(okapiHeaders));
 
-          postgresClient.get(CIRCULATION_RULES_TABLE, CirculationRules.class, filter, true,
-            reply -> {
-              try {
-                if (reply.failed()) {
-                  internalErrorGet(asyncResultHandler, reply.cause());
-                  return;
-                }
-
-                List<CirculationRules> circulationRulesList = reply.result().getResults();
-
-                if (circulationRulesList.size() != 1) {
-                  internalErrorGet(asyncResultHandler, new IllegalStateException("circulationRulesList.size() = "
-                      + circulationRulesList.size()));
-                  return;
-                }
-
-                CirculationRules circulationRules = circulationRulesList.get(0);
-                asyncResultHandler.handle(Future.succeededFuture(
-                  CirculationRulesStorage.GetCirculationRulesStorageResponse.respond200WithApplicationJson(circulationRules)));
-              } catch (Exception e) {
-                internalErrorGet(asyncResultHandler, e);
-              }
-            });
+          CirculationRulesCache.getInstance().get(postgresClient)
+            .onSuccess(cachedRules -> asyncResultHandler.handle(Future.succeededFuture(
+              toResponse(cachedRules, ifNoneMatch))))
+            .onFailure(e -> internalErrorGet(asyncResultHandler, e));
         } catch (Exception e) {
           internalErrorGet(asyncResultHandler, e);
         }
@@ -72,6 +58,20 @@ public class CirculationRulesAPI implements CirculationRulesStorage {
     }
   }
 
+  private static Response toResponse(CachedCirculationRules cachedRules, String ifNoneMatch) {
+    // the client has the current rules already, they are not sent again
+    if (cachedRules.matches(ifNoneMatch)) {
+      return Response.status(304)
+        .header(ETAG, cachedRules.getEtag())
+        .build();
+    }
+
+    return Response.fromResponse(CirculationRulesStorage.GetCirculationRulesStorageResponse
+        .respond200WithApplicationJson(cachedRules.getRules()))
+      .header(ETAG, cachedRules.getEtag())
+      .build();
+  }
+
   private void internalErrorPut(Handler<AsyncResult<Response>> asyncResultHandler, Throwable e) {
     log.error(e);
     asyncResultHandler.handle(Future.succeededFuture(
@@ -88,21 +88,19 @@ public class CirculationRulesAPI implements CirculationRulesStorage {
         try {
           PostgresClient postgresClient = PostgresClient.getInstance(
               vertxContext.owner(), TenantTool.tenantId(okapiHeaders));
-          UpdateSection updateSection = new UpdateSection().addField("rulesAsText");
-          updateSection.setValue(entity.getRulesAsText());
+          String rulesAsText = entity.getRulesAsText();
+          String updateSql = String.format(UPDATE_RULES_SQL,
+            convertToPsqlStandard(postgresClient.getTenantId()), CIRCULATION_RULES_TABLE);
+          CirculationRulesPolicyIndex policyIndex = new CirculationRulesPolicyIndex(postgresClient);
 
-          postgresClient.update(CIRCULATION_RULES_TABLE, updateSection, (Criterion)null, true, update -> {
-              try {
-                if (update.failed()) {
-                  internalErrorPut(asyncResultHandler, update.cause());
-                  return;
-                }
-                asyncResultHandler.handle(Future.succeededFuture(
-                    PutCirculationRulesStorageResponse.respond204()));
-              } catch (Exception e) {
-                internalErrorPut(asyncResultHandler, e);
-              }
-            });
+          postgresClient.withTrans(conn -> conn.execute(updateSql, Tuple.of(rulesAsText))
+              .compose(updated -> policyIndex.rebuild(conn, rulesAsText)))
+            // the rules are changed even if the other instances fail to be notified
+            .compose(updated -> CirculationRulesCache.getInstance().notifyChanged(postgresClient)
+              .otherwiseEmpty())
+            .onSuccess(updated -> asyncResultHandler.handle(Future.succeededFuture(
+              PutCirculationRulesStorageResponse.respond204())))
+            .onFailure(e -> internalErrorPut(asyncResultHandler, e));
         } catch (Exception e) {
           internalErrorPut(asyncResultHandler, e);
         }
@@ -1,6 +1,8 @@
 package org.folio.rest.impl;
 
 import static java.lang.System.getenv;
+import static org.folio.service.event.InventoryEventType.INVENTORY_ITEM_UPDATED;
+import static org.folio.service.event.InventoryEventType.INVENTORY_SERVICE_POINT_UPDATED;
 import static org.folio.support.kafka.KafkaConfigConstants.KAFKA_ENV;
 import static org.folio.support.kafka.KafkaConfigConstants.KAFKA_HOST;
 import static org.folio.support.kafka.KafkaConfigConstants.KAFKA_MAX_REQUEST_SIZE;
@@ -10,9 +12,14 @@ import static org.folio.support.kafka.KafkaConfigConstants.OKAPI_URL;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.folio.CacheInvalidationVerticle;
+import org.folio.DomainEventOutboxRelayVerticle;
+import org.folio.EventConsumerMetricsVerticle;
 import org.folio.EventConsumerVerticle;
 import org.folio.kafka.services.KafkaEnvironmentProperties;
+import org.folio.rest.configuration.EventConsumerConfiguration;
 import org.folio.rest.resource.interfaces.InitAPI;
+import org.folio.service.event.InventoryEventType;
 
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Context;
@@ -30,15 +37,29 @@ public class InitAPIImpl implements InitAPI {
 
   @Override
   public void init(Vertx vertx, Context context, Handler<AsyncResult<Boolean>> resultHandler) {
-    deployEventConsumerVerticle(vertx)
+    EventConsumerConfiguration consumerConfig = EventConsumerConfiguration.fromEnvironment();
+
+    deployEventConsumerVerticle(vertx, INVENTORY_ITEM_UPDATED, consumerConfig)
+      .compose(r -> deployEventConsumerVerticle(vertx, INVENTORY_SERVICE_POINT_UPDATED,
+        consumerConfig))
+      .compose(r -> deployEventConsumerMetricsVerticle(vertx, consumerConfig))
+      .compose(r -> deployDomainEventOutboxRelayVerticle(vertx))
+      .compose(r -> deployCacheInvalidationVerticle(vertx))
       .map(true)
       .onSuccess(r -> log.info("init:: initialization complete"))
       .onFailure(t -> log.error("init:: initialization failed", t))
       .onComplete(resultHandler);
   }
 
-  private static Future<String> deployEventConsumerVerticle(Vertx vertx) {
+  /**
+   * Deploys the consumer of the event type, every instance of the verticle has its own consumer
+   * and the instances share the partitions of the topic.
+   */
+  private static Future<String> deployEventConsumerVerticle(Vertx vertx,
+    InventoryEventType eventType, EventConsumerConfiguration consumerConfig) {
+
     JsonObject kafkaConfig = new JsonObject()
+      .put(EventConsumerVerticle.EVENT_TYPE, eventType.name())
       .put(KAFKA_HOST, KafkaEnvironmentProperties.host())
       .put(KAFKA_PORT, KafkaEnvironmentProperties.port())
       .put(KAFKA_REPLICATION_FACTOR, KafkaEnvironmentProperties.replicationFactor())
@@ -49,11 +70,43 @@ public class InitAPIImpl implements InitAPI {
 
     DeploymentOptions deploymentOptions = new DeploymentOptions()
       .setWorker(true)
+      .setInstances(consumerConfig.getInstances(eventType))
       .setConfig(kafkaConfig);
 
     return vertx.deployVerticle(EventConsumerVerticle.class, deploymentOptions)
-      .onSuccess(r -> log.info("deployEventConsumerVerticle:: deployment complete"))
-      .onFailure(t -> log.error("deployEventConsumerVerticle:: deployment failed", t));
+      .onSuccess(r -> log.info("deployEventConsumerVerticle:: deployment of {} consumer " +
+        "complete", eventType))
+      .onFailure(t -> log.error("deployEventConsumerVerticle:: deployment of {} consumer " +
+        "failed", eventType, t));
+  }
+
+  private static Future<String> deployEventConsumerMetricsVerticle(Vertx vertx,
+    EventConsumerConfiguration consumerConfig) {
+
+    if (consumerConfig.getMetricsIntervalMs() == 0) {
+      log.info("deployEventConsumerMetricsVerticle:: consumer metrics are disabled");
+      return Future.succeededFuture();
+    }
+
+    DeploymentOptions deploymentOptions = new DeploymentOptions()
+      .setConfig(new JsonObject().put(EventConsumerMetricsVerticle.INTERVAL_MS,
+        consumerConfig.getMetricsIntervalMs()));
+
+    return vertx.deployVerticle(EventConsumerMetricsVerticle.class, deploymentOptions)
+      .onSuccess(r -> log.info("deployEventConsumerMetricsVerticle:: deployment complete"))
+      .onFailure(t -> log.error("deployEventConsumerMetricsVerticle:: deployment failed", t));
+  }
+
+  private static Future<String> deployDomainEventOutboxRelayVerticle(Vertx vertx) {
+    return vertx.deployVerticle(DomainEventOutboxRelayVerticle.class, new DeploymentOptions())
+      .onSuccess(r -> log.info("deployDomainEventOutboxRelayVerticle:: deployment complete"))
+      .onFailure(t -> log.error("deployDomainEventOutboxRelayVerticle:: deployment failed", t));
+  }
+
+  private static Future<String> deployCacheInvalidationVerticle(Vertx vertx) {
+    return vertx.deployVerticle(CacheInvalidationVerticle.class, new DeploymentOptions())
+      .onSuccess(r -> log.info("deployCacheInvalidationVerticle:: deployment complete"))
+      .onFailure(t -> log.error("deployCacheInvalidationVerticle:: deployment failed", t));
   }
 
 }
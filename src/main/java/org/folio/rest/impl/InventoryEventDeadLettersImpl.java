@@ -0,0 +1,52 @@
+package org.folio.rest.impl;
+
+import static io.vertx.core.Future.succeededFuture;
+
+import java.util.Map;
+
+import javax.ws.rs.core.Response;
+
+import org.folio.rest.annotations.Validate;
+import org.folio.rest.configuration.InventoryEventRetryConfiguration;
+import org.folio.rest.jaxrs.resource.InventoryEventDeadLetters;
+import org.folio.service.event.InventoryEventRetryService;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+
+public class InventoryEventDeadLettersImpl implements InventoryEventDeadLetters {
+
+  @Validate
+  @Override
+  public void postInventoryEventDeadLettersRetry(Map<String, String> okapiHeaders,
+    Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+
+    createRetryService(okapiHeaders, vertxContext)
+      .retryDueEvents()
+      .onSuccess(result -> asyncResultHandler.handle(succeededFuture(
+        PostInventoryEventDeadLettersRetryResponse.respond200WithApplicationJson(result))))
+      .onFailure(e -> asyncResultHandler.handle(succeededFuture(
+        PostInventoryEventDeadLettersRetryResponse.respond500WithTextPlain(e.getMessage()))));
+  }
+
+  @Validate
+  @Override
+  public void postInventoryEventDeadLettersReplay(Map<String, String> okapiHeaders,
+    Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+
+    createRetryService(okapiHeaders, vertxContext)
+      .replay()
+      .onSuccess(result -> asyncResultHandler.handle(succeededFuture(
+        PostInventoryEventDeadLettersReplayResponse.respond200WithApplicationJson(result))))
+      .onFailure(e -> asyncResultHandler.handle(succeededFuture(
+        PostInventoryEventDeadLettersReplayResponse.respond500WithTextPlain(e.getMessage()))));
+  }
+
+  private static InventoryEventRetryService createRetryService(Map<String, String> okapiHeaders,
+    Context vertxContext) {
+
+    return new InventoryEventRetryService(vertxContext, okapiHeaders,
+      InventoryEventRetryConfiguration.fromEnvironment());
+  }
+}
@@ -5,6 +5,7 @@ import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import org.folio.rest.annotations.Validate;
+import org.folio.rest.impl.util.PolicyCacheApiUtil;
 import org.folio.rest.jaxrs.model.Errors;
 import org.folio.rest.jaxrs.model.LoanPolicies;
 import org.folio.rest.jaxrs.model.LoanPolicy;
@@ -14,15 +15,20 @@ import org.folio.rest.persist.PgUtil;
 import org.folio.rest.persist.PostgresClient;
 import org.folio.rest.tools.utils.TenantTool;
 import org.folio.rest.tools.utils.ValidationHelper;
+import org.folio.service.policy.PolicyCache;
+import org.folio.service.rules.CirculationRulesPolicyIndex;
+import org.folio.service.rules.PolicyType;
 import javax.ws.rs.core.Response;
 import java.util.Map;
 import java.util.function.Consumer;
 
 import static org.folio.rest.impl.Headers.TENANT_HEADER;
+import static org.folio.rest.impl.util.PolicyCacheApiUtil.invalidatingHandler;
 
 public class LoanPoliciesAPI implements LoanPolicyStorage {
   private static final String LOAN_POLICY_TABLE = "loan_policy";
   private static final Class<LoanPolicy> LOAN_POLICY_CLASS = LoanPolicy.class;
+  private static final String IN_USE_POLICY_ERROR_MESSAGE = "Cannot delete in use loan policy";
 
   @Override
   @Validate
@@ -32,6 +38,8 @@ public class LoanPoliciesAPI implements LoanPolicyStorage {
     Context vertxContext) {
 
     String tenantId = okapiHeaders.get(TENANT_HEADER);
+    Handler<AsyncResult<Response>> invalidatingHandler = invalidatingHandler(
+      PolicyCache.loanPolicies(), null, okapiHeaders, vertxContext, asyncResultHandler);
 
     vertxContext.runOnContext(v -> {
       try {
@@ -40,7 +48,7 @@ public class LoanPoliciesAPI implements LoanPolicyStorage {
 
         postgresClient.execute(String.format("TRUNCATE TABLE %s_%s.%s",
           tenantId, "mod_circulation_storage", LOAN_POLICY_TABLE),
-          reply -> asyncResultHandler.handle(Future.succeededFuture(
+          reply -> invalidatingHandler.handle(Future.succeededFuture(
             DeleteLoanPolicyStorageLoanPoliciesResponse.respond204())));
       }
       catch(Exception e) {
@@ -89,8 +97,9 @@ public class LoanPoliciesAPI implements LoanPolicyStorage {
     Handler<AsyncResult<Response>> asyncResultHandler,
     Context vertxContext) {
 
-    PgUtil.getById(LOAN_POLICY_TABLE, LOAN_POLICY_CLASS, loanPolicyId, okapiHeaders, vertxContext,
-        GetLoanPolicyStorageLoanPoliciesByLoanPolicyIdResponse.class, asyncResultHandler);
+    PolicyCacheApiUtil.getById(PolicyCache.loanPolicies(), loanPolicyId, okapiHeaders,
+      vertxContext, GetLoanPolicyStorageLoanPoliciesByLoanPolicyIdResponse.class,
+      asyncResultHandler);
   }
 
   @Override
@@ -101,8 +110,24 @@ public class LoanPoliciesAPI implements LoanPolicyStorage {
     Handler<AsyncResult<Response>> asyncResultHandler,
     Context vertxContext) {
 
-    PgUtil.deleteById(LOAN_POLICY_TABLE, loanPolicyId, okapiHeaders, vertxContext,
-        DeleteLoanPolicyStorageLoanPoliciesByLoanPolicyIdResponse.class, asyncResultHandler);
+    PostgresClient postgresClient = PgUtil.postgresClient(vertxContext, okapiHeaders);
+
+    new CirculationRulesPolicyIndex(postgresClient).isInUse(PolicyType.LOAN, loanPolicyId)
+      .onSuccess(inUse -> {
+        if (inUse) {
+          asyncResultHandler.handle(Future.succeededFuture(
+            DeleteLoanPolicyStorageLoanPoliciesByLoanPolicyIdResponse
+              .respond400WithTextPlain(IN_USE_POLICY_ERROR_MESSAGE)));
+          return;
+        }
+        PgUtil.deleteById(LOAN_POLICY_TABLE, loanPolicyId, okapiHeaders, vertxContext,
+          DeleteLoanPolicyStorageLoanPoliciesByLoanPolicyIdResponse.class,
+          invalidatingHandler(PolicyCache.loanPolicies(), loanPolicyId, okapiHeaders,
+            vertxContext, asyncResultHandler));
+      })
+      .onFailure(e -> asyncResultHandler.handle(Future.succeededFuture(
+        DeleteLoanPolicyStorageLoanPoliciesByLoanPolicyIdResponse
+          .respond500WithTextPlain(e.getMessage()))));
   }
 
   @Override
@@ -117,7 +142,9 @@ public class LoanPoliciesAPI implements LoanPolicyStorage {
 
     validate(entity, errors -> respond422(errors, asyncResultHandler), () ->
       MyPgUtil.putUpsert204(LOAN_POLICY_TABLE, entity, loanPolicyId, okapiHeaders, vertxContext,
-          PutLoanPolicyStorageLoanPoliciesByLoanPolicyIdResponse.class, asyncResultHandler));
+          PutLoanPolicyStorageLoanPoliciesByLoanPolicyIdResponse.class,
+          invalidatingHandler(PolicyCache.loanPolicies(), loanPolicyId, okapiHeaders,
+            vertxContext, asyncResultHandler)));
   }
 
   private void respond422(Errors errors, Handler<AsyncResult<Response>> asyncResultHandler) {
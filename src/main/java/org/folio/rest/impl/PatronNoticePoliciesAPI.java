@@ -6,8 +6,8 @@ import static java.lang.String.format;
 import static java.util.Collections.singletonList;
 import static javax.ws.rs.core.HttpHeaders.CONTENT_TYPE;
 import static javax.ws.rs.core.MediaType.TEXT_PLAIN;
+import static org.folio.rest.impl.util.PolicyCacheApiUtil.invalidatingHandler;
 
-import static org.folio.rest.impl.CirculationRulesAPI.CIRCULATION_RULES_TABLE;
 import static org.folio.rest.jaxrs.model.SendOptions.SendWhen.AGED_TO_LOST;
 import static org.folio.rest.jaxrs.model.SendOptions.SendWhen.DUE_DATE;
 
@@ -37,7 +37,7 @@ import io.vertx.sqlclient.RowSet;
 import org.folio.cql2pgjson.CQL2PgJSON;
 import org.folio.rest.RestVerticle;
 import org.folio.rest.annotations.Validate;
-import org.folio.rest.jaxrs.model.CirculationRules;
+import org.folio.rest.impl.util.PolicyCacheApiUtil;
 import org.folio.rest.jaxrs.model.Error;
 import org.folio.rest.jaxrs.model.Errors;
 import org.folio.rest.jaxrs.model.LoanNotice;
@@ -48,12 +48,13 @@ import org.folio.rest.jaxrs.resource.FixedDueDateScheduleStorage;
 import org.folio.rest.jaxrs.resource.PatronNoticePolicyStorage;
 import org.folio.rest.persist.PgUtil;
 import org.folio.rest.persist.PostgresClient;
-import org.folio.rest.persist.Criteria.Criterion;
 import org.folio.rest.persist.Criteria.Limit;
 import org.folio.rest.persist.Criteria.Offset;
 import org.folio.rest.persist.cql.CQLWrapper;
-import org.folio.rest.persist.interfaces.Results;
 import org.folio.rest.tools.utils.ValidationHelper;
+import org.folio.service.policy.PolicyCache;
+import org.folio.service.rules.CirculationRulesPolicyIndex;
+import org.folio.service.rules.PolicyType;
 import org.folio.support.exception.NoticePolicyInUseException;
 
 public class PatronNoticePoliciesAPI implements PatronNoticePolicyStorage {
@@ -165,7 +166,7 @@ public class PatronNoticePoliciesAPI implements PatronNoticePolicyStorage {
     Handler<AsyncResult<Response>> asyncResultHandler,
     Context vertxContext) {
 
-    PgUtil.getById(PATRON_NOTICE_POLICY_TABLE, PatronNoticePolicy.class, patronNoticePolicyId, okapiHeaders,
+    PolicyCacheApiUtil.getById(PolicyCache.noticePolicies(), patronNoticePolicyId, okapiHeaders,
       vertxContext, GetPatronNoticePolicyStoragePatronNoticePoliciesByPatronNoticePolicyIdResponse.class,
       asyncResultHandler);
   }
@@ -180,15 +181,14 @@ public class PatronNoticePoliciesAPI implements PatronNoticePolicyStorage {
 
     PostgresClient pgClient = PgUtil.postgresClient(vertxContext, okapiHeaders);
 
-    findCirculationRules(pgClient)
-      .map(CirculationRules::getRulesAsText)
-      .map(text -> text.contains(patronNoticePolicyId))
-      .compose(contains -> contains ? failedFuture(new NoticePolicyInUseException(IN_USE_POLICY_ERROR_MESSAGE)) : succeededFuture())
+    new CirculationRulesPolicyIndex(pgClient).isInUse(PolicyType.NOTICE, patronNoticePolicyId)
+      .compose(inUse -> inUse ? failedFuture(new NoticePolicyInUseException(IN_USE_POLICY_ERROR_MESSAGE)) : succeededFuture())
       .compose(v -> deleteNoticePolicyById(pgClient, patronNoticePolicyId))
       .map(v -> DeletePatronNoticePolicyStoragePatronNoticePoliciesByPatronNoticePolicyIdResponse.respond204())
       .map(Response.class::cast)
       .otherwise(this::mapExceptionToResponse)
-      .onComplete(asyncResultHandler);
+      .onComplete(invalidatingHandler(PolicyCache.noticePolicies(), patronNoticePolicyId,
+        okapiHeaders, vertxContext, asyncResultHandler));
   }
 
   @Validate
@@ -234,8 +234,9 @@ public class PatronNoticePoliciesAPI implements PatronNoticePolicyStorage {
                 .respond404WithTextPlain(NOT_FOUND)));
             return;
           }
-          asyncResultHandler.handle(succeededFuture(
-            PutPatronNoticePolicyStoragePatronNoticePoliciesByPatronNoticePolicyIdResponse.respond204()));
+          invalidatingHandler(PolicyCache.noticePolicies(), patronNoticePolicyId, okapiHeaders,
+            vertxContext, asyncResultHandler).handle(succeededFuture(
+              PutPatronNoticePolicyStoragePatronNoticePoliciesByPatronNoticePolicyIdResponse.respond204()));
         });
       } catch (Exception e) {
         logger.error(e);
@@ -252,16 +253,6 @@ public class PatronNoticePoliciesAPI implements PatronNoticePolicyStorage {
     return new Errors().withErrors(singletonList(error));
   }
 
-  private Future<CirculationRules> findCirculationRules(PostgresClient pgClient) {
-
-    Promise<Results<CirculationRules>> promise = Promise.promise();
-    pgClient.get(CIRCULATION_RULES_TABLE, CirculationRules.class, new Criterion(), false, promise);
-    return promise.future().map(Results::getResults)
-      .compose(list -> list.size() == 1 ? succeededFuture(list) :
-        failedFuture(new IllegalStateException("Number of records in circulation_rules table is " + list.size())))
-      .map(list -> list.get(0));
-  }
-
   private Future<Void> deleteNoticePolicyById(PostgresClient pgClient, String id) {
     final Promise<RowSet<Row>> promise = Promise.promise();
     pgClient.delete(PATRON_NOTICE_POLICY_TABLE, id, promise);
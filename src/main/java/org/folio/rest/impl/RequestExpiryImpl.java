@@ -11,8 +11,8 @@ import javax.ws.rs.core.Response;
 
 import org.folio.rest.annotations.Validate;
 import org.folio.rest.client.ConfigurationClient;
+import org.folio.rest.configuration.RequestExpirationConfiguration;
 import org.folio.rest.configuration.TlrSettingsConfiguration;
-import org.folio.rest.jaxrs.model.Request;
 import org.folio.rest.jaxrs.resource.ScheduledRequestExpiration;
 import org.folio.service.RequestExpirationService;
 
@@ -39,10 +39,10 @@ public class RequestExpiryImpl implements ScheduledRequestExpiration {
   private RequestExpirationService createRequestExpirationService(Map<String, String> okapiHeaders,
     Vertx vertx, TlrSettingsConfiguration tlrSettings) {
 
+    RequestExpirationConfiguration configuration = RequestExpirationConfiguration.fromEnvironment();
+
     return tlrSettings.isTitleLevelRequestsFeatureEnabled()
-      ? new RequestExpirationService(okapiHeaders, vertx, "instanceId",
-        Request::getInstanceId)
-      : new RequestExpirationService(okapiHeaders, vertx, "itemId",
-        Request::getItemId);
+      ? new RequestExpirationService(okapiHeaders, vertx, "instanceId", configuration)
+      : new RequestExpirationService(okapiHeaders, vertx, "itemId", configuration);
   }
 }
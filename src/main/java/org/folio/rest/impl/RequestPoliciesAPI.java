@@ -9,6 +9,7 @@ import org.apache.logging.log4j.LogManager;
 
 import org.folio.cql2pgjson.CQL2PgJSON;
 import org.folio.rest.annotations.Validate;
+import org.folio.rest.impl.util.PolicyCacheApiUtil;
 import org.folio.rest.jaxrs.model.RequestPolicies;
 import org.folio.rest.jaxrs.model.RequestPolicy;
 import org.folio.rest.jaxrs.resource.RequestPolicyStorage;
@@ -18,18 +19,23 @@ import org.folio.rest.persist.PostgresClient;
 import org.folio.rest.persist.cql.CQLWrapper;
 import org.folio.rest.tools.utils.OutStream;
 import org.folio.rest.tools.utils.TenantTool;
+import org.folio.service.policy.PolicyCache;
+import org.folio.service.rules.CirculationRulesPolicyIndex;
+import org.folio.service.rules.PolicyType;
 import javax.ws.rs.core.Response;
 
 import java.util.Map;
 import java.util.UUID;
 
 import static org.folio.rest.impl.Headers.TENANT_HEADER;
+import static org.folio.rest.impl.util.PolicyCacheApiUtil.invalidatingHandler;
 
 public class RequestPoliciesAPI implements RequestPolicyStorage {
   private static final Logger log = LogManager.getLogger();
 
   private static final String REQUEST_POLICY_TABLE = "request_policy";
   private static final Class<RequestPolicy> REQUEST_POLICY_CLASS = RequestPolicy.class;
+  private static final String IN_USE_POLICY_ERROR_MESSAGE = "Cannot delete in use request policy";
 
   @Validate
   @Override
@@ -116,8 +122,9 @@ public class RequestPoliciesAPI implements RequestPolicyStorage {
         CQLWrapper cql = new CQLWrapper(cql2pgJson, null);
 
         postgresClient.delete(REQUEST_POLICY_TABLE, cql,
-          reply -> asyncResultHandler.handle(Future.succeededFuture(
-            DeleteRequestPolicyStorageRequestPoliciesResponse.respond204())));
+          reply -> invalidatingHandler(PolicyCache.requestPolicies(), null, okapiHeaders,
+            vertxContext, asyncResultHandler).handle(Future.succeededFuture(
+              DeleteRequestPolicyStorageRequestPoliciesResponse.respond204())));
       }
       catch(Exception e) {
         asyncResultHandler.handle(io.vertx.core.Future.succeededFuture(
@@ -130,8 +137,9 @@ public class RequestPoliciesAPI implements RequestPolicyStorage {
   @Validate
   @Override
   public void getRequestPolicyStorageRequestPoliciesByRequestPolicyId(String requestPolicyId, String lang, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
-    PgUtil.getById(REQUEST_POLICY_TABLE, REQUEST_POLICY_CLASS, requestPolicyId, okapiHeaders, vertxContext,
-        GetRequestPolicyStorageRequestPoliciesByRequestPolicyIdResponse.class, asyncResultHandler);
+    PolicyCacheApiUtil.getById(PolicyCache.requestPolicies(), requestPolicyId, okapiHeaders,
+      vertxContext, GetRequestPolicyStorageRequestPoliciesByRequestPolicyIdResponse.class,
+      asyncResultHandler);
   }
 
   @Validate
@@ -139,13 +147,34 @@ public class RequestPoliciesAPI implements RequestPolicyStorage {
   public void putRequestPolicyStorageRequestPoliciesByRequestPolicyId(String requestPolicyId, String lang, RequestPolicy entity, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
     // TODO: on insert return 201, not 204
     MyPgUtil.putUpsert204(REQUEST_POLICY_TABLE, entity, requestPolicyId, okapiHeaders, vertxContext,
-        PutRequestPolicyStorageRequestPoliciesByRequestPolicyIdResponse.class, asyncResultHandler);
+        PutRequestPolicyStorageRequestPoliciesByRequestPolicyIdResponse.class,
+        invalidatingHandler(PolicyCache.requestPolicies(), requestPolicyId, okapiHeaders,
+          vertxContext, asyncResultHandler));
   }
 
   @Validate
   @Override
   public void deleteRequestPolicyStorageRequestPoliciesByRequestPolicyId(String requestPolicyId, String lang, Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
-    PgUtil.deleteById(REQUEST_POLICY_TABLE, requestPolicyId, okapiHeaders, vertxContext,
-        DeleteRequestPolicyStorageRequestPoliciesByRequestPolicyIdResponse.class, asyncResultHandler);
+    PostgresClient postgresClient = PgUtil.postgresClient(vertxContext, okapiHeaders);
+
+    new CirculationRulesPolicyIndex(postgresClient).isInUse(PolicyType.REQUEST, requestPolicyId)
+      .onSuccess(inUse -> {
+        if (inUse) {
+          asyncResultHandler.handle(Future.succeededFuture(
+            DeleteRequestPolicyStorageRequestPoliciesByRequestPolicyIdResponse
+              .respond400WithTextPlain(IN_USE_POLICY_ERROR_MESSAGE)));
+          return;
+        }
+        PgUtil.deleteById(REQUEST_POLICY_TABLE, requestPolicyId, okapiHeaders, vertxContext,
+          DeleteRequestPolicyStorageRequestPoliciesByRequestPolicyIdResponse.class,
+          invalidatingHandler(PolicyCache.requestPolicies(), requestPolicyId, okapiHeaders,
+            vertxContext, asyncResultHandler));
+      })
+      .onFailure(e -> {
+        log.error(e);
+        asyncResultHandler.handle(Future.succeededFuture(
+          DeleteRequestPolicyStorageRequestPoliciesByRequestPolicyIdResponse
+            .respond500WithTextPlain(e.getMessage())));
+      });
   }
 }
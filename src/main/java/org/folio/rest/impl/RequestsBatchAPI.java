@@ -6,11 +6,11 @@ import static org.folio.rest.impl.util.RequestsApiUtil.samePositionInQueueError;
 import static org.folio.rest.jaxrs.resource.RequestStorageBatch.PostRequestStorageBatchRequestsResponse.respond201;
 import static org.folio.rest.jaxrs.resource.RequestStorageBatch.PostRequestStorageBatchRequestsResponse.respond422WithApplicationJson;
 import static org.folio.rest.jaxrs.resource.RequestStorageBatch.PostRequestStorageBatchRequestsResponse.respond500WithTextPlain;
-import static org.folio.rest.tools.utils.TenantTool.tenantId;
 
 import java.util.Map;
 
 import javax.ws.rs.core.Response;
+import org.folio.persist.RequestRepository;
 import org.folio.rest.annotations.Validate;
 import org.folio.rest.jaxrs.model.RequestsBatch;
 import org.folio.rest.jaxrs.resource.RequestStorageBatch;
@@ -48,7 +48,8 @@ public class RequestsBatchAPI implements RequestStorageBatch {
     );
 
     RequestBatchResourceService requestBatchUpdateService =
-      new RequestBatchResourceService(tenantId(okapiHeaders), batchUpdateService);
+      new RequestBatchResourceService(batchUpdateService,
+        new RequestRepository(context, okapiHeaders));
 
     requestBatchUpdateService.executeRequestBatchUpdate(entity.getRequests(),
       updateResult -> {
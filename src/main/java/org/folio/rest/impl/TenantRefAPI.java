@@ -10,11 +10,13 @@ import org.folio.support.kafka.topic.CirculationStorageKafkaTopic;
 import org.folio.kafka.services.KafkaAdminClientService;
 import org.folio.rest.annotations.Validate;
 import org.folio.rest.jaxrs.model.TenantAttributes;
+import org.folio.rest.persist.PgUtil;
 import org.folio.rest.tools.utils.TenantLoading;
 import org.folio.rest.tools.utils.TenantTool;
 import org.folio.service.PubSubRegistrationService;
 import org.folio.service.migration.TlrDataMigrationService;
 import org.folio.service.migration.RequestSearchFieldsMigrationService;
+import org.folio.service.rules.CirculationRulesPolicyIndex;
 
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Context;
@@ -38,6 +40,8 @@ public class TenantRefAPI extends TenantAPI {
 
     return (new TlrDataMigrationService(attributes, vertxContext, headers).migrate())
       .compose(f -> new RequestSearchFieldsMigrationService(attributes, vertxContext, headers).migrate())
+      .compose(f -> new CirculationRulesPolicyIndex(PgUtil.postgresClient(vertxContext, headers))
+        .rebuild())
       .compose(r -> new KafkaAdminClientService(vertxContext.owner())
         .createKafkaTopics(CirculationStorageKafkaTopic.values(), tenantId))
       .compose(r -> super.loadData(attributes, tenantId, headers, vertxContext))
@@ -0,0 +1,81 @@
+package org.folio.rest.impl.util;
+
+import static org.folio.support.ResponseUtil.internalErrorResponse;
+import static org.folio.support.ResponseUtil.jsonResponse;
+import static org.folio.support.ResponseUtil.notFoundResponse;
+
+import java.util.Map;
+
+import javax.ws.rs.core.Response;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.jaxrs.resource.support.ResponseDelegate;
+import org.folio.rest.persist.PgUtil;
+import org.folio.service.policy.CachedPolicy;
+import org.folio.service.policy.PolicyCache;
+import org.folio.support.UUIDValidation;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+
+/**
+ * Utility methods for the policy resources served through the {@link PolicyCache}.
+ */
+public class PolicyCacheApiUtil {
+
+  private static final Logger log = LogManager.getLogger(PolicyCacheApiUtil.class);
+
+  private PolicyCacheApiUtil() {
+    throw new UnsupportedOperationException("Do not instantiate");
+  }
+
+  /**
+   * Responds with the policy of the ID from the cache, the policy is returned as it is stored
+   * without being serialized again. IDs which are not UUIDs are handled by PgUtil.
+   */
+  public static void getById(PolicyCache<?> cache, String policyId,
+    Map<String, String> okapiHeaders, Context vertxContext,
+    Class<? extends ResponseDelegate> responseClass,
+    Handler<AsyncResult<Response>> asyncResultHandler) {
+
+    if (!UUIDValidation.isValidUUID(policyId)) {
+      PgUtil.getById(cache.getTable(), cache.getPolicyClass(), policyId, okapiHeaders,
+        vertxContext, responseClass, asyncResultHandler);
+      return;
+    }
+
+    cache.get(PgUtil.postgresClient(vertxContext, okapiHeaders), policyId)
+      .map(PolicyCacheApiUtil::toResponse)
+      .otherwise(t -> {
+        log.error("getById:: failed to get {} policy {}", cache.getPolicyType(), policyId, t);
+        return internalErrorResponse(t);
+      })
+      .onComplete(asyncResultHandler);
+  }
+
+  /**
+   * Wraps the handler of a change of policies so that the changed policies are invalidated in
+   * every module instance before the response is sent. A null ID stands for all policies of the
+   * tenant.
+   */
+  public static Handler<AsyncResult<Response>> invalidatingHandler(PolicyCache<?> cache,
+    String policyId, Map<String, String> okapiHeaders, Context vertxContext,
+    Handler<AsyncResult<Response>> asyncResultHandler) {
+
+    return response -> {
+      if (response.failed() || response.result().getStatus() >= 300) {
+        asyncResultHandler.handle(response);
+        return;
+      }
+
+      cache.notifyChanged(PgUtil.postgresClient(vertxContext, okapiHeaders), policyId)
+        .onComplete(notified -> asyncResultHandler.handle(response));
+    };
+  }
+
+  private static Response toResponse(CachedPolicy<?> policy) {
+    return policy == null ? notFoundResponse() : jsonResponse(policy.getJson());
+  }
+}
@@ -23,7 +23,7 @@ public class RequestsApiUtil {
 
   public static boolean hasSamePositionConstraintViolated(String errorMessage) {
     return errorMessage != null &&
-      (errorMessage.contains("request_itemid_position_idx_unique") ||
+      (errorMessage.contains("request_itemid_position_unique") ||
       errorMessage.contains("value already exists in table "));
   }
 
@@ -0,0 +1,13 @@
+package org.folio.service;
+
+import lombok.Value;
+
+@Value
+public class RequestExpirationResult {
+  int expiredRequests;
+  int iterations;
+
+  RequestExpirationResult add(int expiredRequestsInBatch) {
+    return new RequestExpirationResult(expiredRequests + expiredRequestsInBatch, iterations + 1);
+  }
+}
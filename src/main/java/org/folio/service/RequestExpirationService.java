@@ -2,8 +2,10 @@ package org.folio.service;
 
 import static io.vertx.core.Future.succeededFuture;
 import static java.lang.String.format;
-import static java.util.Collections.emptyList;
+import static java.lang.System.currentTimeMillis;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 import static org.folio.rest.impl.Headers.TENANT_HEADER;
 import static org.folio.rest.jaxrs.model.Request.Status.CLOSED_PICKUP_EXPIRED;
 import static org.folio.rest.jaxrs.model.Request.Status.CLOSED_UNFILLED;
@@ -21,228 +23,208 @@ import static org.folio.support.exception.LogEventType.REQUEST_EXPIRED;
 import java.text.SimpleDateFormat;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.Date;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TimeZone;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.folio.rest.jaxrs.model.Request;
+import org.folio.rest.configuration.RequestExpirationConfiguration;
 import org.folio.rest.persist.Conn;
 import org.folio.rest.persist.PostgresClient;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
-import io.vertx.sqlclient.Row;
-import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
 
 public class RequestExpirationService {
   private static final Logger log = LogManager.getLogger();
-  private static final String JSONB_COLUMN = "jsonb";
+  private static final String ORIGINAL_COLUMN = "original";
+  private static final String UPDATED_COLUMN = "updated";
+
+  private static final String OPEN_STATUSES = format("'%s', '%s', '%s', '%s'",
+    OPEN_NOT_YET_FILLED.value(), OPEN_AWAITING_PICKUP.value(), OPEN_AWAITING_DELIVERY.value(),
+    OPEN_IN_TRANSIT.value());
+
+  /**
+   * Conditions of an expired open request, {@code $1} is the current date. The conditions
+   * match the predicates of the partial indexes on the typed expiration dates created by
+   * index_requestExpirationDates.sql, so that expired requests are found by index range scans.
+   */
+  private static final String EXPIRED_REQUESTS_CONDITION = format(
+    "(jsonb->>'status' IN ('%1$s', '%2$s', '%3$s') " +
+      "AND %%1$s.parse_date_time(jsonb->>'requestExpirationDate') < $1) " +
+    "OR (jsonb->>'status' = '%4$s' " +
+      "AND %%1$s.parse_date_time(jsonb->>'holdShelfExpirationDate') < $1)",
+    OPEN_NOT_YET_FILLED.value(), OPEN_AWAITING_DELIVERY.value(), OPEN_IN_TRANSIT.value(),
+    OPEN_AWAITING_PICKUP.value());
+
+  /**
+   * Closes a batch of expired requests in one statement. The new request body is calculated
+   * in the CTE so that the log record carries exactly what was written, without the changes
+   * made by the request update trigger.
+   */
+  private static final String CLOSE_EXPIRED_REQUESTS_SQL = format(
+    "WITH expired AS (" +
+      "SELECT id, jsonb AS original, " +
+        "jsonb_set(" +
+          "jsonb_set(jsonb - 'position', '{status}', to_jsonb(CASE jsonb->>'status' " +
+            "WHEN '%1$s' THEN '%2$s'::text ELSE '%3$s'::text END)), " +
+          "'{metadata,updatedDate}', to_jsonb($2::text)) AS updated " +
+      "FROM %%1$s " +
+      "WHERE %%3$s " +
+      "LIMIT %%2$d) " +
+    "UPDATE %%1$s AS request SET jsonb = expired.updated " +
+    "FROM expired WHERE request.id = expired.id " +
+    "RETURNING expired.original, expired.updated",
+    OPEN_AWAITING_PICKUP.value(), CLOSED_PICKUP_EXPIRED.value(), CLOSED_UNFILLED.value());
+
+  /**
+   * Renumbers the queues of open requests in one statement. The (itemId, position) constraint
+   * is deferrable, so it is checked once all rows of the statement are updated and the rows
+   * of a queue can be updated in an arbitrary order.
+   */
+  private static final String RENUMBER_QUEUES_SQL =
+    "UPDATE %1$s AS request " +
+    "SET jsonb = jsonb_set(request.jsonb, '{position}', to_jsonb(queue.new_position)) " +
+    "FROM (SELECT id, row_number() OVER (PARTITION BY jsonb->>'%2$s' " +
+        "ORDER BY (jsonb->>'position')::int NULLS LAST) AS new_position " +
+      "FROM %1$s " +
+      "WHERE jsonb->>'status' IN (" + OPEN_STATUSES + ") AND jsonb->>'%2$s' = ANY($1)) AS queue " +
+    "WHERE request.id = queue.id " +
+      "AND (request.jsonb->>'position')::int IS DISTINCT FROM queue.new_position";
+
   private final String requestClassifierProperty;
-  private final Function<Request, String> requestClassifier;
+  private final RequestExpirationConfiguration configuration;
   private final PostgresClient pgClient;
   private final EventPublisherService eventPublisherService;
 
   public RequestExpirationService(Map<String, String> okapiHeaders, Vertx vertx,
-    String requestClassifierProperty, Function<Request, String> requestClassifier) {
+    String requestClassifierProperty, RequestExpirationConfiguration configuration) {
 
     this.requestClassifierProperty = requestClassifierProperty;
-    this.requestClassifier = requestClassifier;
+    this.configuration = configuration;
     pgClient = PostgresClient.getInstance(vertx, okapiHeaders.get(TENANT_HEADER));
     eventPublisherService = new EventPublisherService(vertx, okapiHeaders);
   }
 
-  @SuppressWarnings("java:S1905")  // suppress false positive "Remove this unnecessary cast to Void"
-  public Future<Void> doRequestExpiration() {
-    List<JsonObject> context = new ArrayList<>();
-
-    return pgClient.withTrans(conn -> getExpiredRequests(conn)
-        .compose(expiredRequests -> closeRequests(conn, expiredRequests, context))
-        .compose(associatedIds -> getOpenRequestsByIdFields(conn, associatedIds))
-        .compose(openRequests -> reorderRequests(conn, openRequests))
-        .map(x -> {
-          context.forEach(p -> eventPublisherService
-              .publishLogRecord(new JsonObject().put(REQUESTS.value(), p), REQUEST_EXPIRED));
-          return (Void)null;
-        }))
-        .onFailure(e -> log.error("Error in request processing", e));
+  /**
+   * Expires requests batch by batch, each batch in its own transaction, until there are no
+   * expired requests left or the configured time limit is exceeded.
+   *
+   * @return number of expired requests and number of processed batches
+   */
+  public Future<RequestExpirationResult> doRequestExpiration() {
+    final long deadline = currentTimeMillis() + SECONDS.toMillis(configuration.getTimeLimitSeconds());
+    log.info("doRequestExpiration:: starting request expiration, {}", configuration);
+
+    return expireUntilDrained(new RequestExpirationResult(0, 0), deadline)
+      .onSuccess(result -> log.info("doRequestExpiration:: {} requests expired in {} iteration(s)",
+        result.getExpiredRequests(), result.getIterations()));
   }
 
-  private Future<List<Request>> getExpiredRequests(Conn conn) {
-    SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
-    df.setTimeZone(TimeZone.getTimeZone(ZoneOffset.UTC));
+  private Future<RequestExpirationResult> expireUntilDrained(RequestExpirationResult result,
+    long deadline) {
 
-    String where = format("WHERE " +
-        "(jsonb->>'status' = '%1$s' AND jsonb->>'requestExpirationDate' < '%5$s') OR " +
-        "(jsonb->>'status' = '%2$s' AND jsonb->>'requestExpirationDate' < '%5$s') OR " +
-        "(jsonb->>'status' = '%3$s' AND jsonb->>'requestExpirationDate' < '%5$s') OR " +
-        "(jsonb->>'status' = '%4$s' AND jsonb->>'holdShelfExpirationDate' < '%5$s') " +
-        "LIMIT 150",
+    return expireRequests()
+      .compose(expiredRequests -> {
+        RequestExpirationResult newResult = result.add(expiredRequests);
 
-      OPEN_NOT_YET_FILLED.value(),
-      OPEN_AWAITING_DELIVERY.value(),
-      OPEN_IN_TRANSIT.value(),
-      OPEN_AWAITING_PICKUP.value(),
-      df.format(new Date()));
+        if (expiredRequests < configuration.getBatchSize()) {
+          return succeededFuture(newResult);
+        }
 
-    String fullTableName = format("%s.%s", PostgresClient.convertToPsqlStandard(
-      pgClient.getTenantId()), REQUEST_TABLE);
-    String query = format("SELECT jsonb FROM %s %s", fullTableName, where);
+        if (currentTimeMillis() >= deadline) {
+          log.info("expireUntilDrained:: time limit of {} seconds exceeded after {} iteration(s)",
+            configuration.getTimeLimitSeconds(), newResult.getIterations());
+          return succeededFuture(newResult);
+        }
 
-    return conn.execute(query)
-      .map(rs -> rowSetToStream(rs)
-        .map(row -> row.get(JsonObject.class, row.getColumnIndex(JSONB_COLUMN)))
-        .map(json -> json.mapTo(Request.class))
-        .collect(toList()));
+        return expireUntilDrained(newResult, deadline);
+      });
   }
 
-  private Future<List<Request>> getOpenRequestsByIdFields(Conn conn,
-    Set<String> idFields) {
-
-    if (idFields.isEmpty()) {
-      return succeededFuture(emptyList());
-    }
+  /**
+   * Closes a batch of expired requests and renumbers the affected queues using a fixed number
+   * of set-based statements, regardless of the batch size.
+   *
+   * @return number of closed requests
+   */
+  public Future<Integer> expireRequests() {
+    List<JsonObject> context = new ArrayList<>();
 
-    String quotedFieldIds = idFields.stream()
-      .map(id -> format("'%s'", id))
-      .collect(Collectors.joining(","));
-    String where = format("WHERE " +
-        "(jsonb->>'status' = '%1$s' OR " +
-        "jsonb->>'status' = '%2$s' OR " +
-        "jsonb->>'status' = '%3$s' OR " +
-        "jsonb->>'status' = '%4$s') AND " +
-        "jsonb->>'%5$s' IN (%6$s) " +
-        "ORDER BY jsonb->>'position' ASC",
-
-      OPEN_NOT_YET_FILLED.value(),
-      OPEN_AWAITING_PICKUP.value(),
-      OPEN_AWAITING_DELIVERY.value(),
-      OPEN_IN_TRANSIT.value(),
-      requestClassifierProperty,
-      quotedFieldIds);
-
-    String fullTableName = format("%s.%s", PostgresClient.convertToPsqlStandard(
-      pgClient.getTenantId()), REQUEST_TABLE);
-    String sql = format("SELECT jsonb FROM %s %s", fullTableName, where);
-
-    return conn.execute(sql)
-      .map(rs -> rowSetToStream(rs)
-        .map(row -> row.get(JsonObject.class, row.getColumnIndex(JSONB_COLUMN)))
-        .map(json -> json.mapTo(Request.class))
-        .collect(toList()));
+    return pgClient.withTrans(conn -> closeExpiredRequests(conn, context)
+        .compose(associatedIds -> renumberQueues(conn, associatedIds)))
+      .map(x -> publishLogRecords(context))
+      .onFailure(e -> log.error("Error in request processing", e));
   }
 
-  private Request changeRequestStatus(Request request) {
-    if (request.getStatus() == OPEN_NOT_YET_FILLED ||
-          request.getStatus() == OPEN_IN_TRANSIT ||
-          request.getStatus() == OPEN_AWAITING_DELIVERY) {
-      request.setStatus(CLOSED_UNFILLED);
-    } else if (request.getStatus() == OPEN_AWAITING_PICKUP) {
-      request.setStatus(CLOSED_PICKUP_EXPIRED);
-    }
-    return request;
+  private int publishLogRecords(List<JsonObject> context) {
+    context.forEach(p -> eventPublisherService
+      .publishLogRecord(new JsonObject().put(REQUESTS.value(), p), REQUEST_EXPIRED));
+
+    return context.size();
   }
 
-  private Future<Void> reorderRequests(Conn conn,
-    List<Request> requests) {
+  private Future<Set<String>> closeExpiredRequests(Conn conn, List<JsonObject> context) {
+    String sql = format(CLOSE_EXPIRED_REQUESTS_SQL, fullTableName(),
+      configuration.getBatchSize(), format(EXPIRED_REQUESTS_CONDITION, schemaName()));
+    Date now = new Date();
 
-    if (requests.isEmpty()) {
+    return conn.execute(sql, Tuple.of(now.toInstant().atOffset(ZoneOffset.UTC), formatDate(now)))
+      .map(rs -> rowSetToStream(rs)
+        .map(row -> new JsonObject()
+          .put(ORIGINAL.value(), row.getJsonObject(ORIGINAL_COLUMN))
+          .put(UPDATED.value(), row.getJsonObject(UPDATED_COLUMN)))
+        .collect(toList()))
+      .map(pairs -> {
+        context.addAll(pairs);
+
+        return pairs.stream()
+          .map(pair -> pair.getJsonObject(ORIGINAL.value()).getString(requestClassifierProperty))
+          .filter(Objects::nonNull)
+          .collect(toSet());
+      });
+  }
+
+  private Future<Void> renumberQueues(Conn conn, Set<String> associatedIds) {
+    if (associatedIds.isEmpty()) {
       return succeededFuture();
     }
 
-    Map<String, List<Request>> groupedRequests = requests.stream()
-      .collect(Collectors.groupingBy(requestClassifier));
+    Tuple params = Tuple.tuple().addArrayOfString(associatedIds.toArray(String[]::new));
 
-    return resetPositionsForOpenRequests(conn, groupedRequests.keySet())
-      .compose(v -> reorderGroupedRequests(conn, groupedRequests));
+    return conn.execute(format(RENUMBER_QUEUES_SQL, fullTableName(), requestClassifierProperty),
+        params)
+      .mapEmpty();
   }
 
-  private Future<Void> reorderGroupedRequests(Conn conn,
-    Map<String, List<Request>> groupedRequests) {
+  /**
+   * Query selecting a batch of expired open requests of the tenant, {@code $1} is the current
+   * date.
+   */
+  public static String expiredRequestsQuery(String tenantId, int limit) {
+    String schemaName = PostgresClient.convertToPsqlStandard(tenantId);
 
-    Future<Void> future = succeededFuture();
-    for (Map.Entry<String, List<Request>> entry : groupedRequests.entrySet()) {
-      future = future.compose(v -> updateRequestsPositions(conn, entry.getValue()));
-    }
-
-    return future;
+    return format("SELECT jsonb FROM %s.%s WHERE %s LIMIT %d", schemaName, REQUEST_TABLE,
+      format(EXPIRED_REQUESTS_CONDITION, schemaName), limit);
   }
 
-  private Future<Void> updateRequestsPositions(Conn conn,
-    List<Request> requests) {
-
-    requests.sort(Comparator.comparingInt(Request::getPosition));
-    AtomicInteger pos = new AtomicInteger(1);
-    Future<Void> future = succeededFuture();
-
-    for (Request request : requests) {
-      future = future.compose(v -> updateRequest(conn, request.withPosition(
-        pos.getAndIncrement())));
-    }
-
-    return future;
+  private String schemaName() {
+    return PostgresClient.convertToPsqlStandard(pgClient.getTenantId());
   }
 
-  private Future<Set<String>> closeRequests(Conn conn,
-    List<Request> requests, List<JsonObject> context) {
-
-    Future<Void> future = succeededFuture();
-    Set<String> closedRequestsAssociatedIds = new HashSet<>();
-
-    for (Request request : requests) {
-      JsonObject pair = new JsonObject();
-      pair.put(ORIGINAL.value(), JsonObject.mapFrom(request));
-      closedRequestsAssociatedIds.add(requestClassifier.apply(request));
-      Request updatedRequest = changeRequestStatus(request).withPosition(null);
-      updatedRequest.getMetadata().withUpdatedDate(new Date());
-      pair.put(UPDATED.value(), JsonObject.mapFrom(updatedRequest));
-      context.add(pair);
-      future = future.compose(v -> updateRequest(conn, updatedRequest));
-    }
-
-    return future.map(v -> closedRequestsAssociatedIds);
+  private String fullTableName() {
+    return format("%s.%s", schemaName(), REQUEST_TABLE);
   }
 
-  private Future<RowSet<Row>> resetPositionsForOpenRequests(Conn conn,
-    Set<String> associatedIds) {
-
-    if (associatedIds.isEmpty()) {
-      return succeededFuture();
-    }
-
-    String quotedFieldIds = associatedIds.stream()
-      .map(id -> format("'%s'", id))
-      .collect(Collectors.joining(","));
-
-    String fullTableName = format("%s.%s", PostgresClient.convertToPsqlStandard(
-      pgClient.getTenantId()), REQUEST_TABLE);
-
-    String sql = format("UPDATE %1$s SET jsonb = jsonb - 'position' WHERE " +
-        "(jsonb->>'status' = '%2$s' OR " +
-        "jsonb->>'status' = '%3$s' OR " +
-        "jsonb->>'status' = '%4$s' OR " +
-        "jsonb->>'status' = '%5$s') AND " +
-        "jsonb->>'%6$s' IN (%7$s)",
-      fullTableName,
-      OPEN_NOT_YET_FILLED.value(),
-      OPEN_AWAITING_PICKUP.value(),
-      OPEN_AWAITING_DELIVERY.value(),
-      OPEN_IN_TRANSIT.value(),
-      requestClassifierProperty,
-      quotedFieldIds);
-
-    return conn.execute(sql).mapEmpty();
-  }
+  private static String formatDate(Date date) {
+    SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+    df.setTimeZone(TimeZone.getTimeZone(ZoneOffset.UTC));
 
-  private Future<Void> updateRequest(Conn conn, Request request) {
-    return conn.update(REQUEST_TABLE, request, request.getId()).mapEmpty();
+    return df.format(date);
   }
 }
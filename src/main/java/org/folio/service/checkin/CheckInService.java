@@ -5,30 +5,33 @@ import static org.folio.support.ModuleConstants.CHECKIN_CLASS;
 import static org.folio.support.ModuleConstants.CHECKIN_TABLE;
 
 import java.util.Map;
+import java.util.UUID;
 
 import javax.ws.rs.core.Response;
 
+import org.folio.persist.CheckInRepository;
 import org.folio.rest.jaxrs.model.CheckIn;
 import org.folio.rest.jaxrs.model.CheckIns;
 import org.folio.rest.jaxrs.resource.CheckInStorageCheckIns;
 import org.folio.rest.persist.PgUtil;
-import org.folio.service.event.EntityChangedEventPublisher;
+import org.folio.support.ResponseUtil;
+import org.folio.support.ServiceHelper;
 
 import io.vertx.core.Context;
 import io.vertx.core.Future;
-import io.vertx.core.Promise;
 
 public class CheckInService {
 
   private final Context vertxContext;
   private final Map<String, String> okapiHeaders;
-  private final EntityChangedEventPublisher<String, CheckIn> eventPublisher;
+  private final ServiceHelper<CheckIn> helper;
 
   public CheckInService(Context vertxContext, Map<String, String> okapiHeaders) {
     this.vertxContext = vertxContext;
     this.okapiHeaders = okapiHeaders;
 
-    this.eventPublisher = checkInEventPublisher(vertxContext, okapiHeaders);
+    this.helper = new ServiceHelper<>(new CheckInRepository(vertxContext, okapiHeaders),
+        checkInEventPublisher(vertxContext, okapiHeaders));
   }
 
   public Future<Response> findByQuery(String query, int offset, int limit) {
@@ -42,13 +45,18 @@ public class CheckInService {
   }
 
   public Future<Response> create(CheckIn entity) {
-    Promise<Response> createResult = Promise.promise();
-
-    PgUtil.post(CHECKIN_TABLE, entity, okapiHeaders, vertxContext,
-        CheckInStorageCheckIns.PostCheckInStorageCheckInsResponse.class, createResult);
-
-    return createResult.future()
-        .compose(eventPublisher.publishCreated());
+    if (entity.getId() == null) {
+      entity.setId(UUID.randomUUID().toString());
+    }
+
+    return helper.createAndPublishEvent(entity.getId(), entity)
+        .<Response>map(createdCheckIn -> CheckInStorageCheckIns.PostCheckInStorageCheckInsResponse
+            .respond201WithApplicationJson(createdCheckIn,
+                CheckInStorageCheckIns.PostCheckInStorageCheckInsResponse.headersFor201()
+                    .withLocation(createdCheckIn.getId())))
+        .otherwise(err -> ResponseUtil.failedSaveResponse(err,
+            CheckInStorageCheckIns.PostCheckInStorageCheckInsResponse::respond400WithTextPlain,
+            CheckInStorageCheckIns.PostCheckInStorageCheckInsResponse::respond500WithTextPlain));
   }
 
 }
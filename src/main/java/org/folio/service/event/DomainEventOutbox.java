@@ -0,0 +1,62 @@
+package org.folio.service.event;
+
+import static java.lang.String.format;
+import static org.apache.logging.log4j.LogManager.getLogger;
+import static org.folio.rest.persist.PostgresClient.convertToPsqlStandard;
+
+import java.util.Map;
+
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.persist.Conn;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Tuple;
+
+/**
+ * Transactional outbox of the domain events of a Kafka topic. An event is saved in the
+ * transaction of the entity change it describes, so that it is published if and only if the
+ * change is committed, and {@link DomainEventOutboxRelay} publishes it to Kafka afterwards.
+ */
+public class DomainEventOutbox<K, T> {
+
+  private static final Logger log = getLogger(DomainEventOutbox.class);
+
+  public static final String OUTBOX_TABLE = "domain_event_outbox";
+
+  private static final String INSERT_EVENT_SQL = "INSERT INTO %s.%s " +
+      "(topic, event_key, payload, okapi_headers) VALUES ($1, $2, $3, $4)";
+
+  private final Vertx vertx;
+  private final String tenantId;
+  private final String kafkaTopic;
+
+  public DomainEventOutbox(Vertx vertx, String tenantId, String kafkaTopic) {
+    this.vertx = vertx;
+    this.tenantId = tenantId;
+    this.kafkaTopic = kafkaTopic;
+  }
+
+  public Future<Void> save(Conn conn, K key, DomainEvent<T> event,
+      Map<String, String> okapiHeaders) {
+
+    log.debug("save:: saving event: key = {}, eventId = {}, type = {}, topic = {}",
+        key, event.getId(), event.getType(), kafkaTopic);
+
+    String sql = format(INSERT_EVENT_SQL, convertToPsqlStandard(tenantId), OUTBOX_TABLE);
+
+    return conn.execute(sql, Tuple.of(kafkaTopic, key.toString(), JsonObject.mapFrom(event),
+        StoredOkapiHeaders.of(okapiHeaders)))
+      .mapEmpty();
+  }
+
+  /**
+   * Asks the relay to publish the saved events right away instead of on its next scheduled run,
+   * must be called once the transaction which saved them is committed.
+   */
+  public void relay() {
+    vertx.eventBus().send(DomainEventOutboxRelay.RELAY_ADDRESS, tenantId);
+  }
+
+}
@@ -0,0 +1,230 @@
+package org.folio.service.event;
+
+import static io.vertx.core.Future.succeededFuture;
+import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
+import static org.apache.logging.log4j.LogManager.getLogger;
+import static org.folio.rest.persist.PostgresClient.convertToPsqlStandard;
+import static org.folio.service.event.DomainEventOutbox.OUTBOX_TABLE;
+import static org.folio.support.DbUtil.rowSetToStream;
+import static org.folio.support.ModuleConstants.MODULE_NAME;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.persist.Conn;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.support.kafka.KafkaProducerPool;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+import io.vertx.kafka.client.producer.KafkaProducerRecord;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
+
+/**
+ * Publishes the events of {@link DomainEventOutbox} to Kafka. Only one relay of all module
+ * instances publishes the events of a tenant at a time: a batch of the earliest events is claimed
+ * for {@code claimSeconds} in a short transaction which holds an advisory lock of the tenant,
+ * and no events are claimed while a claim of another relay is still valid. The batch is sent
+ * without any transaction or lock held and removed from the outbox once Kafka acknowledged it. A
+ * batch which fails to be sent is released and sent again by the next run, the claim of a relay
+ * which crashed expires. Events are therefore published at least once, in the order they were
+ * saved in.
+ * <p>
+ * Not thread safe, the relay must be used on a single Vert.x context.
+ */
+public class DomainEventOutboxRelay {
+
+  private static final Logger log = getLogger(DomainEventOutboxRelay.class);
+
+  public static final String RELAY_ADDRESS = "mod-circulation-storage.domain-event-outbox.relay";
+
+  private static final String LOCK_TENANT_SQL = "SELECT pg_try_advisory_xact_lock(hashtext($1))";
+  private static final String CLAIM_EVENTS_SQL = "WITH claimed AS (" +
+      "UPDATE %1$s.%2$s SET claimed_until = now() + $2::int * interval '1 second' " +
+      "WHERE id IN (SELECT id FROM %1$s.%2$s ORDER BY id LIMIT $1) " +
+      "AND NOT EXISTS (SELECT 1 FROM %1$s.%2$s WHERE claimed_until > now()) " +
+      "RETURNING id, topic, event_key, payload, okapi_headers) " +
+      "SELECT * FROM claimed ORDER BY id";
+  private static final String RELEASE_EVENTS_SQL = "UPDATE %s.%s SET claimed_until = NULL " +
+      "WHERE id = ANY($1)";
+  private static final String DELETE_EVENTS_SQL = "DELETE FROM %s.%s WHERE id = ANY($1)";
+  private static final String SCHEMA_SUFFIX = "_" + MODULE_NAME;
+  private static final String OUTBOX_SCHEMAS_SQL = format("SELECT table_schema " +
+      "FROM information_schema.tables WHERE table_name = '%s' " +
+      "AND right(table_schema, %d) = '%s'", OUTBOX_TABLE, SCHEMA_SUFFIX.length(), SCHEMA_SUFFIX);
+
+  private final Context context;
+  private final int batchSize;
+  private final int claimSeconds;
+  private final Set<String> relayedTenants = new HashSet<>();
+  private final Set<String> pendingTenants = new HashSet<>();
+  private boolean relayingAllTenants;
+
+  public DomainEventOutboxRelay(Context context, int batchSize, int claimSeconds) {
+    this.context = context;
+    this.batchSize = batchSize;
+    this.claimSeconds = claimSeconds;
+  }
+
+  /**
+   * Publishes all events of the tenant. When the events of the tenant are being published
+   * already, the tenant is relayed again once the current run completes.
+   *
+   * @return number of published events
+   */
+  public Future<Integer> relay(String tenantId) {
+    if (!relayedTenants.add(tenantId)) {
+      pendingTenants.add(tenantId);
+      return succeededFuture(0);
+    }
+
+    return relayUntilDrained(tenantId, 0)
+      .onSuccess(events -> log.debug("relay:: {} events of tenant {} published", events, tenantId))
+      .onFailure(t -> log.warn("relay:: failed to publish events of tenant {}", tenantId, t))
+      .onComplete(r -> {
+        relayedTenants.remove(tenantId);
+        if (pendingTenants.remove(tenantId)) {
+          relay(tenantId);
+        }
+      });
+  }
+
+  /**
+   * Publishes the events of all tenants which have the outbox, one tenant after another.
+   */
+  public Future<Void> relayAllTenants() {
+    if (relayingAllTenants) {
+      return succeededFuture();
+    }
+    relayingAllTenants = true;
+
+    return PostgresClient.getInstance(context.owner())
+      .select(OUTBOX_SCHEMAS_SQL)
+      .map(DomainEventOutboxRelay::toTenantIds)
+      .compose(tenantIds -> {
+        Future<Void> result = succeededFuture();
+        for (String tenantId : tenantIds) {
+          result = result.compose(r -> relay(tenantId).<Void>mapEmpty()
+            .recover(t -> succeededFuture()));
+        }
+        return result;
+      })
+      .onFailure(t -> log.warn("relayAllTenants:: failed to find tenants to relay", t))
+      .onComplete(r -> relayingAllTenants = false);
+  }
+
+  private Future<Integer> relayUntilDrained(String tenantId, int publishedEvents) {
+    // continues until nothing is claimed, so that the events another relay gave up on while
+    // this relay held its claim are published too
+    return relayBatch(tenantId)
+      .compose(events -> events == 0
+        ? succeededFuture(publishedEvents)
+        : relayUntilDrained(tenantId, publishedEvents + events));
+  }
+
+  private Future<Integer> relayBatch(String tenantId) {
+    PostgresClient postgresClient = PostgresClient.getInstance(context.owner(), tenantId);
+    String schemaName = convertToPsqlStandard(tenantId);
+
+    return claim(postgresClient, schemaName)
+      .compose(events -> publish(events)
+        .compose(ids -> delete(postgresClient, schemaName, ids),
+          t -> release(postgresClient, schemaName, events)
+            .transform(released -> Future.<Integer>failedFuture(t))));
+  }
+
+  /**
+   * Claims the earliest events of the tenant, or none when another relay of the tenant is
+   * claiming events or holds a valid claim.
+   */
+  private Future<List<Row>> claim(PostgresClient postgresClient, String schemaName) {
+    return postgresClient.withTrans(conn -> conn.execute(LOCK_TENANT_SQL,
+          Tuple.of(schemaName + "." + OUTBOX_TABLE))
+        .compose(locked -> claim(conn, schemaName, locked.iterator().next().getBoolean(0))));
+  }
+
+  private Future<List<Row>> claim(Conn conn, String schemaName, boolean tenantLocked) {
+    if (!tenantLocked) {
+      return succeededFuture(List.of());
+    }
+
+    return conn.execute(format(CLAIM_EVENTS_SQL, schemaName, OUTBOX_TABLE),
+        Tuple.of(batchSize, claimSeconds))
+      .map(events -> rowSetToStream(events).collect(toList()));
+  }
+
+  /**
+   * Sends the events without waiting for each other. The producer appends them to the batches
+   * of their partitions in the order they are sent in, and is idempotent, so the events of a
+   * key reach Kafka in the order they were saved in even when a batch is retried, see
+   * {@link org.folio.rest.configuration.KafkaProducerConfiguration}.
+   */
+  @SuppressWarnings("rawtypes")
+  private Future<List<Long>> publish(List<Row> events) {
+    List<Long> ids = new ArrayList<>();
+    List<Future> results = new ArrayList<>();
+
+    for (Row event : events) {
+      ids.add(event.getLong("id"));
+      results.add(send(event));
+    }
+
+    return CompositeFuture.all(results).map(ids);
+  }
+
+  private Future<Void> send(Row event) {
+    String topic = event.getString("topic");
+    KafkaProducerRecord<String, String> producerRecord = KafkaProducerRecord.create(topic,
+      event.getString("event_key"), event.getJsonObject("payload").encode());
+
+    JsonObject okapiHeaders = event.getJsonObject("okapi_headers");
+    okapiHeaders.fieldNames().forEach(name ->
+      producerRecord.addHeader(name, okapiHeaders.getString(name)));
+
+    return KafkaProducerPool.<String>getProducer(context)
+      .send(producerRecord)
+      .mapEmpty();
+  }
+
+  private static Future<Integer> delete(PostgresClient postgresClient, String schemaName,
+    List<Long> ids) {
+
+    if (ids.isEmpty()) {
+      return succeededFuture(0);
+    }
+
+    return postgresClient.execute(format(DELETE_EVENTS_SQL, schemaName, OUTBOX_TABLE),
+        Tuple.of(ids.toArray(Long[]::new)))
+      .map(ids.size());
+  }
+
+  private static Future<Void> release(PostgresClient postgresClient, String schemaName,
+    List<Row> events) {
+
+    Long[] ids = events.stream()
+      .map(event -> event.getLong("id"))
+      .toArray(Long[]::new);
+
+    return postgresClient.execute(format(RELEASE_EVENTS_SQL, schemaName, OUTBOX_TABLE),
+        Tuple.of(ids))
+      .onFailure(t -> log.warn("release:: failed to release {} events, they are sent again " +
+        "once their claim expires", ids.length, t))
+      .mapEmpty();
+  }
+
+  private static List<String> toTenantIds(RowSet<Row> schemas) {
+    return rowSetToStream(schemas)
+      .map(row -> row.getString("table_schema"))
+      .map(schemaName -> schemaName.substring(0, schemaName.length() - MODULE_NAME.length() - 1))
+      .collect(toList());
+  }
+
+}
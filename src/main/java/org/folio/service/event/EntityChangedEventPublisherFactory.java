@@ -7,9 +7,6 @@ import static org.folio.rest.tools.utils.TenantTool.tenantId;
 
 import java.util.Map;
 
-import org.folio.persist.CheckInRepository;
-import org.folio.persist.LoanRepository;
-import org.folio.persist.RequestRepository;
 import org.folio.rest.jaxrs.model.CheckIn;
 import org.folio.rest.jaxrs.model.Loan;
 import org.folio.rest.jaxrs.model.Request;
@@ -28,10 +25,8 @@ public class EntityChangedEventPublisherFactory {
 
     return new EntityChangedEventPublisher<>(okapiHeaders, Loan::getId, NULL_ID,
         new EntityChangedEventFactory<>(),
-        new DomainEventPublisher<>(vertxContext,
-            LOAN.fullTopicName(tenantId(okapiHeaders)),
-            FailureHandler.noOperation()),
-        new LoanRepository(vertxContext, okapiHeaders));
+        new DomainEventOutbox<>(vertxContext.owner(), tenantId(okapiHeaders),
+            LOAN.fullTopicName(tenantId(okapiHeaders))));
   }
 
   public static EntityChangedEventPublisher<String, Request> requestEventPublisher(
@@ -39,10 +34,8 @@ public class EntityChangedEventPublisherFactory {
 
     return new EntityChangedEventPublisher<>(okapiHeaders, Request::getId, NULL_ID,
         new EntityChangedEventFactory<>(),
-        new DomainEventPublisher<>(vertxContext,
-            REQUEST.fullTopicName(tenantId(okapiHeaders)),
-            FailureHandler.noOperation()),
-        new RequestRepository(vertxContext, okapiHeaders));
+        new DomainEventOutbox<>(vertxContext.owner(), tenantId(okapiHeaders),
+            REQUEST.fullTopicName(tenantId(okapiHeaders))));
   }
 
   public static EntityChangedEventPublisher<String, CheckIn> checkInEventPublisher(
@@ -50,10 +43,8 @@ public class EntityChangedEventPublisherFactory {
 
     return new EntityChangedEventPublisher<>(okapiHeaders, CheckIn::getId, NULL_ID,
         new EntityChangedEventFactory<>(),
-        new DomainEventPublisher<>(vertxContext,
-            CHECK_IN.fullTopicName(tenantId(okapiHeaders)),
-            FailureHandler.noOperation()),
-        new CheckInRepository(vertxContext, okapiHeaders));
+        new DomainEventOutbox<>(vertxContext.owner(), tenantId(okapiHeaders),
+            CHECK_IN.fullTopicName(tenantId(okapiHeaders))));
   }
 
 }
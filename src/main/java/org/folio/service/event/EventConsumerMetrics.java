@@ -0,0 +1,103 @@
+package org.folio.service.event;
+
+import static io.vertx.core.Future.succeededFuture;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.folio.kafka.AsyncRecordHandler;
+
+import io.vertx.core.Future;
+import io.vertx.kafka.admin.KafkaAdminClient;
+import io.vertx.kafka.admin.OffsetSpec;
+import io.vertx.kafka.client.common.TopicPartition;
+import io.vertx.kafka.client.consumer.KafkaConsumerRecord;
+import io.vertx.kafka.client.consumer.OffsetAndMetadata;
+
+/**
+ * Counts the inventory events in flight, processed and failed by all consumer instances of the
+ * module instance, and calculates the lag of the consumer groups.
+ */
+public final class EventConsumerMetrics {
+  private static final Map<InventoryEventType, AtomicInteger> IN_FLIGHT = new EnumMap<>(
+    InventoryEventType.class);
+  private static final Map<InventoryEventType, LongAdder> PROCESSED = new EnumMap<>(
+    InventoryEventType.class);
+  private static final Map<InventoryEventType, LongAdder> FAILED = new EnumMap<>(
+    InventoryEventType.class);
+
+  static {
+    // the maps are never modified afterwards, so they can be read by any thread
+    for (InventoryEventType eventType : InventoryEventType.values()) {
+      IN_FLIGHT.put(eventType, new AtomicInteger());
+      PROCESSED.put(eventType, new LongAdder());
+      FAILED.put(eventType, new LongAdder());
+    }
+  }
+
+  private EventConsumerMetrics() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  /**
+   * Wraps the handler so that the events it handles are counted.
+   */
+  public static AsyncRecordHandler<String, String> metered(InventoryEventType eventType,
+    AsyncRecordHandler<String, String> handler) {
+
+    return new AsyncRecordHandler<>() {
+      @Override
+      public Future<String> handle(KafkaConsumerRecord<String, String> event) {
+        IN_FLIGHT.get(eventType).incrementAndGet();
+
+        return handler.handle(event)
+          .onComplete(result -> {
+            IN_FLIGHT.get(eventType).decrementAndGet();
+            (result.succeeded() ? PROCESSED : FAILED).get(eventType).increment();
+          });
+      }
+    };
+  }
+
+  public static int getInFlight(InventoryEventType eventType) {
+    return IN_FLIGHT.get(eventType).get();
+  }
+
+  public static long getProcessed(InventoryEventType eventType) {
+    return PROCESSED.get(eventType).sum();
+  }
+
+  public static long getFailed(InventoryEventType eventType) {
+    return FAILED.get(eventType).sum();
+  }
+
+  /**
+   * Returns the number of events published but not committed by the consumer group, summed up
+   * over the partitions the group has committed an offset for.
+   */
+  public static Future<Long> getLag(KafkaAdminClient adminClient, String consumerGroupId) {
+    return adminClient.listConsumerGroupOffsets(consumerGroupId)
+      .compose(committedOffsets -> getLag(adminClient, committedOffsets));
+  }
+
+  private static Future<Long> getLag(KafkaAdminClient adminClient,
+    Map<TopicPartition, OffsetAndMetadata> committedOffsets) {
+
+    if (committedOffsets.isEmpty()) {
+      return succeededFuture(0L);
+    }
+
+    Map<TopicPartition, OffsetSpec> latestOffsetSpecs = committedOffsets.keySet().stream()
+      .collect(toMap(identity(), partition -> OffsetSpec.LATEST));
+
+    return adminClient.listOffsets(latestOffsetSpecs)
+      .map(latestOffsets -> committedOffsets.entrySet().stream()
+        .mapToLong(committed -> Math.max(0, latestOffsets.get(committed.getKey()).getOffset()
+          - committed.getValue().getOffset()))
+        .sum());
+  }
+}
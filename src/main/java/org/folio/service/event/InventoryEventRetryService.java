@@ -0,0 +1,238 @@
+package org.folio.service.event;
+
+import static io.vertx.core.Future.failedFuture;
+import static io.vertx.core.Future.succeededFuture;
+import static java.lang.String.format;
+import static org.apache.logging.log4j.LogManager.getLogger;
+import static org.folio.rest.persist.PostgresClient.convertToPsqlStandard;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.collections4.map.CaseInsensitiveMap;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.configuration.EventConsumerConfiguration;
+import org.folio.rest.configuration.InventoryEventRetryConfiguration;
+import org.folio.rest.jaxrs.model.InventoryEventRetryResult;
+import org.folio.rest.persist.Conn;
+import org.folio.rest.persist.PgUtil;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.service.event.handler.ItemUpdateEventHandler;
+import org.folio.service.event.handler.ServicePointUpdateEventHandler;
+import org.folio.service.event.handler.UpdateEventAbstractHandler;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
+
+/**
+ * Dead letters of the inventory events of a tenant which failed to be applied. A failed event is
+ * saved instead of being retried by the consumer, so that it does not hold up the events after
+ * it in the partition, and is retried with an exponential backoff: the n-th retry waits
+ * {@code backoffSeconds * 2^(n-1)} seconds. An event which fails {@code maxAttempts} times is
+ * no longer retried until it is replayed.
+ * <p>
+ * The events of an object share their Kafka key. Once an event of a key is saved, the later
+ * events of the key are parked behind it instead of being applied, and an event is retried only
+ * when no earlier event of its key is saved, so that an event replayed later never overwrites the
+ * changes of a newer event. The events are retried one after another in the order they failed
+ * in, every batch of events is locked, retried and removed or rescheduled in one transaction, so
+ * that several module instances can retry the events of the same tenant.
+ */
+public class InventoryEventRetryService {
+
+  private static final Logger log = getLogger(InventoryEventRetryService.class);
+
+  public static final String DEAD_LETTER_TABLE = "inventory_event_dead_letter";
+
+  private static final String INSERT_EVENT_SQL = "INSERT INTO %s.%s (event_type, event_key, " +
+      "payload, okapi_headers, attempts, last_error, next_attempt_date) " +
+      "VALUES ($1, $2, $3, $4, $5, $6, now() + $7::int * interval '1 second')";
+  private static final String SELECT_KEYS_WITH_EVENTS_SQL = "SELECT DISTINCT event_key " +
+      "FROM %s.%s WHERE event_type = $1 AND event_key IS NOT NULL";
+  // only the earliest saved event of a key is due, the later ones wait until it is applied
+  private static final String SELECT_DUE_EVENTS_SQL = "SELECT id, event_type, payload, " +
+      "okapi_headers FROM %1$s.%2$s event WHERE next_attempt_date <= now() " +
+      "AND NOT EXISTS (SELECT 1 FROM %1$s.%2$s earlier " +
+      "WHERE earlier.event_type = event.event_type AND earlier.event_key = event.event_key " +
+      "AND earlier.id < event.id) " +
+      "ORDER BY id LIMIT $1 FOR UPDATE SKIP LOCKED";
+  private static final String DELETE_EVENT_SQL = "DELETE FROM %s.%s WHERE id = $1";
+  private static final String RESCHEDULE_EVENT_SQL = "UPDATE %s.%s " +
+      "SET attempts = attempts + 1, last_error = $2, next_attempt_date = CASE " +
+      "WHEN attempts + 1 >= $3 THEN NULL " +
+      "ELSE now() + $4::int * power(2, attempts) * interval '1 second' END " +
+      "WHERE id = $1";
+  private static final String REPLAY_EVENTS_SQL = "UPDATE %s.%s " +
+      "SET attempts = 0, next_attempt_date = now()";
+
+  private final Context context;
+  private final Map<String, String> okapiHeaders;
+  private final InventoryEventRetryConfiguration configuration;
+  private final PostgresClient postgresClient;
+  private final String schemaName;
+  private final Map<InventoryEventType, UpdateEventAbstractHandler<?>> handlers =
+    new EnumMap<>(InventoryEventType.class);
+
+  public InventoryEventRetryService(Context context, Map<String, String> okapiHeaders,
+    InventoryEventRetryConfiguration configuration) {
+
+    this.context = context;
+    this.okapiHeaders = okapiHeaders;
+    this.configuration = configuration;
+    this.postgresClient = PgUtil.postgresClient(context, okapiHeaders);
+    this.schemaName = convertToPsqlStandard(postgresClient.getTenantId());
+  }
+
+  /**
+   * Saves the event which failed to be applied, its first retry is due after the backoff.
+   */
+  public Future<Void> deadLetter(InventoryEventType eventType, String eventKey, String payload,
+    Throwable error) {
+
+    log.debug("deadLetter:: saving event: key = {}, type = {}", eventKey, eventType);
+
+    Integer retryDelaySeconds = configuration.getMaxAttempts() > 1
+      ? configuration.getBackoffSeconds()
+      : null;
+
+    return save(eventType, eventKey, payload, 1, error.toString(), retryDelaySeconds);
+  }
+
+  /**
+   * The keys which have saved events, a later event of such a key must be {@link #park parked}
+   * instead of being applied.
+   */
+  public Future<Set<String>> getKeysWithEvents(InventoryEventType eventType) {
+    return postgresClient.execute(format(SELECT_KEYS_WITH_EVENTS_SQL, schemaName,
+        DEAD_LETTER_TABLE), Tuple.of(eventType.name()))
+      .map(rows -> {
+        Set<String> keys = new HashSet<>();
+        rows.forEach(row -> keys.add(row.getString(0)));
+        return keys;
+      });
+  }
+
+  /**
+   * Saves the event without applying it, it is applied once the earlier events of its key are.
+   */
+  public Future<Void> park(InventoryEventType eventType, String eventKey, String payload) {
+    log.debug("park:: parking event: key = {}, type = {}", eventKey, eventType);
+
+    return save(eventType, eventKey, payload, 0, null, 0);
+  }
+
+  private Future<Void> save(InventoryEventType eventType, String eventKey, String payload,
+    int attempts, String error, Integer retryDelaySeconds) {
+
+    return postgresClient.execute(format(INSERT_EVENT_SQL, schemaName, DEAD_LETTER_TABLE),
+        Tuple.of(eventType.name(), eventKey, payload, StoredOkapiHeaders.of(okapiHeaders), attempts,
+          error, retryDelaySeconds))
+      .mapEmpty();
+  }
+
+  /**
+   * Retries the events whose next attempt is due, batch after batch, until no due event is left.
+   */
+  public Future<InventoryEventRetryResult> retryDueEvents() {
+    InventoryEventRetryResult result = new InventoryEventRetryResult()
+      .withSucceededEvents(0)
+      .withFailedEvents(0);
+
+    return retryUntilDrained(result)
+      .onSuccess(r -> log.info("retryDueEvents:: {} events applied, {} events failed again",
+        r.getSucceededEvents(), r.getFailedEvents()))
+      .onFailure(t -> log.warn("retryDueEvents:: failed to retry events", t));
+  }
+
+  /**
+   * Retries all events right away, including the events which failed too many times; every
+   * event gets all its attempts again.
+   */
+  public Future<InventoryEventRetryResult> replay() {
+    return postgresClient.execute(format(REPLAY_EVENTS_SQL, schemaName, DEAD_LETTER_TABLE))
+      .onSuccess(events -> log.info("replay:: {} events to replay", events.rowCount()))
+      .compose(events -> retryDueEvents());
+  }
+
+  private Future<InventoryEventRetryResult> retryUntilDrained(InventoryEventRetryResult result) {
+    int succeededBefore = result.getSucceededEvents();
+
+    // events which fail again are rescheduled, so they are not selected by the next batch, and an
+    // applied event makes the next event of its key due
+    return retryBatch(result)
+      .compose(events -> events < configuration.getBatchSize()
+          && result.getSucceededEvents() == succeededBefore
+        ? succeededFuture(result)
+        : retryUntilDrained(result));
+  }
+
+  private Future<Integer> retryBatch(InventoryEventRetryResult result) {
+    return postgresClient.withTrans(conn -> conn.execute(
+        format(SELECT_DUE_EVENTS_SQL, schemaName, DEAD_LETTER_TABLE),
+        Tuple.of(configuration.getBatchSize()))
+      .compose(events -> retry(conn, events, result)));
+  }
+
+  private Future<Integer> retry(Conn conn, RowSet<Row> events, InventoryEventRetryResult result) {
+    Future<Void> retried = succeededFuture();
+    for (Row event : events) {
+      retried = retried.compose(r -> retry(conn, event, result));
+    }
+
+    return retried.map(events.rowCount());
+  }
+
+  private Future<Void> retry(Conn conn, Row event, InventoryEventRetryResult result) {
+    Long id = event.getLong("id");
+
+    return processEvent(event)
+      .compose(updated -> {
+          result.setSucceededEvents(result.getSucceededEvents() + 1);
+          return conn.execute(format(DELETE_EVENT_SQL, schemaName, DEAD_LETTER_TABLE),
+            Tuple.of(id));
+        },
+        t -> {
+          log.warn("retry:: event {} failed again", id, t);
+          result.setFailedEvents(result.getFailedEvents() + 1);
+          return conn.execute(format(RESCHEDULE_EVENT_SQL, schemaName, DEAD_LETTER_TABLE),
+            Tuple.of(id, t.toString(), configuration.getMaxAttempts(),
+              configuration.getBackoffSeconds()));
+        })
+      .mapEmpty();
+  }
+
+  private Future<Integer> processEvent(Row event) {
+    UpdateEventAbstractHandler<?> handler;
+    try {
+      handler = handlers.computeIfAbsent(
+        InventoryEventType.valueOf(event.getString("event_type")), this::createHandler);
+    } catch (Exception e) {
+      return failedFuture(e);
+    }
+
+    Map<String, String> eventHeaders = new CaseInsensitiveMap<>();
+    event.getJsonObject("okapi_headers").forEach(header ->
+      eventHeaders.put(header.getKey(), String.valueOf(header.getValue())));
+
+    return handler.processEvent(event.getString("payload"), eventHeaders);
+  }
+
+  private UpdateEventAbstractHandler<?> createHandler(InventoryEventType eventType) {
+    // events are retried one after another, so that the events of an object stay in order
+    switch (eventType) {
+      case INVENTORY_ITEM_UPDATED:
+        return new ItemUpdateEventHandler(context, 1);
+      case INVENTORY_SERVICE_POINT_UPDATED:
+        return new ServicePointUpdateEventHandler(context, 1,
+          EventConsumerConfiguration.fromEnvironment().getServicePointUpdateChunkSize());
+      default:
+        throw new IllegalArgumentException("Unsupported event type: " + eventType);
+    }
+  }
+
+}
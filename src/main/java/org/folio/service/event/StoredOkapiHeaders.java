@@ -0,0 +1,32 @@
+package org.folio.service.event;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * The Okapi headers stored with an event which is saved to be sent or applied later: only the
+ * tenant, URL and user ID. The token and the other headers are never stored.
+ */
+final class StoredOkapiHeaders {
+  private static final Set<String> STORED_HEADERS = Set.of("x-okapi-tenant", "x-okapi-url",
+    "x-okapi-user-id");
+
+  private StoredOkapiHeaders() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  static JsonObject of(Map<String, String> okapiHeaders) {
+    JsonObject headers = new JsonObject();
+
+    okapiHeaders.forEach((name, value) -> {
+      if (STORED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+        headers.put(name, value);
+      }
+    });
+
+    return headers;
+  }
+}
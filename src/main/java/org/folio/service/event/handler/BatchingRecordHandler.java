@@ -0,0 +1,126 @@
+package org.folio.service.event.handler;
+
+import static io.vertx.core.Future.failedFuture;
+import static io.vertx.core.Future.succeededFuture;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.kafka.AsyncRecordHandler;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.kafka.client.consumer.KafkaConsumerRecord;
+
+/**
+ * Collects the records passed by the Kafka consumer into batches and hands every batch to the
+ * batch handler at once. A batch is handed over when it is full or when its first record has
+ * waited for the maximum wait time. Batches are handled one after another, in the order of
+ * their records. The batch handler returns the records which failed on their own, e.g. because
+ * they cannot be parsed, these records fail and the other records get the result of the batch.
+ * <p>
+ * The consumer must allow at least {@code batchSize} records in flight for a batch to fill up.
+ * Not thread safe, the handler must be used on a single Vert.x context.
+ */
+public class BatchingRecordHandler implements AsyncRecordHandler<String, String> {
+  private static final Logger log = LogManager.getLogger(MethodHandles.lookup().lookupClass());
+
+  private final Vertx vertx;
+  private final int batchSize;
+  private final long maxWaitMs;
+  private final Function<List<KafkaConsumerRecord<String, String>>,
+    Future<Map<KafkaConsumerRecord<String, String>, Throwable>>> batchHandler;
+
+  private List<KafkaConsumerRecord<String, String>> records = new ArrayList<>();
+  private List<Promise<String>> results = new ArrayList<>();
+  private Future<Void> lastBatch = succeededFuture();
+  private Long waitTimerId;
+
+  public BatchingRecordHandler(Vertx vertx, int batchSize, long maxWaitMs,
+    Function<List<KafkaConsumerRecord<String, String>>,
+      Future<Map<KafkaConsumerRecord<String, String>, Throwable>>> batchHandler) {
+
+    this.vertx = vertx;
+    this.batchSize = batchSize;
+    this.maxWaitMs = maxWaitMs;
+    this.batchHandler = batchHandler;
+  }
+
+  @Override
+  public Future<String> handle(KafkaConsumerRecord<String, String> event) {
+    Promise<String> result = Promise.promise();
+    records.add(event);
+    results.add(result);
+
+    if (records.size() >= batchSize) {
+      flush();
+    } else if (waitTimerId == null) {
+      waitTimerId = vertx.setTimer(maxWaitMs, id -> {
+        waitTimerId = null;
+        flush();
+      });
+    }
+
+    return result.future();
+  }
+
+  private void flush() {
+    if (waitTimerId != null) {
+      vertx.cancelTimer(waitTimerId);
+      waitTimerId = null;
+    }
+
+    if (records.isEmpty()) {
+      return;
+    }
+
+    List<KafkaConsumerRecord<String, String>> batch = records;
+    List<Promise<String>> batchResults = results;
+    records = new ArrayList<>();
+    results = new ArrayList<>();
+
+    log.debug("flush:: handing over batch of {} records", batch::size);
+
+    // a failed batch must not stop the batches after it
+    lastBatch = lastBatch
+      .recover(t -> succeededFuture())
+      .compose(v -> handleBatch(batch))
+      .onSuccess(failedRecords -> {
+        for (int i = 0; i < batch.size(); i++) {
+          completeRecord(batch.get(i), batchResults.get(i), failedRecords.get(batch.get(i)));
+        }
+      })
+      .onFailure(t -> {
+        log.error("flush:: failed to handle batch of {} records", batch.size(), t);
+        batchResults.forEach(result -> result.fail(t));
+      })
+      .mapEmpty();
+  }
+
+  private static void completeRecord(KafkaConsumerRecord<String, String> record,
+    Promise<String> result, Throwable failure) {
+
+    if (failure == null) {
+      result.complete(record.key());
+    } else {
+      log.warn("completeRecord:: record {} of batch failed", record.key(), failure);
+      result.fail(failure);
+    }
+  }
+
+  private Future<Map<KafkaConsumerRecord<String, String>, Throwable>> handleBatch(
+    List<KafkaConsumerRecord<String, String>> batch) {
+
+    try {
+      return batchHandler.apply(batch);
+    } catch (Exception e) {
+      return failedFuture(e);
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package org.folio.service.event.handler;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import io.vertx.core.Future;
+
+/**
+ * The keys of every tenant which have saved events, kept in memory so that an incoming event
+ * does not need a query to find out whether it must be parked. The keys of a tenant are loaded
+ * with one query when the first event of the tenant arrives and reloaded after the refresh
+ * interval, to forget the keys whose events have been retried in the meantime. A key saved
+ * while the keys are reloaded is kept, so that a reload never drops a key it has not seen.
+ * <p>
+ * Thread safe.
+ */
+class DeadLetteredKeys {
+  private final long refreshIntervalNanos;
+  private final Map<String, TenantKeys> keysByTenant = new ConcurrentHashMap<>();
+
+  DeadLetteredKeys(long refreshIntervalMs) {
+    this.refreshIntervalNanos = TimeUnit.MILLISECONDS.toNanos(refreshIntervalMs);
+  }
+
+  /**
+   * Whether the key of the tenant has saved events, the keys of the tenant are loaded by the
+   * loader first when they are missing or due to be reloaded.
+   */
+  Future<Boolean> contains(String tenant, String key, Supplier<Future<Set<String>>> loader) {
+    TenantKeys tenantKeys = keysByTenant.computeIfAbsent(tenant, notUsed -> new TenantKeys());
+
+    return tenantKeys.load(loader).map(notUsed -> tenantKeys.keys.containsKey(key));
+  }
+
+  /**
+   * Records that an event of the key of the tenant has been saved.
+   */
+  void add(String tenant, String key) {
+    keysByTenant.computeIfAbsent(tenant, notUsed -> new TenantKeys())
+      .keys.put(key, System.nanoTime());
+  }
+
+  private class TenantKeys {
+    // the keys and the time they were added at
+    private final Map<String, Long> keys = new ConcurrentHashMap<>();
+    private Future<Void> loaded;
+    private long loadStartedAt;
+
+    private synchronized Future<Void> load(Supplier<Future<Set<String>>> loader) {
+      boolean due = loaded == null || loaded.failed()
+        || loaded.succeeded() && System.nanoTime() - loadStartedAt > refreshIntervalNanos;
+
+      if (due) {
+        long startedAt = System.nanoTime();
+        loadStartedAt = startedAt;
+        loaded = loader.get().map(loadedKeys -> {
+          keys.entrySet().removeIf(key -> key.getValue() < startedAt
+            && !loadedKeys.contains(key.getKey()));
+          loadedKeys.forEach(key -> keys.putIfAbsent(key, startedAt));
+          return null;
+        });
+      }
+
+      return loaded;
+    }
+  }
+}
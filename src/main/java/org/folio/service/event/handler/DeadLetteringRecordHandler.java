@@ -0,0 +1,127 @@
+package org.folio.service.event.handler;
+
+import static io.vertx.core.Future.failedFuture;
+import static io.vertx.core.Future.succeededFuture;
+import static org.folio.kafka.KafkaHeaderUtils.kafkaHeadersToMap;
+import static org.folio.rest.impl.Headers.TENANT_HEADER;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.collections4.map.CaseInsensitiveMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.kafka.AsyncRecordHandler;
+import org.folio.rest.configuration.InventoryEventRetryConfiguration;
+import org.folio.service.event.InventoryEventRetryService;
+import org.folio.service.event.InventoryEventType;
+import org.folio.support.KeyedExecutor;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.kafka.client.consumer.KafkaConsumerRecord;
+
+/**
+ * Saves the events the handler fails to handle as dead letters of their tenant and completes
+ * them, so that a failed event is retried later by {@link InventoryEventRetryService} instead of
+ * holding up the partition. An event whose key already has a dead letter is parked behind it
+ * without being handled, so that the failed event cannot overwrite its changes when it is
+ * retried. An event which cannot be saved fails as before.
+ * <p>
+ * The events of a key are handled one after another, an event is checked only once the earlier
+ * event of its key is applied, dead-lettered or parked, so that a later event cannot be applied
+ * while an earlier one is still in flight and fails afterwards. The keys with saved events are
+ * kept in memory, see {@link DeadLetteredKeys}.
+ */
+public class DeadLetteringRecordHandler implements AsyncRecordHandler<String, String> {
+  private static final Logger log = LogManager.getLogger(MethodHandles.lookup().lookupClass());
+
+  private final Context context;
+  private final InventoryEventType eventType;
+  private final InventoryEventRetryConfiguration configuration;
+  private final AsyncRecordHandler<String, String> handler;
+  // the consumer limits the events in flight
+  private final KeyedExecutor keyedExecutor = new KeyedExecutor(Integer.MAX_VALUE);
+  private final DeadLetteredKeys deadLetteredKeys;
+
+  public DeadLetteringRecordHandler(Context context, InventoryEventType eventType,
+    InventoryEventRetryConfiguration configuration, AsyncRecordHandler<String, String> handler) {
+
+    this.context = context;
+    this.eventType = eventType;
+    this.configuration = configuration;
+    this.handler = handler;
+    // a key is no longer parked once its saved events are retried, they are retried after the
+    // backoff at the earliest
+    this.deadLetteredKeys = new DeadLetteredKeys(
+      TimeUnit.SECONDS.toMillis(configuration.getBackoffSeconds()));
+  }
+
+  @Override
+  public Future<String> handle(KafkaConsumerRecord<String, String> event) {
+    Map<String, String> okapiHeaders = new CaseInsensitiveMap<>(
+      kafkaHeadersToMap(event.headers()));
+    InventoryEventRetryService retryService = new InventoryEventRetryService(context,
+      okapiHeaders, configuration);
+
+    if (event.key() == null) {
+      // events without a key are not ordered, they are never parked
+      return handleOrDeadLetter(retryService, null, event);
+    }
+
+    String tenant = String.valueOf(okapiHeaders.get(TENANT_HEADER));
+
+    return keyedExecutor.execute(tenant + "/" + event.key(),
+      () -> deadLetteredKeys.contains(tenant, event.key(),
+          () -> retryService.getKeysWithEvents(eventType))
+        .compose(parked -> parked
+          ? park(retryService, tenant, event)
+          : handleOrDeadLetter(retryService, tenant, event)));
+  }
+
+  private Future<String> handleOrDeadLetter(InventoryEventRetryService retryService,
+    String tenant, KafkaConsumerRecord<String, String> event) {
+
+    Future<String> result;
+    try {
+      result = handler.handle(event);
+    } catch (Exception e) {
+      result = failedFuture(e);
+    }
+
+    return result.recover(t -> deadLetter(retryService, tenant, event, t));
+  }
+
+  private Future<String> park(InventoryEventRetryService retryService, String tenant,
+    KafkaConsumerRecord<String, String> event) {
+
+    String eventKey = event.key();
+
+    return retryService.park(eventType, eventKey, event.value())
+      .onSuccess(r -> {
+        log.info("park:: event {} is parked behind an earlier failed event", eventKey);
+        deadLetteredKeys.add(tenant, eventKey);
+      })
+      .onFailure(t -> log.error("park:: failed to park event {}", eventKey, t))
+      .map(eventKey);
+  }
+
+  private Future<String> deadLetter(InventoryEventRetryService retryService, String tenant,
+    KafkaConsumerRecord<String, String> event, Throwable error) {
+
+    String eventKey = event.key();
+
+    return retryService.deadLetter(eventType, eventKey, event.value(), error)
+      .onSuccess(r -> {
+        log.warn("deadLetter:: event {} failed and is saved for retry", eventKey);
+        if (tenant != null) {
+          deadLetteredKeys.add(tenant, eventKey);
+        }
+      })
+      .onFailure(t -> log.error("deadLetter:: failed to save event {} for retry", eventKey, t))
+      .<String>transform(saved -> saved.succeeded()
+        ? succeededFuture(eventKey)
+        : failedFuture(error));
+  }
+}
@@ -0,0 +1,100 @@
+package org.folio.service.event.handler;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.jackson.DatabindCodec;
+
+/**
+ * Parses the payload of an update event with a streaming parser, keeping the event type and only
+ * the relevant properties of the old and the new version of the object. The other properties
+ * are skipped without being decoded, so that the large objects of the events which change
+ * nothing relevant are never built.
+ */
+public class EventPayloadParser {
+  private static final String TYPE_KEY = "type";
+  private static final String OLD_KEY = "old";
+  private static final String NEW_KEY = "new";
+
+  private final ObjectMapper mapper = DatabindCodec.mapper();
+  private final Set<String> relevantProperties;
+
+  /**
+   * @param relevantProperties top level properties of the object which are kept
+   */
+  public EventPayloadParser(Set<String> relevantProperties) {
+    this.relevantProperties = relevantProperties;
+  }
+
+  /**
+   * Returns the payload with the {@code type}, {@code old} and {@code new} properties, the old
+   * and the new version contain only the relevant properties.
+   */
+  public JsonObject parse(String payload) {
+    try (JsonParser parser = mapper.getFactory().createParser(payload)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new DecodeException("Event payload is not a JSON object");
+      }
+
+      JsonObject result = new JsonObject();
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String name = parser.getCurrentName();
+        JsonToken valueToken = parser.nextToken();
+
+        if (TYPE_KEY.equals(name) && valueToken == JsonToken.VALUE_STRING) {
+          result.put(TYPE_KEY, parser.getText());
+        } else if ((OLD_KEY.equals(name) || NEW_KEY.equals(name))
+          && valueToken == JsonToken.START_OBJECT) {
+
+          result.put(name, parseRelevantProperties(parser));
+        } else {
+          parser.skipChildren();
+        }
+      }
+
+      return result;
+    } catch (IOException e) {
+      throw new DecodeException("Failed to decode event payload: " + e.getMessage(), e);
+    }
+  }
+
+  private JsonObject parseRelevantProperties(JsonParser parser) throws IOException {
+    JsonObject object = new JsonObject();
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String name = parser.getCurrentName();
+      parser.nextToken();
+
+      if (relevantProperties.contains(name)) {
+        object.put(name, readValue(parser));
+      } else {
+        parser.skipChildren();
+      }
+    }
+
+    return object;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Object readValue(JsonParser parser) throws IOException {
+    Object value = mapper.readValue(parser, Object.class);
+
+    if (value instanceof Map) {
+      return new JsonObject((Map<String, Object>) value);
+    }
+    if (value instanceof List) {
+      return new JsonArray((List<Object>) value);
+    }
+
+    return value;
+  }
+}
@@ -1,11 +1,19 @@
 package org.folio.service.event.handler;
 
+import static io.vertx.core.Future.succeededFuture;
+import static java.util.stream.Collectors.toList;
 import static org.apache.commons.lang3.ObjectUtils.notEqual;
+import static org.folio.rest.impl.Headers.TENANT_HEADER;
 import static org.folio.service.event.InventoryEventType.INVENTORY_ITEM_UPDATED;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.folio.persist.RequestRepository;
@@ -14,6 +22,7 @@ import org.folio.rest.jaxrs.model.Request;
 import org.folio.rest.persist.Criteria.Criteria;
 import org.folio.rest.persist.Criteria.Criterion;
 
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.json.JsonObject;
@@ -30,8 +39,9 @@ public class ItemUpdateEventHandler extends UpdateEventAbstractHandler<Request>
 
   private final Context context;
 
-  public ItemUpdateEventHandler(Context context) {
-    super(INVENTORY_ITEM_UPDATED);
+  public ItemUpdateEventHandler(Context context, int maxConcurrency) {
+    super(INVENTORY_ITEM_UPDATED, maxConcurrency,
+      Set.of(EFFECTIVE_SHELVING_ORDER_KEY, EFFECTIVE_CALL_NUMBER_COMPONENTS_KEY));
     this.context = context;
   }
 
@@ -57,15 +67,123 @@ public class ItemUpdateEventHandler extends UpdateEventAbstractHandler<Request>
   }
 
   @Override
-  protected Future<List<Request>> applyChanges(List<Change<Request>> changes,
-    KafkaConsumerRecord<String, String> event, JsonObject oldObject, JsonObject newObject) {
+  protected Future<Integer> applyChanges(List<Change<Request>> changes,
+    Map<String, String> okapiHeaders, JsonObject oldObject, JsonObject newObject) {
 
     log.debug("applyChanges:: applying item-related changes");
 
-    RequestRepository requestRepository = new RequestRepository(context, getKafkaHeaders(event));
+    RequestRepository requestRepository = new RequestRepository(context, okapiHeaders);
 
     return findRequestsForItem(requestRepository, oldObject.getString("id"))
-      .compose(requests -> applyDbUpdates(requests, changes, requestRepository));
+      .compose(requests -> applyDbUpdates(requests, changes, requestRepository))
+      .map(List::size);
+  }
+
+  /**
+   * Handles the events of a batch together: the events of every tenant are reduced to the
+   * changes between the first old and the last new version of every item, and the requests of
+   * all changed items are fetched with one query and updated with one statement. An event which
+   * cannot be parsed, or whose tenant fails to be updated, does not fail the batch, it is
+   * returned with its failure.
+   */
+  @SuppressWarnings("rawtypes")
+  public Future<Map<KafkaConsumerRecord<String, String>, Throwable>> handleBatch(
+    List<KafkaConsumerRecord<String, String>> events) {
+
+    log.info("handleBatch:: received batch of {} events", events.size());
+
+    Map<KafkaConsumerRecord<String, String>, Throwable> failedEvents = new IdentityHashMap<>();
+    Map<String, List<Pair<KafkaConsumerRecord<String, String>, JsonObject>>> payloadsByTenant =
+      new LinkedHashMap<>();
+
+    for (KafkaConsumerRecord<String, String> event : events) {
+      JsonObject payload;
+      try {
+        payload = getSupportedPayload(event.value());
+      } catch (Exception e) {
+        log.warn("handleBatch:: failed to parse event {}", event.key(), e);
+        failedEvents.put(event, e);
+        continue;
+      }
+
+      if (payload != null) {
+        payloadsByTenant.computeIfAbsent(
+            String.valueOf(getKafkaHeaders(event).get(TENANT_HEADER)), tenant -> new ArrayList<>())
+          .add(Pair.of(event, payload));
+      }
+    }
+
+    List<Future> results = payloadsByTenant.entrySet().stream()
+      .map(tenantEvents -> succeededFuture()
+        .compose(v -> handleTenantBatch(tenantEvents.getValue()))
+        .onFailure(t -> {
+          log.error("handleBatch:: failed to process {} events of tenant {}",
+            tenantEvents.getValue().size(), tenantEvents.getKey(), t);
+          tenantEvents.getValue().forEach(event -> failedEvents.put(event.getLeft(), t));
+        }))
+      .collect(toList());
+
+    // join waits for every tenant, a failed tenant is reported in failedEvents
+    return CompositeFuture.join(results)
+      .transform(r -> {
+        log.info("handleBatch:: batch of {} events processed, {} events failed",
+          events.size(), failedEvents.size());
+        return succeededFuture(failedEvents);
+      });
+  }
+
+  private Future<List<Request>> handleTenantBatch(
+    List<Pair<KafkaConsumerRecord<String, String>, JsonObject>> events) {
+
+    // the events of an item are in the order they were published in
+    Map<String, Pair<JsonObject, JsonObject>> versionsByItemId = new LinkedHashMap<>();
+    for (Pair<KafkaConsumerRecord<String, String>, JsonObject> event : events) {
+      JsonObject payload = event.getRight();
+      JsonObject oldItem = payload.getJsonObject("old");
+      versionsByItemId.merge(oldItem.getString("id").toLowerCase(),
+        Pair.of(oldItem, payload.getJsonObject("new")),
+        (earlier, later) -> Pair.of(earlier.getLeft(), later.getRight()));
+    }
+
+    Map<String, List<Change<Request>>> changesByItemId = new LinkedHashMap<>();
+    versionsByItemId.forEach((itemId, versions) -> {
+      List<Change<Request>> changes = collectRelevantChanges(versions.getLeft(),
+        versions.getRight());
+      if (!changes.isEmpty()) {
+        changesByItemId.put(itemId, changes);
+      }
+    });
+
+    if (changesByItemId.isEmpty()) {
+      log.info("handleTenantBatch:: no relevant changes detected in {} events", events.size());
+      return succeededFuture(List.of());
+    }
+
+    log.info("handleTenantBatch:: relevant changes of {} items detected in {} events, applying",
+      changesByItemId.size(), events.size());
+
+    RequestRepository requestRepository = new RequestRepository(context,
+      getKafkaHeaders(events.get(events.size() - 1).getLeft()));
+
+    return requestRepository.findByItemIds(changesByItemId.keySet())
+      .compose(requests -> applyBatchDbUpdates(requests, changesByItemId, requestRepository));
+  }
+
+  private Future<List<Request>> applyBatchDbUpdates(List<Request> requests,
+    Map<String, List<Change<Request>>> changesByItemId, RequestRepository requestRepository) {
+
+    if (requests.isEmpty()) {
+      log.info("applyBatchDbUpdates:: no requests to update found, nothing to update");
+      return succeededFuture(requests);
+    }
+
+    log.info("applyBatchDbUpdates:: {} requests to update found, applying changes",
+      requests.size());
+    requests.forEach(request -> changesByItemId.get(request.getItemId().toLowerCase())
+      .forEach(change -> change.apply(request)));
+
+    log.info("applyBatchDbUpdates:: persisting changes");
+    return requestRepository.updateBatch(requests).map(requests);
   }
 
   private Future<List<Request>> findRequestsForItem(RequestRepository requestRepository, String itemId) {
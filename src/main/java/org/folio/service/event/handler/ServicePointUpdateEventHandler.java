@@ -5,28 +5,29 @@ import static org.folio.service.event.InventoryEventType.INVENTORY_SERVICE_POINT
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.folio.persist.RequestRepository;
 import org.folio.rest.jaxrs.model.Request;
-import org.folio.rest.persist.Criteria.Criteria;
-import org.folio.rest.persist.Criteria.Criterion;
 
 import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.json.JsonObject;
-import io.vertx.kafka.client.consumer.KafkaConsumerRecord;
 
 public class ServicePointUpdateEventHandler extends UpdateEventAbstractHandler<Request> {
   private static final Logger log = LogManager.getLogger(ServicePointUpdateEventHandler.class);
   private static final String SERVICE_POINT_NAME_KEY = "name";
 
   private final Context context;
+  private final int chunkSize;
 
-  public ServicePointUpdateEventHandler(Context context) {
-    super(INVENTORY_SERVICE_POINT_UPDATED);
+  public ServicePointUpdateEventHandler(Context context, int maxConcurrency, int chunkSize) {
+    super(INVENTORY_SERVICE_POINT_UPDATED, maxConcurrency, Set.of(SERVICE_POINT_NAME_KEY));
     this.context = context;
+    this.chunkSize = chunkSize;
   }
 
   @Override
@@ -46,28 +47,22 @@ public class ServicePointUpdateEventHandler extends UpdateEventAbstractHandler<R
     return changes;
   }
 
+  /**
+   * Renames the pickup service point in the search index of the requests with set-based
+   * statements instead of loading the requests, the changes only tell that the name differs.
+   */
   @Override
-  protected Future<List<Request>> applyChanges(List<Change<Request>> changes,
-    KafkaConsumerRecord<String, String> event, JsonObject oldObject, JsonObject newObject) {
+  protected Future<Integer> applyChanges(List<Change<Request>> changes,
+    Map<String, String> okapiHeaders, JsonObject oldObject, JsonObject newObject) {
 
     log.debug("applyChanges:: applying searchIndex.pickupServicePointName changes");
 
-    RequestRepository requestRepository = new RequestRepository(context, getKafkaHeaders(event));
+    String servicePointId = oldObject.getString("id");
+    RequestRepository requestRepository = new RequestRepository(context, okapiHeaders);
 
-    return findRequestsByPickupServicePointId(requestRepository, oldObject.getString("id"))
-      .compose(requests -> applyDbUpdates(requests, changes, requestRepository));
-  }
-
-  private Future<List<Request>> findRequestsByPickupServicePointId(
-    RequestRepository requestRepository, String pickupServicePointId) {
-
-    log.info("findRequestsByServicePointId:: fetching requests for pickupServicePointId {}",
-      pickupServicePointId);
-
-    return requestRepository.get(new Criterion(
-      new Criteria()
-        .addField("'pickupServicePointId'")
-        .setOperation("=")
-        .setVal(pickupServicePointId)));
+    return requestRepository.updatePickupServicePointName(servicePointId,
+        newObject.getString(SERVICE_POINT_NAME_KEY), chunkSize)
+      .onSuccess(updated -> log.info("applyChanges:: {} requests with pickupServicePointId {} " +
+        "updated", updated, servicePointId));
   }
 }
@@ -1,11 +1,15 @@
 package org.folio.service.event.handler;
 
+import static io.vertx.core.Future.failedFuture;
 import static io.vertx.core.Future.succeededFuture;
 import static org.folio.kafka.KafkaHeaderUtils.kafkaHeadersToMap;
 
 import java.lang.invoke.MethodHandles;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 
 import org.apache.commons.collections4.map.CaseInsensitiveMap;
@@ -14,6 +18,7 @@ import org.apache.logging.log4j.Logger;
 import org.folio.kafka.AsyncRecordHandler;
 import org.folio.persist.AbstractRepository;
 import org.folio.service.event.InventoryEventType;
+import org.folio.support.KeyedExecutor;
 
 import io.vertx.core.Future;
 import io.vertx.core.json.JsonObject;
@@ -23,10 +28,28 @@ import lombok.RequiredArgsConstructor;
 public abstract class UpdateEventAbstractHandler<T> implements AsyncRecordHandler<String, String> {
   private static final Logger log = LogManager.getLogger(MethodHandles.lookup().lookupClass());
 
+  private static final String ID_KEY = "id";
+
   private final InventoryEventType supportedEventType;
+  private final KeyedExecutor executor;
+  private final EventPayloadParser payloadParser;
+
+  /**
+   * @param maxConcurrency     maximum number of events of different objects applied at the
+   *                           same time, the events of the same object are applied one after
+   *                           another
+   * @param relevantProperties top level properties of the object the handler reads, the others
+   *                           are skipped when the event is parsed
+   */
+  protected UpdateEventAbstractHandler(InventoryEventType supportedEventType,
+    int maxConcurrency, Set<String> relevantProperties) {
 
-  protected UpdateEventAbstractHandler(InventoryEventType supportedEventType) {
     this.supportedEventType = supportedEventType;
+    this.executor = new KeyedExecutor(maxConcurrency);
+
+    Set<String> parsedProperties = new HashSet<>(relevantProperties);
+    parsedProperties.add(ID_KEY);
+    this.payloadParser = new EventPayloadParser(parsedProperties);
   }
 
   @Override
@@ -34,45 +57,80 @@ public abstract class UpdateEventAbstractHandler<T> implements AsyncRecordHandle
     final String eventKey = event.key();
     log.info("handle:: received event {}", eventKey);
 
-    return processEvent(event)
-      .onSuccess(r -> log.info("handle:: event {} processed successfully", eventKey))
+    return processEvent(event.value(), getKafkaHeaders(event))
+      .onSuccess(updated -> log.info("handle:: event {} processed successfully, {} records updated",
+        eventKey, updated))
       .onFailure(t -> log.error("handle:: failed to process event", t))
       .map(eventKey);
   }
 
-  protected Future<List<T>> processEvent(KafkaConsumerRecord<String, String> event) {
-    JsonObject payload = new JsonObject(event.value());
-
-    String eventType = payload.getString("type");
-    if (!supportedEventType.getPayloadType().name().equals(eventType)) {
-      log.info("processEvent:: unsupported event type: {}", eventType);
-      return succeededFuture();
+  /**
+   * Applies the relevant changes of the event.
+   *
+   * @param eventPayload value of the Kafka record
+   * @param okapiHeaders headers of the Kafka record, the tenant header selects the tenant
+   * @return number of updated records
+   */
+  public Future<Integer> processEvent(String eventPayload, Map<String, String> okapiHeaders) {
+    JsonObject payload;
+    try {
+      payload = getSupportedPayload(eventPayload);
+    } catch (Exception e) {
+      return failedFuture(e);
+    }
+    if (payload == null) {
+      return succeededFuture(0);
     }
 
     JsonObject oldObject = payload.getJsonObject("old");
     JsonObject newObject = payload.getJsonObject("new");
 
-    if (oldObject == null || newObject == null) {
-      log.warn("processEvent:: failed to find old and/or new item version");
-      return succeededFuture();
-    }
-
     List<Change<T>> relevantChanges = collectRelevantChanges(oldObject, newObject);
 
     if (relevantChanges.isEmpty()) {
       log.info("processEvent:: no relevant changes detected");
-      return succeededFuture();
+      return succeededFuture(0);
     }
 
+    // the changes of an object must be applied in the order of its events, otherwise a stale
+    // version could overwrite a newer one
     log.info("processEvent:: {} relevant changes detected, applying", relevantChanges::size);
-    return applyChanges(relevantChanges, event, oldObject, newObject);
+    return executor.execute(oldObject.getString(ID_KEY),
+      () -> applyChanges(relevantChanges, okapiHeaders, oldObject, newObject));
+  }
+
+  /**
+   * Returns the payload of the event when it is of the supported type and contains both the
+   * old and the new version of the object, null otherwise. The old and the new version contain
+   * only the ID and the relevant properties of the object.
+   */
+  protected JsonObject getSupportedPayload(String eventPayload) {
+    JsonObject payload = payloadParser.parse(eventPayload);
+
+    String eventType = payload.getString("type");
+    if (!supportedEventType.getPayloadType().name().equals(eventType)) {
+      log.info("getSupportedPayload:: unsupported event type: {}", eventType);
+      return null;
+    }
+
+    if (payload.getJsonObject("old") == null || payload.getJsonObject("new") == null) {
+      log.warn("getSupportedPayload:: failed to find old and/or new item version");
+      return null;
+    }
+
+    return payload;
   }
 
   protected abstract List<Change<T>> collectRelevantChanges(JsonObject oldObject,
     JsonObject newObject);
 
-  protected abstract Future<List<T>> applyChanges(List<Change<T>> changes,
-    KafkaConsumerRecord<String, String> event, JsonObject oldObject, JsonObject newObject);
+  /**
+   * Applies the changes to the affected records.
+   *
+   * @return number of updated records
+   */
+  protected abstract Future<Integer> applyChanges(List<Change<T>> changes,
+    Map<String, String> okapiHeaders, JsonObject oldObject, JsonObject newObject);
 
   protected CaseInsensitiveMap<String, String> getKafkaHeaders(
     KafkaConsumerRecord<String, String> event) {
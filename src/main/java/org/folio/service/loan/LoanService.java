@@ -16,6 +16,7 @@ import java.util.ArrayList;
 import java.util.Map;
 import java.util.Objects;
 import java.util.StringJoiner;
+import java.util.UUID;
 import java.util.function.Function;
 
 import javax.validation.constraints.NotNull;
@@ -26,7 +27,6 @@ import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.folio.persist.LoanRepository;
-import org.folio.rest.impl.util.OkapiResponseUtil;
 import org.folio.rest.jaxrs.model.Error;
 import org.folio.rest.jaxrs.model.Errors;
 import org.folio.rest.jaxrs.model.Loan;
@@ -35,6 +35,7 @@ import org.folio.rest.jaxrs.model.LoansHistoryItem;
 import org.folio.rest.jaxrs.model.LoansHistoryItems;
 import org.folio.rest.jaxrs.model.Status;
 import org.folio.rest.jaxrs.resource.LoanStorage;
+import org.folio.rest.persist.PgExceptionUtil;
 import org.folio.rest.persist.PgUtil;
 import org.folio.rest.persist.PostgresClient;
 import org.folio.rest.tools.utils.ValidationHelper;
@@ -47,7 +48,6 @@ import org.folio.support.UUIDValidation;
 import org.folio.support.VertxContextRunner;
 import org.joda.time.DateTime;
 
-import io.vertx.core.AsyncResult;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
@@ -56,6 +56,8 @@ public class LoanService {
 
   private static final Logger log = LogManager.getLogger(LoanService.class);
 
+  private static final String LOANS_COLLECTION = "loans";
+
   private final Context vertxContext;
   private final Map<String, String> okapiHeaders;
   private final PostgresClient postgresClient;
@@ -74,13 +76,21 @@ public class LoanService {
   }
 
   public Future<Response> findByQuery(String query, int offset, int limit) {
+    // large pages, e.g. of reports, are read through a cursor instead of being collected first
+    if (helper.isStreamed(limit)) {
+      return helper.getStreamed(LOANS_COLLECTION, query, offset, limit);
+    }
+
     return PgUtil.get(LOAN_TABLE, LOAN_CLASS, Loans.class, query, offset, limit, okapiHeaders, vertxContext,
         LoanStorage.GetLoanStorageLoansResponse.class);
   }
 
   public Future<Response> findById(String loanId) {
-    return PgUtil.getById(LOAN_TABLE, LOAN_CLASS, loanId, okapiHeaders, vertxContext,
-        LoanStorage.GetLoanStorageLoansByLoanIdResponse.class);
+    // the loan is returned as stored, it is not mapped to a Loan and serialized again
+    return UUIDValidation.isValidUUID(loanId)
+        ? helper.getJsonById(loanId)
+        : PgUtil.getById(LOAN_TABLE, LOAN_CLASS, loanId, okapiHeaders, vertxContext,
+            LoanStorage.GetLoanStorageLoansByLoanIdResponse.class);
   }
 
   public Future<Response> create(Loan loan) {
@@ -102,20 +112,21 @@ public class LoanService {
           .respond400WithTextPlain(validationResult.getRight()));
     }
 
-    Promise<Response> createResult = Promise.promise();
-
-    PgUtil.post(LOAN_TABLE, loan, okapiHeaders, vertxContext,
-        LoanStorage.PostLoanStorageLoansResponse.class, reply -> {
-          if (isMultipleOpenLoanError(reply)) {
-            createResult.complete(LoanStorage.PostLoanStorageLoansResponse
-                .respond422WithApplicationJson(moreThanOneOpenLoanError(loan)));
-          } else {
-            createResult.handle(reply);
-          }
-        });
+    if (loan.getId() == null) {
+      loan.setId(UUID.randomUUID().toString());
+    }
 
-    return createResult.future()
-        .compose(eventPublisher.publishCreated());
+    return helper.createAndPublishEvent(loan.getId(), loan)
+        .<Response>map(createdLoan -> LoanStorage.PostLoanStorageLoansResponse
+            .respond201WithApplicationJson(createdLoan,
+                LoanStorage.PostLoanStorageLoansResponse.headersFor201()
+                    .withLocation(createdLoan.getId())))
+        .otherwise(err -> isMultipleOpenLoanError(err)
+            ? LoanStorage.PostLoanStorageLoansResponse
+                .respond422WithApplicationJson(moreThanOneOpenLoanError(loan))
+            : ResponseUtil.failedSaveResponse(err,
+                LoanStorage.PostLoanStorageLoansResponse::respond400WithTextPlain,
+                LoanStorage.PostLoanStorageLoansResponse::respond500WithTextPlain));
   }
 
   public Future<Response> createOrUpdate(String loanId, Loan loan) {
@@ -146,33 +157,21 @@ public class LoanService {
   }
 
   public Future<Response> delete(String loanId) {
-    return repository.getById(loanId)
-        .compose(loan -> {
-          final Promise<Response> deleteResult = promise();
+    if (UUIDValidation.isValidUUID(loanId)) {
+      return helper.deleteAndPublishEvent(loanId);
+    }
 
-          PgUtil.deleteById(LOAN_TABLE, loanId, okapiHeaders, vertxContext,
-              LoanStorage.DeleteLoanStorageLoansByLoanIdResponse.class, deleteResult);
+    // an ID which is not a UUID deletes nothing, PgUtil responds to it as before
+    final Promise<Response> deleteResult = promise();
 
-          return deleteResult.future()
-              .compose(eventPublisher.publishRemoved(loan));
-        });
+    PgUtil.deleteById(LOAN_TABLE, loanId, okapiHeaders, vertxContext,
+        LoanStorage.DeleteLoanStorageLoansByLoanIdResponse.class, deleteResult);
+
+    return deleteResult.future();
   }
 
   public Future<Response> deleteAll() {
-    Promise<Response> deleteAllResult = Promise.promise();
-
-    try {
-      postgresClient.execute(String.format("TRUNCATE TABLE %s_%s.loan", tenantId(okapiHeaders), MODULE_NAME),
-          result -> deleteAllResult.complete(result.succeeded()
-              ? LoanStorage.DeleteLoanStorageLoansResponse.respond204()
-              : LoanStorage.DeleteLoanStorageLoansResponse.respond500WithTextPlain(result.cause().getMessage())));
-    } catch (Exception e) {
-      deleteAllResult.complete(LoanStorage.DeleteLoanStorageLoansResponse
-          .respond500WithTextPlain(e.getMessage()));
-    }
-
-    return deleteAllResult.future()
-        .compose(eventPublisher.publishAllRemoved());
+    return helper.deleteAllAndPublishEvent();
   }
 
   public Future<Response> getLoanHistory(String query, int offset, int limit) {
@@ -250,9 +249,8 @@ public class LoanService {
     return new ImmutablePair<>(valid, messages.toString());
   }
 
-  private boolean isMultipleOpenLoanError(AsyncResult<Response> reply) {
-    return OkapiResponseUtil.containsErrorMessage(
-        reply, "value already exists in table loan: ");
+  private boolean isMultipleOpenLoanError(Throwable error) {
+    return PgExceptionUtil.isUniqueViolation(error);
   }
 
   private Function<Response, Response> checkForMultipleOpenLoanError(Loan loan) {
@@ -7,7 +7,6 @@ import static java.lang.String.join;
 import static java.lang.System.currentTimeMillis;
 import static java.lang.System.lineSeparator;
 import static java.util.stream.Collectors.toList;
-import static java.util.stream.IntStream.range;
 import static org.apache.commons.lang3.time.DurationFormatUtils.formatDurationHMS;
 import static org.folio.rest.persist.PostgresClient.convertToPsqlStandard;
 import static org.folio.rest.tools.utils.TenantTool.tenantId;
@@ -16,53 +15,66 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 import java.util.stream.StreamSupport;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.folio.okapi.common.ModuleId;
 import org.folio.okapi.common.SemVer;
-import org.folio.rest.client.OkapiClient;
+import org.folio.rest.client.CachingOkapiClient;
+import org.folio.rest.configuration.RequestMigrationConfiguration;
 import org.folio.rest.jaxrs.model.TenantAttributes;
 import org.folio.rest.persist.Conn;
 import org.folio.rest.persist.PgUtil;
 import org.folio.rest.persist.PostgresClient;
 
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowIterator;
 import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
 
 abstract class AbstractRequestMigrationService<T extends RequestMigrationContext> {
   public static final Logger log = LogManager.getLogger(AbstractRequestMigrationService.class);
 
-  // safe number of UUIDs which fits into Okapi's URL length limit (4096 characters)
-  public static final int BATCH_SIZE = 80;
+  private static final String CHECKPOINT_TABLE = "request_migration_checkpoint";
+  private static final String GET_CHECKPOINT_SQL = "SELECT last_request_id, migrated_requests " +
+    "FROM %s.%s WHERE migration_name = $1";
+  private static final String SAVE_CHECKPOINT_SQL = "INSERT INTO %s.%s " +
+    "(migration_name, last_request_id, migrated_requests) VALUES ($1, $2, $3) " +
+    "ON CONFLICT (migration_name) DO UPDATE SET last_request_id = EXCLUDED.last_request_id, " +
+    "migrated_requests = EXCLUDED.migrated_requests, updated_date = now()";
+  private static final String DELETE_CHECKPOINT_SQL = "DELETE FROM %s.%s WHERE migration_name = $1";
 
   public final TenantAttributes attributes;
-  public final OkapiClient okapiClient;
+  public final CachingOkapiClient okapiClient;
   public final PostgresClient postgresClient;
   public final String schemaName;
   public final List<String> errorMessages;
   public final String tableName;
   public final String moduleVersion;
   private final String migrationName;
+  private final RequestMigrationConfiguration configuration;
 
   protected AbstractRequestMigrationService(TenantAttributes attributes, Context context,
     Map<String, String> okapiHeaders, String tableName, String moduleVersion,
-    String migrationName) {
+    String migrationName, RequestMigrationConfiguration configuration) {
 
     this.attributes = attributes;
-    okapiClient = new OkapiClient(context.owner(), okapiHeaders);
+    okapiClient = new CachingOkapiClient(context.owner(), okapiHeaders,
+      configuration.getLookupCacheSize());
     postgresClient = PgUtil.postgresClient(context, okapiHeaders);
     schemaName = convertToPsqlStandard(tenantId(okapiHeaders));
     errorMessages = new ArrayList<>();
     this.tableName = tableName;
     this.moduleVersion = moduleVersion;
     this.migrationName = migrationName;
+    this.configuration = configuration;
   }
 
   public Future<Void> migrate() {
@@ -74,14 +86,16 @@ abstract class AbstractRequestMigrationService<T extends RequestMigrationContext
       return succeededFuture();
     }
 
-    log.info("migrate:: {} started, batch size is {}", migrationName, BATCH_SIZE);
+    log.info("migrate:: {} started, {}", migrationName, configuration);
 
-    return getBatchCount()
+    return getCheckpoint()
       .compose(this::migrateRequests)
+      .compose(r -> deleteCheckpoint())
       .onSuccess(r -> log.info("migrate:: {} finished successfully", migrationName))
-      .onFailure(r -> log.error("migrate:: {} failed, rolling back the changes: {}", migrationName,
-        errorMessages))
-      .onComplete(r -> logDuration(startTime));
+      .onFailure(r -> log.error("migrate:: {} failed, rolling back the changes since the last " +
+        "checkpoint: {}", migrationName, errorMessages))
+      .onComplete(r -> logDuration(startTime))
+      .onComplete(r -> logLookupCacheStatistics());
   }
 
   public boolean shouldMigrate(String moduleVersion) {
@@ -118,16 +132,157 @@ abstract class AbstractRequestMigrationService<T extends RequestMigrationContext
     return true;
   }
 
-  public Future<Integer> getBatchCount() {
-    return postgresClient.select(format("SELECT COUNT(*) FROM %s.%s", schemaName, tableName))
-      .compose(this::getBatchCount);
+  /**
+   * Migrates the requests in chunks, each chunk in its own transaction together with
+   * the checkpoint, until there are no requests left.
+   */
+  public Future<Void> migrateRequests(MigrationCheckpoint checkpoint) {
+    log.info("migrateRequests:: {}, starting a chunk after {} migrated requests", migrationName,
+      checkpoint.getMigratedRequests());
+
+    return postgresClient.withTrans(conn -> migrateChunk(conn, checkpoint)
+        .compose(newCheckpoint -> saveCheckpoint(conn, newCheckpoint)))
+      .compose(newCheckpoint -> newCheckpoint.isFinished()
+        ? succeededFuture()
+        : migrateRequests(newCheckpoint));
   }
 
-  public Future<Void> migrateRequests(int batchCount) {
-    return postgresClient.withTrans(conn ->
-      chainFutures(buildBatches(batchCount, conn), this::processBatch)
-        .compose(r -> failIfErrorsOccurred())
-    );
+  /**
+   * Migrates the batches of a chunk as a pipeline: the requests of a batch are fetched as soon
+   * as the previous batch is fetched, the related records of up to
+   * {@link RequestMigrationConfiguration#getPrefetchBatches()} next batches are fetched from
+   * other modules while the current batch is being updated, and the batches are updated one
+   * after another in the order of their request IDs. Errors are collected by
+   * {@link #handleError(Batch, Throwable)}, so the returned future completes only after all
+   * the batches of the chunk are settled and nothing is executed on the connection after it.
+   */
+  private Future<MigrationCheckpoint> migrateChunk(Conn conn, MigrationCheckpoint checkpoint) {
+    int batchSize = configuration.getBatchSize();
+    int numberOfBatches = (configuration.getChunkSize() + batchSize - 1) / batchSize;
+    int firstBatchNumber = checkpoint.getMigratedRequests() / batchSize;
+
+    List<Future<Batch<T>>> updatedBatches = new ArrayList<>();
+    Future<Batch<T>> fetched = fetchBatch(new Batch<>(firstBatchNumber, conn,
+      checkpoint.getLastRequestId()));
+    Future<Batch<T>> updated = succeededFuture();
+
+    for (int i = 0; i < numberOfBatches; i++) {
+      if (i > 0) {
+        int batchNumber = firstBatchNumber + i;
+        fetched = fetched.compose(previousBatch -> fetchNextBatch(conn, previousBatch,
+          batchNumber));
+      }
+
+      int waitForBatch = i - configuration.getPrefetchBatches() - 1;
+      Future<Batch<T>> prefetchAllowed = waitForBatch < 0
+        ? succeededFuture()
+        : updatedBatches.get(waitForBatch);
+
+      Future<Batch<T>> fetchedBatch = fetched;
+      Future<Batch<T>> preparedBatch = CompositeFuture.all(fetchedBatch, prefetchAllowed)
+        .compose(r -> prepareBatch(fetchedBatch.result()));
+
+      Future<Batch<T>> previousUpdate = updated;
+      updated = CompositeFuture.all(preparedBatch, previousUpdate)
+        .compose(r -> updateBatch(preparedBatch.result()));
+      updatedBatches.add(updated);
+    }
+
+    return updated
+      .compose(r -> failIfErrorsOccurred())
+      .map(r -> {
+        MigrationCheckpoint newCheckpoint = checkpoint;
+        for (Future<Batch<T>> updatedBatch : updatedBatches) {
+          if (updatedBatch.result() != null) {
+            newCheckpoint = newCheckpoint.next(updatedBatch.result(), batchSize);
+          }
+        }
+        return newCheckpoint;
+      });
+  }
+
+  /**
+   * Fetches the requests following the previous batch, resolves to null when there are no
+   * more requests or when a previous batch has failed.
+   */
+  private Future<Batch<T>> fetchNextBatch(Conn conn, Batch<T> previousBatch, int batchNumber) {
+    if (previousBatch == null || !errorMessages.isEmpty()) {
+      return succeededFuture();
+    }
+
+    List<T> previousRequests = previousBatch.getRequestMigrationContexts();
+    if (previousRequests.size() < configuration.getBatchSize()) {
+      return succeededFuture();
+    }
+
+    return fetchBatch(new Batch<>(batchNumber, conn,
+      previousRequests.get(previousRequests.size() - 1).getRequestId()));
+  }
+
+  private Future<Batch<T>> fetchBatch(Batch<T> batch) {
+    return fetchRequests(batch)
+      .recover(t -> handleError(batch, t).mapEmpty());
+  }
+
+  private Future<Batch<T>> prepareBatch(Batch<T> batch) {
+    if (batch == null || !errorMessages.isEmpty()) {
+      return succeededFuture(batch);
+    }
+
+    log.info("prepareBatch:: {}, {} processing started", migrationName, batch);
+
+    return succeededFuture(batch)
+      .compose(this::validateRequests)
+      .compose(this::fetchRelatedRecords)
+      .onSuccess(this::buildNewRequests)
+      .recover(t -> handleError(batch, t).map(batch));
+  }
+
+  private Future<Batch<T>> updateBatch(Batch<T> batch) {
+    if (batch == null) {
+      return succeededFuture();
+    }
+
+    return updateRequests(batch)
+      .onSuccess(r -> log.info("updateBatch:: {}, {} processing finished", migrationName, batch))
+      .recover(t -> handleError(batch, t))
+      .map(batch);
+  }
+
+  private Future<MigrationCheckpoint> getCheckpoint() {
+    return postgresClient.select(format(GET_CHECKPOINT_SQL, schemaName, CHECKPOINT_TABLE),
+        Tuple.of(migrationName))
+      .map(rowSet -> {
+        RowIterator<Row> iterator = rowSet.iterator();
+        if (!iterator.hasNext()) {
+          return MigrationCheckpoint.START;
+        }
+
+        Row row = iterator.next();
+        MigrationCheckpoint checkpoint = new MigrationCheckpoint(
+          row.getUUID("last_request_id").toString(), row.getInteger("migrated_requests"), false);
+        log.info("getCheckpoint:: {} is resumed after {} migrated requests, last request is {}",
+          migrationName, checkpoint.getMigratedRequests(), checkpoint.getLastRequestId());
+
+        return checkpoint;
+      });
+  }
+
+  private Future<MigrationCheckpoint> saveCheckpoint(Conn conn, MigrationCheckpoint checkpoint) {
+    if (checkpoint.getLastRequestId() == null) {
+      return succeededFuture(checkpoint);
+    }
+
+    return conn.execute(format(SAVE_CHECKPOINT_SQL, schemaName, CHECKPOINT_TABLE),
+        Tuple.of(migrationName, UUID.fromString(checkpoint.getLastRequestId()),
+          checkpoint.getMigratedRequests()))
+      .map(checkpoint);
+  }
+
+  private Future<Void> deleteCheckpoint() {
+    return postgresClient.execute(format(DELETE_CHECKPOINT_SQL, schemaName, CHECKPOINT_TABLE),
+        Tuple.of(migrationName))
+      .mapEmpty();
   }
 
   public Future<Void> updateRequests(Batch<T> batch) {
@@ -144,6 +299,10 @@ abstract class AbstractRequestMigrationService<T extends RequestMigrationContext
       .map(T::getNewRequest)
       .collect(toList());
 
+    if (migratedRequests.isEmpty()) {
+      return succeededFuture();
+    }
+
     return batch.getConnection()
       .updateBatch(tableName, new JsonArray(migratedRequests))
       .onSuccess(r -> log.info("updateRequests:: {}, all requests from {} were successfully " +
@@ -161,8 +320,14 @@ abstract class AbstractRequestMigrationService<T extends RequestMigrationContext
   public Future<Batch<T>> fetchRequests(Batch<T> batch) {
     log.debug("fetchRequests:: {}, batch: {}", migrationName, batch);
 
-    return postgresClient.select(format("SELECT jsonb FROM %s.%s ORDER BY id LIMIT %d OFFSET %d",
-        schemaName, tableName, BATCH_SIZE, batch.getBatchNumber() * BATCH_SIZE))
+    Future<RowSet<Row>> requests = batch.getPreviousRequestId() == null
+      ? batch.getConnection().execute(format("SELECT jsonb FROM %s.%s ORDER BY id LIMIT %d",
+          schemaName, tableName, configuration.getBatchSize()))
+      : batch.getConnection().execute(format("SELECT jsonb FROM %s.%s WHERE id > $1 " +
+          "ORDER BY id LIMIT %d", schemaName, tableName, configuration.getBatchSize()),
+          Tuple.of(UUID.fromString(batch.getPreviousRequestId())));
+
+    return requests
       .onSuccess(r -> log.info("fetchRequests:: {}, {} {} requests fetched", migrationName, batch,
         r.size()))
       .map(this::rowSetToRequestContexts)
@@ -193,7 +358,10 @@ abstract class AbstractRequestMigrationService<T extends RequestMigrationContext
       : failedFuture(join(lineSeparator(), errors));
   }
 
-  abstract Future<Void> processBatch(Batch<T> batch);
+  /**
+   * Fetches the records of other modules needed to build the new requests of the batch.
+   */
+  abstract Future<Batch<T>> fetchRelatedRecords(Batch<T> batch);
 
   Collection<String> validateRequest(T context) {
     return List.of();
@@ -204,10 +372,10 @@ abstract class AbstractRequestMigrationService<T extends RequestMigrationContext
     log.info("logDuration:: {} finished in {}", migrationName, duration);
   }
 
-  public static <T> Future<Void> chainFutures(Collection<T> list, Function<T, Future<Void>> method) {
-    return list.stream().reduce(succeededFuture(),
-      (acc, item) -> acc.compose(v -> method.apply(item)),
-      (a, b) -> succeededFuture());
+  private void logLookupCacheStatistics() {
+    log.info("logLookupCacheStatistics:: {}, lookup cache hits: {}, misses: {}, hit ratio: {}",
+      migrationName, okapiClient.getHits(), okapiClient.getMisses(),
+      format("%.2f", okapiClient.getHitRatio()));
   }
 
   public Future<Void> handleError(Batch<T> batch, Throwable throwable) {
@@ -223,29 +391,6 @@ abstract class AbstractRequestMigrationService<T extends RequestMigrationContext
       : failedFuture(join(", ", errorMessages));
   }
 
-  private Collection<Batch<T>> buildBatches(int numberOfBatches, Conn connection) {
-    log.debug("buildBatches:: {}, numberOfBatches: {}", migrationName, numberOfBatches);
-
-    return range(0, numberOfBatches)
-      .boxed()
-      .map(num -> new Batch<T>(num, connection))
-      .collect(toList());
-  }
-
-  private Future<Integer> getBatchCount(RowSet<Row> result) {
-    log.debug("getBatchCount:: {}, result.size: {}", migrationName, result.size());
-
-    if (!result.iterator().hasNext()) {
-      return failedFuture("failed to get total number of requests");
-    }
-
-    Integer requestsCount = result.iterator().next().get(Integer.class, 0);
-    int batchesCount = requestsCount / BATCH_SIZE + (requestsCount % BATCH_SIZE == 0 ? 0 : 1);
-    log.info("getBatchCount:: found {} requests ({} batches)", requestsCount, batchesCount);
-
-    return succeededFuture(batchesCount);
-  }
-
   private static SemVer moduleVersionToSemVer(String version) {
     try {
       return new SemVer(version);
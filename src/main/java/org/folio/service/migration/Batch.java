@@ -17,6 +17,8 @@ import lombok.Setter;
 public class Batch<T extends RequestMigrationContext> {
   private final int batchNumber;
   private final Conn connection;
+  // requests with greater IDs belong to this batch, null for the first batch
+  private final String previousRequestId;
   private List<T> requestMigrationContexts = new ArrayList<>();
 
   @Override
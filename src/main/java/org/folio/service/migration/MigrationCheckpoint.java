@@ -0,0 +1,28 @@
+package org.folio.service.migration;
+
+import lombok.Value;
+
+/**
+ * Position of a request migration: requests are migrated in the order of their IDs, so all
+ * requests up to and including {@code lastRequestId} are migrated.
+ */
+@Value
+public class MigrationCheckpoint {
+  public static final MigrationCheckpoint START = new MigrationCheckpoint(null, 0, false);
+
+  // null when no request is migrated yet
+  String lastRequestId;
+  int migratedRequests;
+  // true when there are no requests after lastRequestId
+  boolean finished;
+
+  public MigrationCheckpoint next(Batch<?> batch, int batchSize) {
+    int batchRequests = batch.getRequestMigrationContexts().size();
+    String newLastRequestId = batchRequests == 0
+      ? lastRequestId
+      : batch.getRequestMigrationContexts().get(batchRequests - 1).getRequestId();
+
+    return new MigrationCheckpoint(newLastRequestId, migratedRequests + batchRequests,
+      batchRequests < batchSize);
+  }
+}
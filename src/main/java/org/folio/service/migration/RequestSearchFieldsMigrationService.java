@@ -12,11 +12,13 @@ import java.util.Set;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.folio.rest.configuration.RequestMigrationConfiguration;
 import org.folio.rest.jaxrs.model.TenantAttributes;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.json.JsonObject;
@@ -37,21 +39,22 @@ public class RequestSearchFieldsMigrationService
   public RequestSearchFieldsMigrationService(TenantAttributes attributes, Context context,
     Map<String, String> okapiHeaders) {
 
+    this(attributes, context, okapiHeaders, RequestMigrationConfiguration.fromEnvironment());
+  }
+
+  public RequestSearchFieldsMigrationService(TenantAttributes attributes, Context context,
+    Map<String, String> okapiHeaders, RequestMigrationConfiguration configuration) {
+
     super(attributes, context, okapiHeaders, REQUEST_TABLE, MIGRATION_MODULE_VERSION,
-      MIGRATION_NAME);
+      MIGRATION_NAME, configuration);
   }
 
-  public Future<Void> processBatch(Batch<RequestSearchMigrationContext> batch) {
-    log.info("processBatch:: {} processing started", batch);
-
-    return succeededFuture(batch)
-      .compose(this::fetchRequests)
-      .compose(this::findServicePointNames)
-      .compose(this::findCallNumbers)
-      .onSuccess(this::buildNewRequests)
-      .compose(this::updateRequests)
-      .onSuccess(r -> log.info("{} processing finished successfully", batch))
-      .recover(t -> handleError(batch, t));
+  @Override
+  Future<Batch<RequestSearchMigrationContext>> fetchRelatedRecords(
+    Batch<RequestSearchMigrationContext> batch) {
+
+    return CompositeFuture.all(findServicePointNames(batch), findCallNumbers(batch))
+      .map(batch);
   }
 
   @Override
@@ -14,6 +14,7 @@ import java.util.Set;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.folio.rest.configuration.RequestMigrationConfiguration;
 import org.folio.rest.jaxrs.model.TenantAttributes;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -50,22 +51,21 @@ public class TlrDataMigrationService extends AbstractRequestMigrationService<Tlr
 
   public TlrDataMigrationService(TenantAttributes attributes, Context context,
     Map<String, String> okapiHeaders) {
-      super(attributes, context, okapiHeaders, REQUEST_TABLE, TLR_MIGRATION_MODULE_VERSION,
-        MIGRATION_NAME);
-    }
 
-  public Future<Void> processBatch(Batch<TlrMigrationContext> batch) {
-    log.info("{} processing started", batch);
-
-    return succeededFuture(batch)
-      .compose(this::fetchRequests)
-      .compose(this::validateRequests)
-      .compose(this::findHoldingsRecordIds)
-      .compose(this::findInstanceIds)
-      .onSuccess(this::buildNewRequests)
-      .compose(this::updateRequests)
-      .onSuccess(r -> log.info("{} processing finished successfully", batch))
-      .recover(t -> handleError(batch, t));
+    this(attributes, context, okapiHeaders, RequestMigrationConfiguration.fromEnvironment());
+  }
+
+  public TlrDataMigrationService(TenantAttributes attributes, Context context,
+    Map<String, String> okapiHeaders, RequestMigrationConfiguration configuration) {
+
+    super(attributes, context, okapiHeaders, REQUEST_TABLE, TLR_MIGRATION_MODULE_VERSION,
+      MIGRATION_NAME, configuration);
+  }
+
+  @Override
+  Future<Batch<TlrMigrationContext>> fetchRelatedRecords(Batch<TlrMigrationContext> batch) {
+    return findHoldingsRecordIds(batch)
+      .compose(this::findInstanceIds);
   }
 
   @Override
@@ -0,0 +1,11 @@
+package org.folio.service.policy;
+
+import lombok.Value;
+
+@Value
+public class CachedPolicy<T> {
+  // the policy as stored, returned to clients without being serialized again
+  String json;
+  T policy;
+  long loadedAtMillis;
+}
@@ -0,0 +1,294 @@
+package org.folio.service.policy;
+
+import static io.vertx.core.Future.succeededFuture;
+import static java.lang.String.format;
+import static org.apache.logging.log4j.LogManager.getLogger;
+import static org.folio.rest.persist.PostgresClient.convertToPsqlStandard;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.configuration.PolicyCacheConfiguration;
+import org.folio.rest.jaxrs.model.LoanPolicy;
+import org.folio.rest.jaxrs.model.PatronNoticePolicy;
+import org.folio.rest.jaxrs.model.RequestPolicy;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.service.rules.PolicyType;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Tuple;
+
+/**
+ * Policies of a type read by ID, kept in memory because mod-circulation reads the same few
+ * policies on every loan and request. Every tenant has at most {@code maxSize} policies of a type
+ * cached, the least recently read policy is evicted first, and a policy is read again from the
+ * database once it has been cached for {@code ttlSeconds}.
+ * <p>
+ * A policy is invalidated when it is changed: by the module instance which changed it right
+ * away, and by the other instances when they receive the {@link #CHANGE_CHANNEL} notification of
+ * Postgres. Like the circulation rules, the policies are cached only while the notifications are
+ * received, see {@link #setNotificationsReceived(boolean)}.
+ * <p>
+ * Thread safe, the caches are shared by all verticles of the module instance.
+ */
+public final class PolicyCache<T> {
+
+  private static final Logger log = getLogger(PolicyCache.class);
+
+  public static final String CHANGE_CHANNEL = "mod_circulation_storage_policy_changed";
+
+  private static final String SELECT_POLICY_SQL = "SELECT jsonb::text FROM %s.%s WHERE id = $1";
+  private static final String NOTIFY_SQL = "SELECT pg_notify($1, $2)";
+  private static final String TENANT_ID_KEY = "tenantId";
+  private static final String POLICY_TYPE_KEY = "policyType";
+  private static final String POLICY_ID_KEY = "policyId";
+
+  private static final PolicyCacheConfiguration CONFIGURATION =
+    PolicyCacheConfiguration.fromEnvironment();
+  private static final Map<PolicyType, PolicyCache<?>> CACHES = new EnumMap<>(PolicyType.class);
+
+  private static final PolicyCache<LoanPolicy> LOAN_POLICIES = register(new PolicyCache<>(
+    PolicyType.LOAN, "loan_policy", LoanPolicy.class, CONFIGURATION));
+  private static final PolicyCache<RequestPolicy> REQUEST_POLICIES = register(new PolicyCache<>(
+    PolicyType.REQUEST, "request_policy", RequestPolicy.class, CONFIGURATION));
+  private static final PolicyCache<PatronNoticePolicy> NOTICE_POLICIES = register(
+    new PolicyCache<>(PolicyType.NOTICE, "patron_notice_policy", PatronNoticePolicy.class,
+      CONFIGURATION));
+
+  private static volatile boolean notificationsReceived;
+
+  private final PolicyType policyType;
+  private final String table;
+  private final Class<T> policyClass;
+  private final int maxSize;
+  private final long ttlMillis;
+  private final Map<String, TenantPolicies<T>> policiesByTenant = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  PolicyCache(PolicyType policyType, String table, Class<T> policyClass,
+    PolicyCacheConfiguration configuration) {
+
+    this.policyType = policyType;
+    this.table = table;
+    this.policyClass = policyClass;
+    this.maxSize = configuration.getMaxSize();
+    this.ttlMillis = configuration.getTtlSeconds() * 1000L;
+  }
+
+  public static PolicyCache<LoanPolicy> loanPolicies() {
+    return LOAN_POLICIES;
+  }
+
+  public static PolicyCache<RequestPolicy> requestPolicies() {
+    return REQUEST_POLICIES;
+  }
+
+  public static PolicyCache<PatronNoticePolicy> noticePolicies() {
+    return NOTICE_POLICIES;
+  }
+
+  public static Iterable<PolicyCache<?>> all() {
+    return CACHES.values();
+  }
+
+  public static PolicyCacheConfiguration getConfiguration() {
+    return CONFIGURATION;
+  }
+
+  /**
+   * Enables the caches while the change notifications are received, the policies cached before
+   * are dropped either way because a change could have been missed.
+   */
+  public static void setNotificationsReceived(boolean notificationsReceived) {
+    log.info("setNotificationsReceived:: policy caches {}",
+      notificationsReceived ? "enabled" : "disabled");
+
+    PolicyCache.notificationsReceived = notificationsReceived;
+    CACHES.values().forEach(PolicyCache::invalidateAll);
+  }
+
+  /**
+   * Invalidates the policy the notification of another module instance is about.
+   */
+  public static void handleNotification(String payload) {
+    try {
+      JsonObject notification = new JsonObject(payload);
+      PolicyCache<?> cache = CACHES.get(PolicyType.valueOf(
+        notification.getString(POLICY_TYPE_KEY)));
+
+      cache.invalidate(notification.getString(TENANT_ID_KEY),
+        notification.getString(POLICY_ID_KEY));
+    } catch (DecodeException | IllegalArgumentException | NullPointerException e) {
+      log.warn("handleNotification:: invalid policy change notification: {}", payload, e);
+    }
+  }
+
+  /**
+   * Returns the policy, or null when there is no policy with the ID.
+   */
+  public Future<CachedPolicy<T>> get(PostgresClient postgresClient, String policyId) {
+    if (!isEnabled()) {
+      return load(postgresClient, policyId);
+    }
+
+    TenantPolicies<T> policies = policiesByTenant.computeIfAbsent(
+      postgresClient.getTenantId(), tenantId -> new TenantPolicies<>(maxSize));
+    String key = toKey(policyId);
+    CachedPolicy<T> cachedPolicy = policies.get(key, System.currentTimeMillis() - ttlMillis);
+
+    if (cachedPolicy != null) {
+      hits.increment();
+      return succeededFuture(cachedPolicy);
+    }
+
+    misses.increment();
+    long generation = policies.getGeneration();
+
+    return load(postgresClient, policyId)
+      .onSuccess(loadedPolicy -> {
+        // a policy missing from the database is not cached, it is likely to be created soon
+        if (loadedPolicy != null) {
+          policies.put(key, loadedPolicy, generation);
+        }
+      });
+  }
+
+  /**
+   * Invalidates the policy in this module instance and notifies the other instances, must be
+   * called once the change of the policy is committed. A null ID invalidates all policies of
+   * the type of the tenant.
+   */
+  public Future<Void> notifyChanged(PostgresClient postgresClient, String policyId) {
+    String tenantId = postgresClient.getTenantId();
+    invalidate(tenantId, policyId);
+
+    String payload = new JsonObject()
+      .put(TENANT_ID_KEY, tenantId)
+      .put(POLICY_TYPE_KEY, policyType.name())
+      .put(POLICY_ID_KEY, policyId)
+      .encode();
+
+    return postgresClient.execute(NOTIFY_SQL, Tuple.of(CHANGE_CHANNEL, payload))
+      .onFailure(t -> log.warn("notifyChanged:: failed to notify change of {} policy {} of " +
+        "tenant {}", policyType, policyId, tenantId, t))
+      .<Void>mapEmpty()
+      .otherwiseEmpty();
+  }
+
+  public void invalidate(String tenantId, String policyId) {
+    log.debug("invalidate:: {} policy {} of tenant {} invalidated", policyType, policyId,
+      tenantId);
+
+    TenantPolicies<T> policies = policiesByTenant.get(tenantId);
+    if (policies != null) {
+      policies.remove(policyId == null ? null : toKey(policyId));
+    }
+  }
+
+  public void invalidateAll() {
+    policiesByTenant.clear();
+  }
+
+  public PolicyType getPolicyType() {
+    return policyType;
+  }
+
+  public String getTable() {
+    return table;
+  }
+
+  public Class<T> getPolicyClass() {
+    return policyClass;
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  private boolean isEnabled() {
+    return notificationsReceived && maxSize > 0 && ttlMillis > 0;
+  }
+
+  private Future<CachedPolicy<T>> load(PostgresClient postgresClient, String policyId) {
+    String sql = format(SELECT_POLICY_SQL, convertToPsqlStandard(postgresClient.getTenantId()),
+      table);
+
+    return postgresClient.execute(sql, Tuple.of(UUID.fromString(policyId)))
+      .map(rows -> rows.size() == 0 ? null : toCachedPolicy(rows.iterator().next().getString(0)));
+  }
+
+  private CachedPolicy<T> toCachedPolicy(String json) {
+    return new CachedPolicy<>(json, new JsonObject(json).mapTo(policyClass),
+      System.currentTimeMillis());
+  }
+
+  private static String toKey(String policyId) {
+    return policyId.toLowerCase(Locale.ROOT);
+  }
+
+  private static <T> PolicyCache<T> register(PolicyCache<T> cache) {
+    CACHES.put(cache.policyType, cache);
+    return cache;
+  }
+
+  /**
+   * Cached policies of a tenant, in the order they were last read in.
+   */
+  private static class TenantPolicies<T> {
+    private final Map<String, CachedPolicy<T>> policies;
+    // incremented on every invalidation, so that a policy loaded before an invalidation is not
+    // cached after it
+    private long generation;
+
+    private TenantPolicies(int maxSize) {
+      policies = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedPolicy<T>> eldest) {
+          return size() > maxSize;
+        }
+      };
+    }
+
+    private synchronized CachedPolicy<T> get(String policyId, long minLoadedAtMillis) {
+      CachedPolicy<T> policy = policies.get(policyId);
+      if (policy != null && policy.getLoadedAtMillis() < minLoadedAtMillis) {
+        policies.remove(policyId);
+        return null;
+      }
+
+      return policy;
+    }
+
+    private synchronized long getGeneration() {
+      return generation;
+    }
+
+    private synchronized void put(String policyId, CachedPolicy<T> policy, long loadGeneration) {
+      if (loadGeneration == generation) {
+        policies.put(policyId, policy);
+      }
+    }
+
+    private synchronized void remove(String policyId) {
+      generation++;
+      if (policyId == null) {
+        policies.clear();
+      } else {
+        policies.remove(policyId);
+      }
+    }
+  }
+}
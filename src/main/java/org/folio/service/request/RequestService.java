@@ -3,14 +3,12 @@ package org.folio.service.request;
 import static io.vertx.core.Future.succeededFuture;
 import static io.vertx.core.Promise.promise;
 import static org.folio.HttpStatus.HTTP_BAD_REQUEST;
-import static org.folio.rest.persist.PgUtil.postgresClient;
-import static org.folio.rest.tools.utils.TenantTool.tenantId;
 import static org.folio.service.event.EntityChangedEventPublisherFactory.requestEventPublisher;
-import static org.folio.support.ModuleConstants.MODULE_NAME;
 import static org.folio.support.ModuleConstants.REQUEST_CLASS;
 import static org.folio.support.ModuleConstants.REQUEST_TABLE;
 
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 import javax.ws.rs.core.Response;
@@ -18,19 +16,17 @@ import javax.ws.rs.core.Response;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.folio.persist.RequestRepository;
-import org.folio.rest.impl.util.OkapiResponseUtil;
 import org.folio.rest.impl.util.RequestsApiUtil;
 import org.folio.rest.jaxrs.model.Errors;
 import org.folio.rest.jaxrs.model.Request;
 import org.folio.rest.jaxrs.model.Requests;
 import org.folio.rest.jaxrs.resource.RequestStorage;
 import org.folio.rest.persist.PgUtil;
-import org.folio.rest.persist.PostgresClient;
 import org.folio.service.event.EntityChangedEventPublisher;
 import org.folio.support.ResponseUtil;
 import org.folio.support.ServiceHelper;
+import org.folio.support.UUIDValidation;
 
-import io.vertx.core.AsyncResult;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
@@ -39,9 +35,10 @@ public class RequestService {
 
   private static final Logger log = LogManager.getLogger(RequestService.class);
 
+  private static final String REQUESTS_COLLECTION = "requests";
+
   private final Context vertxContext;
   private final Map<String, String> okapiHeaders;
-  private final PostgresClient postgresClient;
   private final RequestRepository repository;
   private final EntityChangedEventPublisher<String, Request> eventPublisher;
   private final ServiceHelper<Request> helper;
@@ -50,20 +47,26 @@ public class RequestService {
     this.vertxContext = vertxContext;
     this.okapiHeaders = okapiHeaders;
 
-    this.postgresClient = postgresClient(vertxContext, okapiHeaders);
     this.repository = new RequestRepository(vertxContext, okapiHeaders);
     this.eventPublisher = requestEventPublisher(vertxContext, okapiHeaders);
     this.helper = new ServiceHelper<>(repository, eventPublisher);
   }
 
   public Future<Response> findByQuery(String query, int offset, int limit) {
+    if (helper.isStreamed(limit)) {
+      return helper.getStreamed(REQUESTS_COLLECTION, query, offset, limit);
+    }
+
     return PgUtil.get(REQUEST_TABLE, REQUEST_CLASS, Requests.class, query, offset, limit, okapiHeaders, vertxContext,
         RequestStorage.GetRequestStorageRequestsResponse.class);
   }
 
   public Future<Response> findById(String requestId) {
-    return PgUtil.getById(REQUEST_TABLE, REQUEST_CLASS, requestId, okapiHeaders, vertxContext,
-        RequestStorage.GetRequestStorageRequestsByRequestIdResponse.class);
+    // the request is returned as stored, it is not mapped to a Request and serialized again
+    return UUIDValidation.isValidUUID(requestId)
+        ? helper.getJsonById(requestId)
+        : PgUtil.getById(REQUEST_TABLE, REQUEST_CLASS, requestId, okapiHeaders, vertxContext,
+            RequestStorage.GetRequestStorageRequestsByRequestIdResponse.class);
   }
 
   public Future<Response> create(Request request) {
@@ -74,20 +77,21 @@ public class RequestService {
           .respond422WithApplicationJson(errors));
     }
 
-    Promise<Response> createResult = Promise.promise();
-
-    PgUtil.post(REQUEST_TABLE, request, okapiHeaders, vertxContext,
-        RequestStorage.PostRequestStorageRequestsResponse.class, reply -> {
-          if (isSamePositionInQueueError(reply)) {
-            createResult.complete(RequestStorage.PostRequestStorageRequestsResponse
-                .respond422WithApplicationJson(samePositionInQueueError(request)));
-          } else {
-            createResult.handle(reply);
-          }
-        });
+    if (request.getId() == null) {
+      request.setId(UUID.randomUUID().toString());
+    }
 
-    return createResult.future()
-        .compose(eventPublisher.publishCreated());
+    return helper.createAndPublishEvent(request.getId(), request)
+        .<Response>map(createdRequest -> RequestStorage.PostRequestStorageRequestsResponse
+            .respond201WithApplicationJson(createdRequest,
+                RequestStorage.PostRequestStorageRequestsResponse.headersFor201()
+                    .withLocation(createdRequest.getId())))
+        .otherwise(err -> isSamePositionInQueueError(err)
+            ? RequestStorage.PostRequestStorageRequestsResponse
+                .respond422WithApplicationJson(samePositionInQueueError(request))
+            : ResponseUtil.failedSaveResponse(err,
+                RequestStorage.PostRequestStorageRequestsResponse::respond400WithTextPlain,
+                RequestStorage.PostRequestStorageRequestsResponse::respond500WithTextPlain));
   }
 
   public Future<Response> createOrUpdate(String requestId, Request request) {
@@ -116,39 +120,26 @@ public class RequestService {
   }
 
   public Future<Response> delete(String requestId) {
-    return repository.getById(requestId)
-        .compose(request -> {
-          final Promise<Response> deleteResult = promise();
+    if (UUIDValidation.isValidUUID(requestId)) {
+      return helper.deleteAndPublishEvent(requestId);
+    }
 
-          PgUtil.deleteById(REQUEST_TABLE, requestId, okapiHeaders, vertxContext,
-              RequestStorage.DeleteRequestStorageRequestsByRequestIdResponse.class, deleteResult);
+    // an ID which is not a UUID deletes nothing, PgUtil responds to it as before
+    final Promise<Response> deleteResult = promise();
 
-          return deleteResult.future()
-              .compose(eventPublisher.publishRemoved(request));
-        });
+    PgUtil.deleteById(REQUEST_TABLE, requestId, okapiHeaders, vertxContext,
+        RequestStorage.DeleteRequestStorageRequestsByRequestIdResponse.class, deleteResult);
+
+    return deleteResult.future();
   }
 
   public Future<Response> deleteAll() {
-    Promise<Response> deleteAllResult = Promise.promise();
-
-    try {
-      postgresClient.execute(String.format("TRUNCATE TABLE %s_%s.%s", tenantId(okapiHeaders), MODULE_NAME, REQUEST_TABLE),
-          reply -> deleteAllResult.complete(reply.succeeded()
-              ? RequestStorage.DeleteRequestStorageRequestsResponse.respond204()
-              : RequestStorage.DeleteRequestStorageRequestsResponse.respond500WithTextPlain(reply.cause().getMessage())));
-    }
-    catch(Exception e) {
-      deleteAllResult.complete(RequestStorage.DeleteRequestStorageRequestsResponse
-          .respond500WithTextPlain(e.getMessage()));
-    }
-
-    return deleteAllResult.future()
-        .compose(eventPublisher.publishAllRemoved());
+    return helper.deleteAllAndPublishEvent();
   }
 
-  private boolean isSamePositionInQueueError(AsyncResult<Response> reply) {
-    String message = OkapiResponseUtil.getErrorMessage(reply);
-    return RequestsApiUtil.hasSamePositionConstraintViolated(message);
+  private boolean isSamePositionInQueueError(Throwable error) {
+    // only a clash on request_itemid_position_unique, e.g. not one on the ID
+    return RequestsApiUtil.hasSamePositionConstraintViolated(error);
   }
 
   private Errors samePositionInQueueError(Request request) {
@@ -0,0 +1,53 @@
+package org.folio.service.rules;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+import org.folio.rest.jaxrs.model.CirculationRules;
+
+import lombok.Value;
+
+@Value
+public class CachedCirculationRules {
+  CirculationRules rules;
+  // strong entity tag of the rules, derived from the rules text so that every module instance
+  // gives the same rules the same tag
+  String etag;
+
+  public static CachedCirculationRules of(CirculationRules rules) {
+    return new CachedCirculationRules(rules, buildEtag(rules.getRulesAsText()));
+  }
+
+  /**
+   * Returns true when the value of an {@code If-None-Match} header matches the tag of the rules.
+   */
+  public boolean matches(String ifNoneMatch) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+
+    for (String tag : ifNoneMatch.split(",")) {
+      String trimmedTag = tag.trim();
+      if (trimmedTag.equals("*") || trimmedTag.equals(etag) || trimmedTag.equals("W/" + etag)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private static String buildEtag(String rulesAsText) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256")
+        .digest(String.valueOf(rulesAsText).getBytes(UTF_8));
+
+      return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+    } catch (NoSuchAlgorithmException e) {
+      // every Java platform supports SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+}
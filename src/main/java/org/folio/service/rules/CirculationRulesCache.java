@@ -0,0 +1,120 @@
+package org.folio.service.rules;
+
+import static io.vertx.core.Future.failedFuture;
+import static io.vertx.core.Future.succeededFuture;
+import static org.apache.logging.log4j.LogManager.getLogger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.jaxrs.model.CirculationRules;
+import org.folio.rest.persist.Criteria.Criterion;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.rest.persist.interfaces.Results;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.sqlclient.Tuple;
+
+/**
+ * Circulation rules of every tenant, kept in memory because they change only a few times a year
+ * but are read on every loan and request. The rules of a tenant are loaded on the first read and
+ * invalidated when they are changed: by the module instance which changed them right away, and
+ * by the other instances when they receive the {@link #CHANGE_CHANNEL} notification of Postgres.
+ * <p>
+ * The rules are cached only while the notifications are received, see
+ * {@link #setNotificationsReceived(boolean)}, otherwise every read loads them.
+ * <p>
+ * Thread safe, the cache is shared by all verticles of the module instance.
+ */
+public final class CirculationRulesCache {
+
+  private static final Logger log = getLogger(CirculationRulesCache.class);
+
+  public static final String CIRCULATION_RULES_TABLE = "circulation_rules";
+  public static final String CHANGE_CHANNEL = "mod_circulation_storage_circulation_rules_changed";
+
+  private static final String NOTIFY_SQL = "SELECT pg_notify($1, $2)";
+  private static final CirculationRulesCache INSTANCE = new CirculationRulesCache();
+
+  // the load in progress or completed, so that concurrent reads of a tenant share one query
+  private final Map<String, Future<CachedCirculationRules>> rulesByTenant =
+    new ConcurrentHashMap<>();
+  private volatile boolean notificationsReceived;
+
+  private CirculationRulesCache() {
+  }
+
+  public static CirculationRulesCache getInstance() {
+    return INSTANCE;
+  }
+
+  public Future<CachedCirculationRules> get(PostgresClient postgresClient) {
+    if (!notificationsReceived) {
+      return load(postgresClient);
+    }
+
+    String tenantId = postgresClient.getTenantId();
+    Future<CachedCirculationRules> rules = rulesByTenant.computeIfAbsent(tenantId,
+      id -> load(postgresClient));
+
+    // a failed load is not cached, the next read tries again
+    return rules.onFailure(t -> rulesByTenant.remove(tenantId, rules));
+  }
+
+  public void invalidate(String tenantId) {
+    log.debug("invalidate:: circulation rules of tenant {} invalidated", tenantId);
+    rulesByTenant.remove(tenantId);
+  }
+
+  public void invalidateAll() {
+    log.debug("invalidateAll:: circulation rules of all tenants invalidated");
+    rulesByTenant.clear();
+  }
+
+  /**
+   * Enables the cache while the change notifications are received, the rules cached before are
+   * dropped either way because a change could have been missed.
+   */
+  public void setNotificationsReceived(boolean notificationsReceived) {
+    log.info("setNotificationsReceived:: circulation rules cache {}",
+      notificationsReceived ? "enabled" : "disabled");
+
+    this.notificationsReceived = notificationsReceived;
+    invalidateAll();
+  }
+
+  /**
+   * Invalidates the rules of the tenant in this module instance and notifies the other instances,
+   * must be called once the change of the rules is committed.
+   */
+  public Future<Void> notifyChanged(PostgresClient postgresClient) {
+    String tenantId = postgresClient.getTenantId();
+    invalidate(tenantId);
+
+    return postgresClient.execute(NOTIFY_SQL, Tuple.of(CHANGE_CHANNEL, tenantId))
+      .onFailure(t -> log.warn("notifyChanged:: failed to notify change of circulation rules " +
+        "of tenant {}", tenantId, t))
+      .mapEmpty();
+  }
+
+  private static Future<CachedCirculationRules> load(PostgresClient postgresClient) {
+    Promise<Results<CirculationRules>> promise = Promise.promise();
+    postgresClient.get(CIRCULATION_RULES_TABLE, CirculationRules.class, new Criterion(), false,
+      promise);
+
+    return promise.future()
+      .map(Results::getResults)
+      .compose(CirculationRulesCache::getSingleRules)
+      .map(CachedCirculationRules::of);
+  }
+
+  private static Future<CirculationRules> getSingleRules(List<CirculationRules> rules) {
+    return rules.size() == 1
+      ? succeededFuture(rules.get(0))
+      : failedFuture(new IllegalStateException(
+        "Number of records in circulation_rules table is " + rules.size()));
+  }
+}
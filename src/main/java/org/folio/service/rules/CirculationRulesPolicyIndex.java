@@ -0,0 +1,143 @@
+package org.folio.service.rules;
+
+import static io.vertx.core.Future.succeededFuture;
+import static java.lang.String.format;
+import static org.apache.logging.log4j.LogManager.getLogger;
+import static org.folio.rest.persist.PostgresClient.convertToPsqlStandard;
+import static org.folio.service.rules.CirculationRulesCache.CIRCULATION_RULES_TABLE;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.persist.Conn;
+import org.folio.rest.persist.PostgresClient;
+
+import io.vertx.core.Future;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
+
+/**
+ * Reverse index of the circulation rules of a tenant: the policies the rules refer to, with the
+ * numbers of the rule lines referring to them. The index is rebuilt in the transaction which
+ * changes the rules, so that whether a policy is in use is looked up by its ID instead of
+ * scanning the rules text.
+ */
+public class CirculationRulesPolicyIndex {
+
+  private static final Logger log = getLogger(CirculationRulesPolicyIndex.class);
+
+  public static final String CIRCULATION_RULES_POLICY_TABLE = "circulation_rules_policy";
+
+  // a policy letter followed by a policy ID, no letter of the criteria is a policy letter
+  private static final Pattern POLICY_PATTERN = Pattern.compile("\\b([lrnoi])\\s+" +
+    "([0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12})\\b");
+  private static final Pattern COMMENT_PATTERN = Pattern.compile("[#/].*");
+  private static final Pattern LINE_SEPARATOR_PATTERN = Pattern.compile("\\R");
+
+  private static final String DELETE_REFERENCES_SQL = "DELETE FROM %s.%s";
+  private static final String INSERT_REFERENCES_SQL = "INSERT INTO %s.%s " +
+    "(policy_id, policy_type, line_number) " +
+    "SELECT * FROM unnest($1::text[], $2::text[], $3::int[]) ON CONFLICT DO NOTHING";
+  private static final String SELECT_RULES_SQL = "SELECT jsonb->>'rulesAsText' FROM %s.%s " +
+    "FOR UPDATE";
+  private static final String IN_USE_SQL = "SELECT EXISTS (SELECT 1 FROM %s.%s " +
+    "WHERE policy_id = $1 AND policy_type = $2)";
+
+  private final PostgresClient postgresClient;
+  private final String schemaName;
+
+  public CirculationRulesPolicyIndex(PostgresClient postgresClient) {
+    this.postgresClient = postgresClient;
+    this.schemaName = convertToPsqlStandard(postgresClient.getTenantId());
+  }
+
+  /**
+   * Returns the policies referred to by the rules, the comments of the rules are ignored.
+   */
+  public static List<PolicyReference> parse(String rulesAsText) {
+    List<PolicyReference> references = new ArrayList<>();
+    if (rulesAsText == null) {
+      return references;
+    }
+
+    String[] lines = LINE_SEPARATOR_PATTERN.split(rulesAsText, -1);
+    for (int index = 0; index < lines.length; index++) {
+      String line = COMMENT_PATTERN.matcher(lines[index]).replaceFirst("");
+      Matcher matcher = POLICY_PATTERN.matcher(line);
+
+      while (matcher.find()) {
+        references.add(new PolicyReference(PolicyType.fromLetter(matcher.group(1).charAt(0)),
+          normalizeId(matcher.group(2)), index + 1));
+      }
+    }
+
+    return references;
+  }
+
+  /**
+   * Replaces the index with the policies referred to by the rules, must be called in the
+   * transaction which changes the rules.
+   */
+  public Future<Void> rebuild(Conn conn, String rulesAsText) {
+    List<PolicyReference> references = parse(rulesAsText);
+
+    return conn.execute(format(DELETE_REFERENCES_SQL, schemaName, CIRCULATION_RULES_POLICY_TABLE))
+      .compose(deleted -> insert(conn, references))
+      .onSuccess(r -> log.info("rebuild:: {} policy references of circulation rules of " +
+        "tenant {} indexed", references.size(), postgresClient.getTenantId()));
+  }
+
+  /**
+   * Rebuilds the index from the current rules, used when the tenant is initialized so that the
+   * rules saved before the index existed are indexed.
+   */
+  public Future<Void> rebuild() {
+    return postgresClient.withTrans(conn -> conn.execute(
+        format(SELECT_RULES_SQL, schemaName, CIRCULATION_RULES_TABLE))
+      .compose(rows -> rebuild(conn, getRulesAsText(rows))));
+  }
+
+  public Future<Boolean> isInUse(PolicyType type, String policyId) {
+    return postgresClient.execute(format(IN_USE_SQL, schemaName, CIRCULATION_RULES_POLICY_TABLE),
+        Tuple.of(normalizeId(policyId), type.name()))
+      .map(rows -> rows.iterator().next().getBoolean(0));
+  }
+
+  private Future<Void> insert(Conn conn, List<PolicyReference> references) {
+    if (references.isEmpty()) {
+      return succeededFuture();
+    }
+
+    return conn.execute(format(INSERT_REFERENCES_SQL, schemaName, CIRCULATION_RULES_POLICY_TABLE),
+        toTuple(references))
+      .mapEmpty();
+  }
+
+  private static Tuple toTuple(List<PolicyReference> references) {
+    String[] policyIds = new String[references.size()];
+    String[] policyTypes = new String[references.size()];
+    Integer[] lineNumbers = new Integer[references.size()];
+
+    for (int index = 0; index < references.size(); index++) {
+      PolicyReference reference = references.get(index);
+      policyIds[index] = reference.getPolicyId();
+      policyTypes[index] = reference.getType().name();
+      lineNumbers[index] = reference.getLineNumber();
+    }
+
+    return Tuple.of(policyIds, policyTypes, lineNumbers);
+  }
+
+  private static String getRulesAsText(RowSet<Row> rows) {
+    return rows.size() == 0 ? null : rows.iterator().next().getString(0);
+  }
+
+  private static String normalizeId(String policyId) {
+    return policyId.toLowerCase(Locale.ROOT);
+  }
+}
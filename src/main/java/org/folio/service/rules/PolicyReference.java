@@ -0,0 +1,11 @@
+package org.folio.service.rules;
+
+import lombok.Value;
+
+@Value
+public class PolicyReference {
+  PolicyType type;
+  String policyId;
+  // number of the rules text line referencing the policy, starting from 1
+  int lineNumber;
+}
@@ -0,0 +1,28 @@
+package org.folio.service.rules;
+
+import java.util.Arrays;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Types of policies the circulation rules refer to, by the letter the rules use for them.
+ */
+@AllArgsConstructor
+@Getter
+public enum PolicyType {
+  LOAN('l'),
+  REQUEST('r'),
+  NOTICE('n'),
+  OVERDUE_FINE('o'),
+  LOST_ITEM_FEE('i');
+
+  private final char letter;
+
+  public static PolicyType fromLetter(char letter) {
+    return Arrays.stream(values())
+      .filter(type -> type.letter == letter)
+      .findFirst()
+      .orElseThrow(() -> new IllegalArgumentException("Unknown policy letter: " + letter));
+  }
+}
@@ -78,7 +78,7 @@ public class TlrFeatureToggleService {
       .compose(r -> configurationClient.getTlrSettings())
       .compose(this::fetchAndGroupOpenRequests)
       .map(groupedRequests -> updatePosition(groupedRequests, job))
-      .compose(requestRepository::update)
+      .compose(requestRepository::updateBatch)
       .compose(r -> updateJobStatus(job, DONE))
       .recover(throwable -> updateJobAsFailed(job, throwable))
       .mapEmpty();
@@ -0,0 +1,114 @@
+package org.folio.support;
+
+import static io.vertx.core.Future.failedFuture;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.function.Supplier;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+/**
+ * Runs asynchronous tasks so that the tasks of the same key run one after another, in the order
+ * they were submitted in, and the tasks of different keys run at the same time, at most
+ * {@code maxConcurrency} tasks at once. Tasks waiting for a free slot are started in the order
+ * they became ready in.
+ * <p>
+ * Thread safe, the tasks may complete on any thread.
+ */
+public class KeyedExecutor {
+
+  private final int maxConcurrency;
+  // keys with a running or ready task, and the tasks of the key submitted after it
+  private final Map<String, Queue<Task<?>>> waitingTasksByKey = new HashMap<>();
+  private final Queue<Task<?>> readyTasks = new ArrayDeque<>();
+  private int runningTasks;
+
+  public KeyedExecutor(int maxConcurrency) {
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  public <T> Future<T> execute(String key, Supplier<Future<T>> task) {
+    Task<T> submittedTask = new Task<>(key, task);
+    List<Task<?>> startedTasks;
+
+    synchronized (this) {
+      Queue<Task<?>> waitingTasks = waitingTasksByKey.get(key);
+      if (waitingTasks != null) {
+        waitingTasks.add(submittedTask);
+      } else {
+        waitingTasksByKey.put(key, new ArrayDeque<>());
+        readyTasks.add(submittedTask);
+      }
+      startedTasks = takeTasksToStart();
+    }
+
+    startedTasks.forEach(Task::start);
+
+    return submittedTask.result.future();
+  }
+
+  public synchronized int getRunningTasks() {
+    return runningTasks;
+  }
+
+  private void complete(Task<?> task) {
+    List<Task<?>> startedTasks;
+
+    synchronized (this) {
+      runningTasks--;
+
+      Queue<Task<?>> waitingTasks = waitingTasksByKey.get(task.key);
+      Task<?> nextTask = waitingTasks.poll();
+      if (nextTask == null) {
+        waitingTasksByKey.remove(task.key);
+      } else {
+        readyTasks.add(nextTask);
+      }
+      startedTasks = takeTasksToStart();
+    }
+
+    startedTasks.forEach(Task::start);
+  }
+
+  private List<Task<?>> takeTasksToStart() {
+    List<Task<?>> tasks = new ArrayList<>();
+
+    while (runningTasks < maxConcurrency && !readyTasks.isEmpty()) {
+      runningTasks++;
+      tasks.add(readyTasks.poll());
+    }
+
+    return tasks;
+  }
+
+  private class Task<T> {
+    private final String key;
+    private final Supplier<Future<T>> supplier;
+    private final Promise<T> result = Promise.promise();
+
+    private Task(String key, Supplier<Future<T>> supplier) {
+      this.key = key;
+      this.supplier = supplier;
+    }
+
+    private void start() {
+      Future<T> taskResult;
+      try {
+        taskResult = supplier.get();
+      } catch (Exception e) {
+        taskResult = failedFuture(e);
+      }
+
+      taskResult.onComplete(r -> {
+        complete(this);
+        result.handle(r);
+      });
+    }
+  }
+}
@@ -4,15 +4,20 @@ import static javax.ws.rs.core.HttpHeaders.CONTENT_TYPE;
 import static org.folio.HttpStatus.HTTP_BAD_REQUEST;
 import static org.folio.HttpStatus.HTTP_CREATED;
 import static org.folio.HttpStatus.HTTP_INTERNAL_SERVER_ERROR;
+import static org.folio.HttpStatus.HTTP_NOT_FOUND;
 import static org.folio.HttpStatus.HTTP_NO_CONTENT;
+import static org.folio.HttpStatus.HTTP_OK;
 
 import java.util.Objects;
+import java.util.function.Function;
 
 import javax.ws.rs.core.Response;
 
 import org.folio.HttpStatus;
+import org.folio.rest.persist.PgExceptionUtil;
 
 public final class ResponseUtil {
+  public static final String NOT_FOUND = "Not found";
 
   private ResponseUtil() {
   }
@@ -35,6 +40,21 @@ public final class ResponseUtil {
         .entity(entity).build();
   }
 
+  /**
+   * Responds with JSON which is serialized already, e.g. a record read as text from the database.
+   */
+  public static Response jsonResponse(String json) {
+    return Response.status(HTTP_OK.toInt())
+        .header(CONTENT_TYPE, "application/json")
+        .entity(json).build();
+  }
+
+  public static Response notFoundResponse() {
+    return Response.status(HTTP_NOT_FOUND.toInt())
+        .header(CONTENT_TYPE, "text/plain")
+        .entity(NOT_FOUND).build();
+  }
+
   public static Response noContentResponse() {
     return Response.status(HTTP_NO_CONTENT.toInt()).build();
   }
@@ -47,6 +67,21 @@ public final class ResponseUtil {
     return failedResponse(HTTP_BAD_REQUEST, error);
   }
 
+  /**
+   * Responds to a failed save the way PgUtil does: database errors caused by the client, like
+   * invalid values or constraint violations, are bad requests, other errors are server errors.
+   */
+  public static Response failedSaveResponse(Throwable error,
+      Function<String, Response> badRequestResponse,
+      Function<String, Response> internalErrorResponse) {
+
+    String badRequestMessage = PgExceptionUtil.badRequestMessage(error);
+
+    return badRequestMessage != null
+        ? badRequestResponse.apply(badRequestMessage)
+        : internalErrorResponse.apply(error.getMessage());
+  }
+
   private static boolean responseHasStatus(Response response, HttpStatus expectedStatus) {
     return response != null && response.getStatus() == expectedStatus.toInt();
   }
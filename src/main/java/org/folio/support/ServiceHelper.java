@@ -1,16 +1,22 @@
 package org.folio.support;
 
+import static io.vertx.core.Future.failedFuture;
 import static io.vertx.core.Future.succeededFuture;
 import static org.folio.support.ResponseUtil.badRequestResponse;
-import static org.folio.support.ResponseUtil.isCreateSuccessResponse;
+import static org.folio.support.ResponseUtil.internalErrorResponse;
+import static org.folio.support.ResponseUtil.jsonResponse;
 import static org.folio.support.ResponseUtil.noContentResponse;
-
-import java.util.function.Function;
+import static org.folio.support.ResponseUtil.notFoundResponse;
 
 import javax.ws.rs.core.Response;
 
 import org.apache.commons.lang3.StringUtils;
+import org.folio.cql2pgjson.exception.QueryValidationException;
 import org.folio.persist.AbstractRepository;
+import org.folio.persist.UpsertResult;
+import org.folio.rest.configuration.CollectionStreamingConfiguration;
+import org.folio.rest.persist.Conn;
+import org.folio.rest.persist.PgExceptionUtil;
 import org.folio.service.event.EntityChangedEventPublisher;
 
 import io.vertx.core.Future;
@@ -19,6 +25,9 @@ import io.vertx.core.json.Json;
 
 public class ServiceHelper<T> {
 
+  private static final CollectionStreamingConfiguration STREAMING_CONFIGURATION =
+      CollectionStreamingConfiguration.fromEnvironment();
+
   private final AbstractRepository<T> repository;
   private final EntityChangedEventPublisher<String, T> eventPublisher;
 
@@ -28,13 +37,113 @@ public class ServiceHelper<T> {
     this.eventPublisher = eventPublisher;
   }
 
+  /**
+   * Responds with the record as stored, without mapping it to the record type and serializing
+   * it again.
+   */
+  public Future<Response> getJsonById(String id) {
+    return repository.getJsonById(id)
+        .map(json -> json == null ? notFoundResponse() : jsonResponse(json))
+        .otherwise(ResponseUtil::internalErrorResponse);
+  }
+
+  /**
+   * Whether a query with the limit is answered by {@link #getStreamed}.
+   */
+  public boolean isStreamed(int limit) {
+    return STREAMING_CONFIGURATION.isStreamed(limit);
+  }
+
+  /**
+   * Responds with the records matching the CQL query like PgUtil.get does, but the records are
+   * read through a cursor and their stored JSON is appended to the response as it is read, the
+   * records are never mapped to the record type and the rows of the page are never held in
+   * memory all at once.
+   *
+   * @param collectionName name of the array of the records in the response, e.g. loans
+   */
+  public Future<Response> getStreamed(String collectionName, String cql, int offset,
+      int limit) {
+
+    final StringBuilder json = new StringBuilder("{\"")
+        .append(collectionName)
+        .append("\":[");
+
+    return repository.streamJson(cql, offset, limit, recordJson -> {
+          if (json.charAt(json.length() - 1) != '[') {
+            json.append(',');
+          }
+          json.append(recordJson);
+        })
+        .map(totalRecords -> json
+            .append("],\"totalRecords\":")
+            .append(totalRecords)
+            .append('}')
+            .toString())
+        .map(ResponseUtil::jsonResponse)
+        .otherwise(err -> err instanceof QueryValidationException
+            ? badRequestResponse(err)
+            : internalErrorResponse(err));
+  }
+
+  /**
+   * Creates or updates the record and saves the created or updated event in one transaction,
+   * the event is published after the commit without waiting for Kafka. The old record is read
+   * before the upsert, the new one is returned by the upsert statement.
+   */
   public Future<Response> upsertAndPublishEvents(String id, T rec) {
-    return repository.getById(id)
-        .compose(
-            oldRecord -> upsert(id, rec, oldRecord)
-                .compose(publishCreatedOrUpdatedEvent(oldRecord))
-                .compose(toNoContentResponse())
-        );
+    return repository.withTransaction(conn -> repository.getById(conn, id)
+            .compose(oldRecord -> repository.upsertAndReturnUpdatedEntity(conn, id, rec)
+                .compose(result -> saveCreatedOrUpdatedEvent(conn, oldRecord, result))))
+        .onSuccess(notUsed -> eventPublisher.relaySavedEvents())
+        .map(notUsed -> noContentResponse())
+        // upsert failure is treated as BAD REQUEST in MyPgUtil.putUpsert204()
+        .recover(err -> PgExceptionUtil.badRequestMessage(err) != null
+            ? succeededFuture(badRequestResponse(err))
+            : failedFuture(err));
+  }
+
+  /**
+   * Creates the record and saves the created event in one transaction, the event is published
+   * after the commit without waiting for Kafka.
+   *
+   * @return the created record as stored, with the changes made by the triggers
+   */
+  public Future<T> createAndPublishEvent(String id, T rec) {
+    return repository.withTransaction(conn -> repository.saveAndReturnUpdatedEntity(conn, id, rec)
+            .compose(newRecord -> eventPublisher.saveCreatedEvent(conn, newRecord)
+                .map(newRecord)))
+        .onSuccess(notUsed -> eventPublisher.relaySavedEvents());
+  }
+
+  /**
+   * Deletes the record and saves the removed event in one transaction, the event is published
+   * after the commit without waiting for Kafka, in order with the events of the earlier changes.
+   */
+  public Future<Response> deleteAndPublishEvent(String id) {
+    return repository.withTransaction(conn -> repository.getById(conn, id)
+            .compose(oldRecord -> deleteAndSaveRemovedEvent(conn, id, oldRecord)))
+        .onSuccess(deleted -> {
+          if (Boolean.TRUE.equals(deleted)) {
+            eventPublisher.relaySavedEvents();
+          }
+        })
+        .map(deleted -> Boolean.TRUE.equals(deleted) ? noContentResponse() : notFoundResponse())
+        .otherwise(err -> PgExceptionUtil.badRequestMessage(err) != null
+            ? badRequestResponse(err)
+            : internalErrorResponse(err));
+  }
+
+  /**
+   * Deletes all records and saves the all removed event in one transaction, the event is
+   * published after the commit without waiting for Kafka.
+   */
+  public Future<Response> deleteAllAndPublishEvent() {
+    return repository.withTransaction(conn -> repository.truncate(conn)
+            .compose(notUsed -> eventPublisher.saveAllRemovedEvent(conn)))
+        .onSuccess(notUsed -> eventPublisher.relaySavedEvents())
+        .map(notUsed -> noContentResponse())
+        .otherwise(ResponseUtil::internalErrorResponse);
   }
 
   public String jsonStringOrEmpty(Object obj) {
@@ -52,32 +161,22 @@ public class ServiceHelper<T> {
     return result;
   }
 
-  private Future<Response> upsert(String id, T rec, T oldRecord) {
-    return repository.upsert(id, rec)
-        .compose(
-            upsertId -> toCreatedOrUpdatedResponse(upsertId, oldRecord),
-            err -> succeededFuture(badRequestResponse(err)) // upsert failure is treated as BAD REQUEST in MyPgUtil.putUpsert204()
-        );
-  }
+  private Future<Boolean> deleteAndSaveRemovedEvent(Conn conn, String id, T oldRecord) {
+    if (oldRecord == null) {
+      return succeededFuture(false);
+    }
 
-  private Future<Response> toCreatedOrUpdatedResponse(String id, T oldRecord) {
-    return oldRecord == null
-        ? repository.getById(id).map(ResponseUtil::createdResponse)
-        : succeededFuture(noContentResponse());
+    return repository.deleteById(conn, id)
+        .compose(notUsed -> eventPublisher.saveRemovedEvent(conn, oldRecord))
+        .map(true);
   }
 
-  private Function<Response, Future<Response>> publishCreatedOrUpdatedEvent(T oldRecord) {
-    return oldRecord == null
-        ? eventPublisher.publishCreated()
-        : eventPublisher.publishUpdated(oldRecord);
-  }
+  private Future<Void> saveCreatedOrUpdatedEvent(Conn conn, T oldRecord,
+      UpsertResult<T> upsertResult) {
 
-  private Function<Response, Future<Response>> toNoContentResponse() {
-    return response -> succeededFuture(
-        isCreateSuccessResponse(response) // transform CREATED to NO_CONTENT (see MyPgUtil.putUpsert204() )
-            ? noContentResponse()
-            : response
-    );
+    return upsertResult.isInserted() || oldRecord == null
+        ? eventPublisher.saveCreatedEvent(conn, upsertResult.getEntity())
+        : eventPublisher.saveUpdatedEvent(conn, oldRecord, upsertResult.getEntity());
   }
 
 }
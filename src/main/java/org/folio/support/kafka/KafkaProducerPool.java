@@ -0,0 +1,64 @@
+package org.folio.support.kafka;
+
+import static org.apache.logging.log4j.LogManager.getLogger;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.Logger;
+import org.folio.kafka.KafkaConfig;
+import org.folio.kafka.services.KafkaEnvironmentProperties;
+import org.folio.rest.configuration.KafkaProducerConfiguration;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.kafka.client.producer.KafkaProducer;
+
+/**
+ * Keeps one Kafka producer for each Vert.x context (verticle instance), the topic is set on each
+ * record. The producer stays open for the lifetime of the context, so that the events are not
+ * paying for producer setup and teardown, and the producer can send the events in batches. It is
+ * closed by a close hook of the context, when the verticle is undeployed or Vert.x is closed.
+ */
+public final class KafkaProducerPool {
+  private static final Logger log = getLogger(KafkaProducerPool.class);
+  private static final String CONTEXT_KEY = "kafka-producer";
+
+  private KafkaProducerPool() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  public static <K> KafkaProducer<K, String> getProducer(Context context) {
+    KafkaProducer<K, String> producer = context.get(CONTEXT_KEY);
+
+    if (producer == null) {
+      log.info("getProducer:: creating producer");
+      KafkaProducer<K, String> createdProducer = KafkaProducer.create(context.owner(),
+        producerProperties());
+      context.put(CONTEXT_KEY, createdProducer);
+      context.addCloseHook(completion -> close(context, createdProducer).onComplete(completion));
+      producer = createdProducer;
+    }
+
+    return producer;
+  }
+
+  private static Future<Void> close(Context context, KafkaProducer<?, String> producer) {
+    log.info("close:: closing producer");
+    context.remove(CONTEXT_KEY);
+
+    return producer.close();
+  }
+
+  static Map<String, String> producerProperties() {
+    var kafkaConfig = KafkaConfig.builder()
+      .kafkaPort(KafkaEnvironmentProperties.port())
+      .kafkaHost(KafkaEnvironmentProperties.host())
+      .build();
+
+    Map<String, String> properties = new HashMap<>(kafkaConfig.getProducerProps());
+    properties.putAll(KafkaProducerConfiguration.fromEnvironment().toProducerProperties());
+
+    return properties;
+  }
+}
@@ -0,0 +1,19 @@
+-- Replaces the unique index on itemId and position of the request table with a deferrable
+-- exclusion constraint. A deferrable constraint is checked at the end of the statement,
+-- or at commit when deferred, instead of row by row, so the requests of a queue can be
+-- reordered by writing each request once. A unique index on expressions cannot be deferrable.
+-- This SQL must always run (no "fromModuleVersion"), it must run after RMB has dropped
+-- request_itemid_position_idx_unique.
+DO $do$
+BEGIN
+  IF NOT EXISTS (
+    SELECT 1 FROM pg_constraint
+    WHERE conname = 'request_itemid_position_unique'
+      AND connamespace = '${myuniversity}_${mymodule}'::regnamespace) THEN
+
+    ALTER TABLE ${myuniversity}_${mymodule}.request
+      ADD CONSTRAINT request_itemid_position_unique
+      EXCLUDE USING btree (lower(jsonb->>'itemId') WITH =, (jsonb->>'position') WITH =)
+      DEFERRABLE INITIALLY IMMEDIATE;
+  END IF;
+END $do$;
@@ -0,0 +1,9 @@
+-- Policies referenced by the circulation rules, with the numbers of the rule lines referencing
+-- them. Rebuilt whenever the rules are changed, so that finding out whether a policy is in use
+-- does not need the rules text to be scanned.
+CREATE TABLE IF NOT EXISTS ${myuniversity}_${mymodule}.circulation_rules_policy (
+  policy_id text NOT NULL,
+  policy_type text NOT NULL,
+  line_number integer NOT NULL,
+  PRIMARY KEY (policy_id, policy_type, line_number)
+);
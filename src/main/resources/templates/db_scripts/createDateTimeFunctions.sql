@@ -0,0 +1,47 @@
+-- Converts an ISO 8601 date-time, like 2021-08-31T10:00:00.000+0000 or 2021-08-31T10:00:00Z,
+-- to timestamptz. A value without an offset is taken as UTC, as the string comparison used
+-- before this function did. Returns NULL for a value with an invalid date or time. The value is
+-- parsed by a fixed pattern and converted with make_timestamp and AT TIME ZONE 'UTC', nothing
+-- depends on the TimeZone or DateStyle of the session, so the function is truly IMMUTABLE and
+-- can be used in index expressions. Fractional seconds beyond microseconds are truncated.
+-- This SQL must always run (no "fromModuleVersion"), it must run before
+-- index_requestExpirationDates.sql.
+DO $do$
+DECLARE
+  previous_source text;
+  index_name text;
+BEGIN
+  -- the indexes on parse_date_time built with a previous version of the function must be rebuilt
+  SELECT prosrc INTO previous_source FROM pg_proc
+  WHERE proname = 'parse_date_time'
+    AND pronamespace = '${myuniversity}_${mymodule}'::regnamespace;
+
+  CREATE OR REPLACE FUNCTION ${myuniversity}_${mymodule}.parse_date_time(date_time text)
+  RETURNS timestamptz AS $fn$
+    SELECT CASE WHEN extract(day FROM parsed.local_date_time) = m.parts[3]::int
+      THEN (parsed.local_date_time - parsed.utc_offset) AT TIME ZONE 'UTC' END
+    FROM regexp_match(date_time, '^([1-9]\d{3})-(0[1-9]|1[0-2])-(0[1-9]|[12]\d|3[01])'
+        'T([01]\d|2[0-3]):([0-5]\d):([0-5]\d)(?:\.(\d{1,6})\d*)?'
+        '(?:Z|([+-])(\d{2})(?::?(\d{2}))?)?$') AS m(parts),
+      -- the day is added to the first day of the month, so that e.g. February 30 does not
+      -- raise an error and is rejected by the day check above
+      LATERAL (SELECT
+        make_timestamp(m.parts[1]::int, m.parts[2]::int, 1, m.parts[4]::int, m.parts[5]::int,
+          (m.parts[6] || '.' || coalesce(m.parts[7], '0'))::float8)
+          + (m.parts[3]::int - 1) * interval '1 day' AS local_date_time,
+        CASE m.parts[8] WHEN '-' THEN -1 ELSE 1 END
+          * make_interval(hours => coalesce(m.parts[9], '0')::int,
+            mins => coalesce(m.parts[10], '0')::int) AS utc_offset) AS parsed
+  $fn$ LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT;
+
+  IF previous_source IS DISTINCT FROM (SELECT prosrc FROM pg_proc
+      WHERE proname = 'parse_date_time'
+        AND pronamespace = '${myuniversity}_${mymodule}'::regnamespace) THEN
+    FOREACH index_name IN ARRAY ARRAY['request_requestexpirationdate_open_idx',
+        'request_holdshelfexpirationdate_open_idx'] LOOP
+      IF to_regclass('${myuniversity}_${mymodule}.' || index_name) IS NOT NULL THEN
+        EXECUTE format('REINDEX INDEX ${myuniversity}_${mymodule}.%I', index_name);
+      END IF;
+    END LOOP;
+  END IF;
+END $do$;
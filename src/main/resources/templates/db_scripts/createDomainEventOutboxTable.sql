@@ -0,0 +1,25 @@
+-- Domain events written in the transaction of the entity change they describe, the relay
+-- publishes them to Kafka afterwards. A row is removed once its event is published, and is
+-- claimed until then by the relay which is publishing it.
+CREATE TABLE IF NOT EXISTS ${myuniversity}_${mymodule}.domain_event_outbox (
+  id bigserial PRIMARY KEY,
+  topic text NOT NULL,
+  event_key text NOT NULL,
+  payload jsonb NOT NULL,
+  okapi_headers jsonb NOT NULL,
+  created_date timestamptz NOT NULL DEFAULT now()
+);
+
+ALTER TABLE ${myuniversity}_${mymodule}.domain_event_outbox
+  ADD COLUMN IF NOT EXISTS claimed_until timestamptz;
+
+-- only the tenant, URL and user ID headers are stored, drop the tokens stored before
+UPDATE ${myuniversity}_${mymodule}.domain_event_outbox
+SET okapi_headers = (
+  SELECT coalesce(jsonb_object_agg(header.key, header.value), '{}'::jsonb)
+  FROM jsonb_each(okapi_headers) AS header
+  WHERE lower(header.key) IN ('x-okapi-tenant', 'x-okapi-url', 'x-okapi-user-id'))
+WHERE EXISTS (
+  SELECT 1
+  FROM jsonb_object_keys(okapi_headers) AS name
+  WHERE lower(name) NOT IN ('x-okapi-tenant', 'x-okapi-url', 'x-okapi-user-id'));
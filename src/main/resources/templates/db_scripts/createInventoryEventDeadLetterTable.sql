@@ -0,0 +1,35 @@
+-- Inventory events which failed to be applied. An event is retried once its next attempt date
+-- is reached and removed once it is applied; it has no next attempt date once it has failed
+-- too many times, and stays until it is replayed. The later events of the key of a saved event
+-- are parked here with no attempts, and are retried only after the earlier events of the key.
+CREATE TABLE IF NOT EXISTS ${myuniversity}_${mymodule}.inventory_event_dead_letter (
+  id bigserial PRIMARY KEY,
+  event_type text NOT NULL,
+  event_key text,
+  payload text NOT NULL,
+  okapi_headers jsonb NOT NULL,
+  attempts integer NOT NULL DEFAULT 1,
+  next_attempt_date timestamptz,
+  last_error text,
+  created_date timestamptz NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS inventory_event_dead_letter_next_attempt_date_idx
+  ON ${myuniversity}_${mymodule}.inventory_event_dead_letter (next_attempt_date)
+  WHERE next_attempt_date IS NOT NULL;
+
+-- later events of a key are parked behind its earliest event, used to find the earliest event
+-- of a key and the keys with saved events
+CREATE INDEX IF NOT EXISTS inventory_event_dead_letter_event_key_idx
+  ON ${myuniversity}_${mymodule}.inventory_event_dead_letter (event_type, event_key, id);
+
+-- only the tenant, URL and user ID headers are stored, drop the tokens stored before
+UPDATE ${myuniversity}_${mymodule}.inventory_event_dead_letter
+SET okapi_headers = (
+  SELECT coalesce(jsonb_object_agg(header.key, header.value), '{}'::jsonb)
+  FROM jsonb_each(okapi_headers) AS header
+  WHERE lower(header.key) IN ('x-okapi-tenant', 'x-okapi-url', 'x-okapi-user-id'))
+WHERE EXISTS (
+  SELECT 1
+  FROM jsonb_object_keys(okapi_headers) AS name
+  WHERE lower(name) NOT IN ('x-okapi-tenant', 'x-okapi-url', 'x-okapi-user-id'));
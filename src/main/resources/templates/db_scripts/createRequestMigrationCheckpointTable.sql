@@ -0,0 +1,8 @@
+-- Progress of the request migrations run on tenant upgrade, a migration which failed
+-- is resumed from here on the next upgrade. A row is removed when its migration finishes.
+CREATE TABLE IF NOT EXISTS ${myuniversity}_${mymodule}.request_migration_checkpoint (
+  migration_name text PRIMARY KEY,
+  last_request_id uuid NOT NULL,
+  migrated_requests integer NOT NULL,
+  updated_date timestamptz NOT NULL DEFAULT now()
+);
@@ -0,0 +1,19 @@
+-- Partial indexes on the typed expiration dates of open requests, used by the scheduled
+-- request expiration. The index predicates must match the status conditions of the
+-- expiration query, see RequestExpirationService.
+-- This SQL must always run (no "fromModuleVersion") to signal RMB to create the indexes,
+-- to signal RMB to not delete the indexes, and the SQL must run after table creation.
+DO $do$
+BEGIN
+  PERFORM rmb_internal_index(
+  'request',                 'request_requestExpirationDate_open_idx', 'ADD',
+  'CREATE INDEX IF NOT EXISTS request_requestExpirationDate_open_idx ON ${myuniversity}_${mymodule}.request '
+  || $rmb$(${myuniversity}_${mymodule}.parse_date_time(jsonb->>'requestExpirationDate')) $rmb$
+  || $rmb$WHERE jsonb->>'status' IN ('Open - Not yet filled', 'Open - Awaiting delivery', 'Open - In transit')$rmb$);
+
+  PERFORM rmb_internal_index(
+  'request',                 'request_holdShelfExpirationDate_open_idx', 'ADD',
+  'CREATE INDEX IF NOT EXISTS request_holdShelfExpirationDate_open_idx ON ${myuniversity}_${mymodule}.request '
+  || $rmb$(${myuniversity}_${mymodule}.parse_date_time(jsonb->>'holdShelfExpirationDate')) $rmb$
+  || $rmb$WHERE jsonb->>'status' = 'Open - Awaiting pickup'$rmb$);
+END $do$;
@@ -1,11 +1,15 @@
 package org.folio.rest.api;
 
+import io.restassured.RestAssured;
+import io.restassured.specification.RequestSpecification;
 import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Tuple;
 
 import org.folio.rest.jaxrs.model.CirculationRules;
 import org.folio.rest.support.ApiTests;
 import org.folio.rest.support.JsonResponse;
 import org.folio.rest.support.ResponseHandler;
+import org.folio.service.rules.CirculationRulesCache;
 import org.junit.FixMethodOrder;
 import org.junit.Test;
 import org.junit.runners.MethodSorters;
@@ -15,11 +19,16 @@ import java.net.URL;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
+import static javax.ws.rs.core.HttpHeaders.ETAG;
+import static javax.ws.rs.core.HttpHeaders.IF_NONE_MATCH;
+import static org.awaitility.Awaitility.await;
+import static org.folio.rest.RestVerticle.OKAPI_HEADER_TENANT;
 import static org.folio.rest.support.matchers.OkapiResponseStatusCodeMatchers.matchesNoContent;
 import static org.folio.rest.support.matchers.OkapiResponseStatusCodeMatchers.matchesOk;
 import static org.folio.rest.support.matchers.OkapiResponseStatusCodeMatchers.matchesUnprocessableEntity;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
 
 @FixMethodOrder(MethodSorters.NAME_ASCENDING)
 public class CirculationRulesApiTest extends ApiTests {
@@ -76,6 +85,17 @@ public class CirculationRulesApiTest extends ApiTests {
     return response.getBody();
   }
 
+  private io.restassured.response.Response getWithEtag(String etag) throws Exception {
+    RequestSpecification request = RestAssured.given()
+      .header(OKAPI_HEADER_TENANT, StorageTestSuite.TENANT_ID);
+
+    if (etag != null) {
+      request.header(IF_NONE_MATCH, etag);
+    }
+
+    return request.get(rulesStorageUrl());
+  }
+
   public void putAndGet(CirculationRules circulationRules) throws Exception {
     put204(circulationRules);
     JsonObject json = get();
@@ -88,6 +108,38 @@ public class CirculationRulesApiTest extends ApiTests {
     putAndGet(exampleRules2());
   }
 
+  @Test
+  public void getWithCurrentEtagReturnsNotModified() throws Exception {
+    put204(exampleRules());
+    String etag = getWithEtag(null).then().statusCode(200).extract().header(ETAG);
+
+    getWithEtag(etag).then()
+      .statusCode(304)
+      .header(ETAG, etag);
+
+    put204(exampleRules2());
+
+    getWithEtag(etag).then()
+      .statusCode(200)
+      .header(ETAG, not(etag))
+      .body("rulesAsText", is(exampleRules2().getRulesAsText()));
+  }
+
+  @Test
+  public void rulesChangedThroughOtherModuleInstanceAreNotServedFromCache() throws Exception {
+    putAndGet(exampleRules());
+
+    // a change made and announced by another module instance
+    waitFor(pgClient.execute(String.format("UPDATE %s_mod_circulation_storage.circulation_rules " +
+        "SET jsonb = jsonb_set(jsonb, '{rulesAsText}', to_jsonb($1::text))",
+        StorageTestSuite.TENANT_ID), Tuple.of(exampleRules2().getRulesAsText())));
+    waitFor(pgClient.execute("SELECT pg_notify($1, $2)",
+      Tuple.of(CirculationRulesCache.CHANGE_CHANNEL, StorageTestSuite.TENANT_ID)));
+
+    await().atMost(5, TimeUnit.SECONDS)
+      .until(() -> get().getString("rulesAsText"), is(exampleRules2().getRulesAsText()));
+  }
+
   @Test
   public void putNullFields() throws Exception {
     CirculationRules circulationRules = new CirculationRules();
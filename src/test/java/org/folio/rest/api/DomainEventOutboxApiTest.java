@@ -0,0 +1,144 @@
+package org.folio.rest.api;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.awaitility.Awaitility.await;
+import static org.folio.rest.api.StorageTestSuite.TENANT_ID;
+import static org.folio.rest.configuration.DomainEventOutboxConfiguration.DEFAULT_RELAY_INTERVAL_MS;
+import static org.folio.rest.support.kafka.FakeKafkaConsumer.getFirstLoanEvent;
+import static org.folio.rest.support.kafka.FakeKafkaConsumer.getLastLoanEvent;
+import static org.folio.rest.support.kafka.FakeKafkaConsumer.getLoanEvents;
+import static org.folio.rest.support.matchers.DomainEventAssertions.assertCreateEventForCheckIn;
+import static org.folio.support.kafka.topic.CirculationStorageKafkaTopic.LOAN;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+import java.util.UUID;
+
+import org.folio.rest.support.ApiTests;
+import org.folio.rest.support.IndividualResource;
+import org.folio.rest.support.builders.CheckInBuilder;
+import org.folio.rest.support.builders.LoanRequestBuilder;
+import org.folio.rest.support.http.AssertingRecordClient;
+import org.folio.rest.support.http.InterfaceUrls;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Tuple;
+
+public class DomainEventOutboxApiTest extends ApiTests {
+  private static final String OUTBOX_TABLE = "domain_event_outbox";
+  private static final String INSERT_EVENT_SQL = "INSERT INTO %s_mod_circulation_storage.%s " +
+    "(topic, event_key, payload, okapi_headers) VALUES ($1, $2, $3, $4)";
+  private static final String INSERT_CLAIMED_EVENT_SQL = "INSERT INTO " +
+    "%s_mod_circulation_storage.%s (topic, event_key, payload, okapi_headers, claimed_until) " +
+    "VALUES ($1, $2, $3, $4, now() + interval '1 hour')";
+  private static final String EXPIRE_CLAIMS_SQL = "UPDATE %s_mod_circulation_storage.%s " +
+    "SET claimed_until = now() - interval '1 second'";
+  private static final String COUNT_EVENTS_SQL =
+    "SELECT count(*) FROM %s_mod_circulation_storage.%s";
+
+  private final AssertingRecordClient checkInClient =
+    new AssertingRecordClient(client, TENANT_ID, InterfaceUrls::checkInsStorageUrl, "checkIns");
+  private final AssertingRecordClient loansClient =
+    new AssertingRecordClient(client, TENANT_ID, InterfaceUrls::loanStorageUrl, "loans");
+
+  @Before
+  public void beforeEach() {
+    StorageTestSuite.cleanUpTable("check_in");
+    StorageTestSuite.cleanUpTable("loan");
+    waitFor(pgClient.execute(format("DELETE FROM %s_mod_circulation_storage.%s", TENANT_ID,
+      OUTBOX_TABLE)));
+  }
+
+  @Test
+  public void eventIsRemovedFromOutboxOncePublished() throws Exception {
+    JsonObject checkIn = checkInClient.create(new CheckInBuilder()
+        .withId(UUID.randomUUID())
+        .withOccurredDateTime(DateTime.now(DateTimeZone.UTC))
+        .withItemId(UUID.randomUUID())
+        .withServicePointId(UUID.randomUUID())
+        .withPerformedByUserId(UUID.randomUUID())
+        .create())
+      .getJson();
+
+    assertCreateEventForCheckIn(checkIn);
+    await().atMost(5, SECONDS).until(this::countOutboxEvents, is(0L));
+  }
+
+  @Test
+  public void removedEventIsPublishedAfterEventOfCreation() throws Exception {
+    IndividualResource loan = loansClient.create(new LoanRequestBuilder().create());
+    String loanId = loan.getId();
+
+    loansClient.delete(loan);
+
+    await().atMost(5, SECONDS).until(() -> getLoanEvents(loanId).size(), is(2));
+    assertThat(getFirstLoanEvent(loanId).value().getString("type"), is("CREATED"));
+    assertThat(getLastLoanEvent(loanId).value().getString("type"), is("DELETED"));
+    await().atMost(5, SECONDS).until(this::countOutboxEvents, is(0L));
+  }
+
+  @Test
+  public void eventLeftInOutboxIsPublishedByScheduledRelay() {
+    String loanId = UUID.randomUUID().toString();
+    JsonObject event = buildLoanCreatedEvent(loanId);
+
+    // an event committed by a module instance which crashed before relaying it
+    saveEvent(INSERT_EVENT_SQL, loanId, event);
+
+    await().atMost(DEFAULT_RELAY_INTERVAL_MS + 5_000L, MILLISECONDS)
+      .until(() -> getLoanEvents(loanId).size(), greaterThan(0));
+
+    assertThat(getLastLoanEvent(loanId).value().getString("id"), is(event.getString("id")));
+    await().atMost(5, SECONDS).until(this::countOutboxEvents, is(0L));
+  }
+
+  @Test
+  public void noEventIsPublishedWhileAnotherRelayHoldsClaim() throws Exception {
+    String claimedLoanId = UUID.randomUUID().toString();
+    String laterLoanId = UUID.randomUUID().toString();
+
+    // the earlier event is being sent by the relay of another module instance
+    saveEvent(INSERT_CLAIMED_EVENT_SQL, claimedLoanId, buildLoanCreatedEvent(claimedLoanId));
+    saveEvent(INSERT_EVENT_SQL, laterLoanId, buildLoanCreatedEvent(laterLoanId));
+
+    Thread.sleep(DEFAULT_RELAY_INTERVAL_MS + 2_000L);
+
+    assertThat(getLoanEvents(laterLoanId).size(), is(0));
+    assertThat(countOutboxEvents(), is(2L));
+
+    // the other module instance crashed, its claim expires
+    waitFor(pgClient.execute(format(EXPIRE_CLAIMS_SQL, TENANT_ID, OUTBOX_TABLE)));
+
+    await().atMost(DEFAULT_RELAY_INTERVAL_MS + 5_000L, MILLISECONDS)
+      .until(() -> getLoanEvents(laterLoanId).size(), greaterThan(0));
+    assertThat(getLoanEvents(claimedLoanId).size(), greaterThan(0));
+    await().atMost(5, SECONDS).until(this::countOutboxEvents, is(0L));
+  }
+
+  private void saveEvent(String sql, String loanId, JsonObject event) {
+    waitFor(pgClient.execute(format(sql, TENANT_ID, OUTBOX_TABLE),
+      Tuple.of(LOAN.fullTopicName(TENANT_ID), loanId, event,
+        new JsonObject().put("x-okapi-tenant", TENANT_ID))));
+  }
+
+  private static JsonObject buildLoanCreatedEvent(String loanId) {
+    return new JsonObject()
+      .put("id", UUID.randomUUID().toString())
+      .put("type", "CREATED")
+      .put("tenant", TENANT_ID)
+      .put("timestamp", System.currentTimeMillis())
+      .put("data", new JsonObject().put("new", new JsonObject().put("id", loanId)));
+  }
+
+  private long countOutboxEvents() {
+    return waitFor(pgClient.selectSingle(format(COUNT_EVENTS_SQL, TENANT_ID, OUTBOX_TABLE)))
+      .getLong(0);
+  }
+}
@@ -16,14 +16,23 @@ import static org.folio.rest.tools.utils.ModuleName.getModuleVersion;
 import static org.folio.service.event.InventoryEventType.INVENTORY_ITEM_UPDATED;
 import static org.folio.service.event.InventoryEventType.INVENTORY_SERVICE_POINT_UPDATED;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.UUID;
 import java.util.concurrent.Callable;
 
+import org.folio.EventConsumerVerticle;
+import org.folio.persist.RequestRepository;
 import org.folio.rest.jaxrs.model.CallNumberComponents;
 import org.folio.rest.jaxrs.model.SearchIndex;
 import org.folio.rest.support.ApiTests;
@@ -32,6 +41,8 @@ import org.folio.rest.support.builders.ItemBuilder.ItemCallNumberComponents;
 import org.folio.rest.support.builders.RequestItemSummary;
 import org.folio.rest.support.builders.RequestRequestBuilder;
 import org.folio.rest.support.builders.ServicePointBuilder;
+import org.folio.service.event.EventConsumerMetrics;
+import org.folio.service.event.handler.ItemUpdateEventHandler;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.junit.After;
@@ -43,7 +54,9 @@ import org.junit.runner.RunWith;
 import io.vertx.core.json.JsonObject;
 import io.vertx.kafka.admin.KafkaAdminClient;
 import io.vertx.kafka.client.common.TopicPartition;
+import io.vertx.kafka.client.consumer.KafkaConsumerRecord;
 import io.vertx.kafka.client.consumer.OffsetAndMetadata;
+import io.vertx.kafka.client.producer.KafkaHeader;
 import io.vertx.kafka.client.producer.KafkaProducer;
 import io.vertx.kafka.client.producer.KafkaProducerRecord;
 import junitparams.JUnitParamsRunner;
@@ -166,6 +179,71 @@ public class EventConsumerVerticleTest extends ApiTests {
     verifyRequestSearchIndex(REQUEST_ID, searchIndex);
   }
 
+  @Test
+  public void requestSearchIndexesAreUpdatedWhenSeveralItemsAreUpdatedSeveralTimes() {
+    String secondRequestId = randomId();
+    JsonObject firstItem = buildItem(DEFAULT_CALL_NUMBER_PREFIX, DEFAULT_CALL_NUMBER,
+      DEFAULT_CALL_NUMBER_SUFFIX, DEFAULT_SHELVING_ORDER);
+    JsonObject secondItem = buildItem(DEFAULT_CALL_NUMBER_PREFIX, DEFAULT_CALL_NUMBER,
+      DEFAULT_CALL_NUMBER_SUFFIX, DEFAULT_SHELVING_ORDER);
+
+    createRequest(buildRequest(REQUEST_ID, firstItem));
+    createRequest(buildRequest(secondRequestId, secondItem));
+
+    JsonObject firstItemUpdated = firstItem.copy().put("effectiveShelvingOrder", "order-1");
+    JsonObject firstItemUpdatedAgain = firstItem.copy().put("effectiveShelvingOrder", "order-2");
+    JsonObject secondItemUpdated = secondItem.copy().put("effectiveShelvingOrder", "order-3");
+
+    publishItemUpdateEvent(firstItem, firstItemUpdated);
+    publishItemUpdateEvent(secondItem, secondItemUpdated);
+    publishItemUpdateEvent(firstItemUpdated, firstItemUpdatedAgain);
+
+    verifyRequestSearchIndex(REQUEST_ID, buildSearchIndex(DEFAULT_CALL_NUMBER_PREFIX,
+      DEFAULT_CALL_NUMBER, DEFAULT_CALL_NUMBER_SUFFIX, "order-2"));
+    verifyRequestSearchIndex(secondRequestId, buildSearchIndex(DEFAULT_CALL_NUMBER_PREFIX,
+      DEFAULT_CALL_NUMBER, DEFAULT_CALL_NUMBER_SUFFIX, "order-3"));
+  }
+
+  @Test
+  public void itemUpdateEventsOfTenantAreAppliedWhenAnotherTenantOfBatchFails() {
+    JsonObject oldItem = buildItem(DEFAULT_CALL_NUMBER_PREFIX, DEFAULT_CALL_NUMBER,
+      DEFAULT_CALL_NUMBER_SUFFIX, DEFAULT_SHELVING_ORDER);
+    JsonObject newItem = oldItem.copy().put("effectiveShelvingOrder", "new-order");
+
+    createRequest(buildRequest(REQUEST_ID, oldItem));
+
+    // the schema of the unknown tenant does not exist, so its requests cannot be queried
+    JsonObject unknownTenantItem = buildItem();
+    KafkaConsumerRecord<String, String> unknownTenantEvent = itemUpdateRecord("unknown_tenant",
+      unknownTenantItem, unknownTenantItem.copy().put("effectiveShelvingOrder", "new-order"));
+    KafkaConsumerRecord<String, String> tenantEvent = itemUpdateRecord(TENANT_ID, oldItem,
+      newItem);
+
+    Map<KafkaConsumerRecord<String, String>, Throwable> failedEvents = waitFor(
+      new ItemUpdateEventHandler(getVertx().getOrCreateContext(), 1)
+        .handleBatch(List.of(unknownTenantEvent, tenantEvent)));
+
+    assertThat(failedEvents.keySet(), contains(unknownTenantEvent));
+    verifyRequestSearchIndex(REQUEST_ID, buildSearchIndex(DEFAULT_CALL_NUMBER_PREFIX,
+      DEFAULT_CALL_NUMBER, DEFAULT_CALL_NUMBER_SUFFIX, "new-order"));
+  }
+
+  @Test
+  public void consumerLagIsReportedUntilItemUpdateEventsAreProcessed() {
+    JsonObject oldItem = buildItem();
+    JsonObject newItem = oldItem.copy().put("effectiveShelvingOrder", "new-order");
+    createRequest(buildRequest(REQUEST_ID, oldItem));
+    long processedEvents = EventConsumerMetrics.getProcessed(INVENTORY_ITEM_UPDATED);
+
+    publishItemUpdateEvent(oldItem, newItem);
+
+    waitAtMost(60, SECONDS).until(() -> EventConsumerMetrics.getProcessed(INVENTORY_ITEM_UPDATED),
+      processed -> processed > processedEvents);
+    waitAtMost(60, SECONDS).until(() -> waitFor(EventConsumerMetrics.getLag(adminClient,
+      EventConsumerVerticle.getConsumerGroupId(INVENTORY_ITEM_UPDATED))), equalTo(0L));
+    assertThat(EventConsumerMetrics.getInFlight(INVENTORY_ITEM_UPDATED), is(0));
+  }
+
   @Parameters({
     "OLD_SP_NAME | NEW_SP_NAME", // service point name changed
     "OLD_SP_NAME | null       ", // service point name removed
@@ -194,6 +272,29 @@ public class EventConsumerVerticleTest extends ApiTests {
     verifyRequestSearchIndex(REQUEST_ID, newIndex);
   }
 
+  @Test
+  public void requestPickupServicePointNamesAreUpdatedInChunks() {
+    String servicePointId = randomId();
+    List<String> requestIds = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      String requestId = randomId();
+      createRequest(buildRequest(requestId, buildItem(), servicePointId, "oldName"));
+      requestIds.add(requestId);
+    }
+    String otherRequestId = randomId();
+    createRequest(buildRequest(otherRequestId, buildItem(), randomId(), "oldName"));
+
+    RequestRepository requestRepository = new RequestRepository(getVertx().getOrCreateContext(),
+      Map.of("x-okapi-tenant", TENANT_ID));
+
+    assertThat(waitFor(requestRepository.updatePickupServicePointName(servicePointId, "newName",
+      2)), is(5));
+
+    requestIds.forEach(requestId -> assertThat(getRequestSearchIndex(requestId),
+      is(mapFrom(buildSearchIndex("newName")))));
+    assertThat(getRequestSearchIndex(otherRequestId), is(mapFrom(buildSearchIndex("oldName"))));
+  }
+
   @Test
   public void requestPickupServicePointNameIsNotUpdatedWhenEventContainsNoRelevantChanges() {
     JsonObject item = buildItem();
@@ -344,6 +445,18 @@ public class EventConsumerVerticleTest extends ApiTests {
     waitFor(producer.write(record));
   }
 
+  @SuppressWarnings("unchecked")
+  private static KafkaConsumerRecord<String, String> itemUpdateRecord(String tenantId,
+    JsonObject oldItem, JsonObject newItem) {
+
+    KafkaConsumerRecord<String, String> record = mock(KafkaConsumerRecord.class);
+    when(record.key()).thenReturn(oldItem.getString("id"));
+    when(record.value()).thenReturn(buildUpdateEvent(oldItem, newItem)
+      .put("tenant", tenantId).encode());
+    when(record.headers()).thenReturn(List.of(KafkaHeader.header("x-okapi-tenant", tenantId)));
+    return record;
+  }
+
   private static JsonObject buildUpdateEvent(JsonObject oldVersion, JsonObject newVersion) {
     return new JsonObject()
       .put("tenant", TENANT_ID)
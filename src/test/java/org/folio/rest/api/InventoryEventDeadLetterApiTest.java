@@ -0,0 +1,268 @@
+package org.folio.rest.api;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.folio.rest.api.StorageTestSuite.TENANT_ID;
+import static org.folio.rest.api.StorageTestSuite.getVertx;
+import static org.folio.rest.configuration.InventoryEventRetryConfiguration.DEFAULT_BACKOFF_SECONDS;
+import static org.folio.rest.configuration.InventoryEventRetryConfiguration.DEFAULT_MAX_ATTEMPTS;
+import static org.folio.rest.support.ResponseHandler.json;
+import static org.folio.service.event.InventoryEventType.INVENTORY_ITEM_UPDATED;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.awaitility.Awaitility;
+import org.folio.rest.configuration.InventoryEventRetryConfiguration;
+import org.folio.rest.jaxrs.model.SearchIndex;
+import org.folio.rest.support.ApiTests;
+import org.folio.rest.support.JsonResponse;
+import org.folio.rest.support.builders.RequestItemSummary;
+import org.folio.rest.support.builders.RequestRequestBuilder;
+import org.folio.service.event.handler.DeadLetteringRecordHandler;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonObject;
+import io.vertx.kafka.client.consumer.KafkaConsumerRecord;
+import io.vertx.kafka.client.producer.KafkaHeader;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.Tuple;
+import lombok.SneakyThrows;
+
+public class InventoryEventDeadLetterApiTest extends ApiTests {
+  private static final String DEAD_LETTER_TABLE = "inventory_event_dead_letter";
+  private static final String REQUEST_STORAGE_URL = "/request-storage/requests";
+  private static final String INSERT_EVENT_SQL = "INSERT INTO %s_mod_circulation_storage.%s " +
+    "(event_type, event_key, payload, okapi_headers, attempts, next_attempt_date) " +
+    "VALUES ($1, $2, $3, $4, $5, now() + $6::int * interval '1 second')";
+  private static final String SELECT_EVENTS_SQL = "SELECT attempts, last_error, " +
+    "extract(epoch FROM next_attempt_date - now()) AS seconds_to_next_attempt " +
+    "FROM %s_mod_circulation_storage.%s ORDER BY id";
+  private static final String COUNT_EVENTS_SQL =
+    "SELECT count(*) FROM %s_mod_circulation_storage.%s";
+
+  @Before
+  public void beforeEach() {
+    truncateTable("request");
+    waitFor(pgClient.execute(format("DELETE FROM %s_mod_circulation_storage.%s", TENANT_ID,
+      DEAD_LETTER_TABLE)));
+  }
+
+  @Test
+  public void dueEventsAreRetried() {
+    String itemId = UUID.randomUUID().toString();
+    String requestId = createRequest(itemId, "old-order");
+
+    saveEvent(buildItemUpdateEvent(itemId, "old-order", "new-order"), 1, -10);
+    saveEvent(buildItemUpdateEvent(UUID.randomUUID().toString(), "old-order", "new-order"), 1,
+      DEFAULT_BACKOFF_SECONDS);
+
+    JsonObject result = post("/inventory-event-dead-letters/retry");
+
+    assertThat(result.getInteger("succeededEvents"), is(1));
+    assertThat(result.getInteger("failedEvents"), is(0));
+    assertThat(getShelvingOrder(requestId), is("new-order"));
+    assertThat(countEvents(), is(1L));
+  }
+
+  @Test
+  public void eventWhichFailsAgainIsRetriedWithBackoff() {
+    saveEvent("{\"type\": ", 2, -10);
+
+    JsonObject result = post("/inventory-event-dead-letters/retry");
+
+    assertThat(result.getInteger("succeededEvents"), is(0));
+    assertThat(result.getInteger("failedEvents"), is(1));
+
+    Row event = getSingleEvent();
+    assertThat(event.getInteger("attempts"), is(3));
+    assertThat(event.getString("last_error").contains("DecodeException"), is(true));
+    // the third retry waits four times as long as the first one
+    assertThat(event.getDouble("seconds_to_next_attempt"),
+      greaterThan(4.0 * DEFAULT_BACKOFF_SECONDS - 10));
+  }
+
+  @Test
+  public void eventWhichFailsTooManyTimesIsNoLongerRetried() {
+    saveEvent("{\"type\": ", DEFAULT_MAX_ATTEMPTS - 1, -10);
+
+    post("/inventory-event-dead-letters/retry");
+
+    Row event = getSingleEvent();
+    assertThat(event.getInteger("attempts"), is(DEFAULT_MAX_ATTEMPTS));
+    assertThat(event.getValue("seconds_to_next_attempt"), is(nullValue()));
+  }
+
+  @Test
+  public void allEventsAreAppliedWhenReplayed() {
+    String itemId = UUID.randomUUID().toString();
+    String requestId = createRequest(itemId, "old-order");
+
+    saveEvent(buildItemUpdateEvent(itemId, "old-order", "new-order"), DEFAULT_MAX_ATTEMPTS,
+      null);
+    saveEvent(buildItemUpdateEvent(itemId, "new-order", "newer-order"), 1,
+      DEFAULT_BACKOFF_SECONDS);
+
+    JsonObject result = post("/inventory-event-dead-letters/replay");
+
+    assertThat(result.getInteger("succeededEvents"), is(2));
+    assertThat(result.getInteger("failedEvents"), is(0));
+    assertThat(getShelvingOrder(requestId), is("newer-order"));
+    assertThat(countEvents(), is(0L));
+  }
+
+  @Test
+  public void laterEventOfKeyIsNotRetriedBeforeEarlierEvent() {
+    String itemId = UUID.randomUUID().toString();
+    String requestId = createRequest(itemId, "old-order");
+
+    saveEvent(itemId, "{\"type\": ", 1, -10);
+    saveEvent(itemId, buildItemUpdateEvent(itemId, "old-order", "new-order"), 0, 0);
+
+    JsonObject result = post("/inventory-event-dead-letters/retry");
+
+    assertThat(result.getInteger("succeededEvents"), is(0));
+    assertThat(result.getInteger("failedEvents"), is(1));
+    assertThat(getShelvingOrder(requestId), is("old-order"));
+    assertThat(countEvents(), is(2L));
+  }
+
+  @Test
+  public void laterEventsOfKeyAreRetriedInOrderOnceEarlierEventIsApplied() {
+    String itemId = UUID.randomUUID().toString();
+    String requestId = createRequest(itemId, "old-order");
+
+    saveEvent(itemId, buildItemUpdateEvent(itemId, "old-order", "new-order"), 1, -10);
+    saveEvent(itemId, buildItemUpdateEvent(itemId, "new-order", "newer-order"), 0, 0);
+    saveEvent(itemId, buildItemUpdateEvent(itemId, "newer-order", "newest-order"), 0, 0);
+
+    JsonObject result = post("/inventory-event-dead-letters/retry");
+
+    assertThat(result.getInteger("succeededEvents"), is(3));
+    assertThat(result.getInteger("failedEvents"), is(0));
+    assertThat(getShelvingOrder(requestId), is("newest-order"));
+    assertThat(countEvents(), is(0L));
+  }
+
+  @Test
+  public void laterEventInFlightIsParkedWhenEarlierEventOfKeyFails() {
+    String itemId = UUID.randomUUID().toString();
+    String firstEvent = buildItemUpdateEvent(itemId, "old-order", "new-order");
+    String secondEvent = buildItemUpdateEvent(itemId, "new-order", "newer-order");
+    List<String> handledEvents = new CopyOnWriteArrayList<>();
+    Promise<String> firstEventResult = Promise.promise();
+
+    DeadLetteringRecordHandler handler = new DeadLetteringRecordHandler(
+      getVertx().getOrCreateContext(), INVENTORY_ITEM_UPDATED,
+      new InventoryEventRetryConfiguration(DEFAULT_MAX_ATTEMPTS, DEFAULT_BACKOFF_SECONDS, 100),
+      event -> {
+        handledEvents.add(event.value());
+        return handledEvents.size() == 1
+          ? firstEventResult.future()
+          : Future.succeededFuture(event.key());
+      });
+
+    // both events are in flight before the first one fails
+    Future<String> first = handler.handle(kafkaRecord(itemId, firstEvent));
+    Future<String> second = handler.handle(kafkaRecord(itemId, secondEvent));
+    Awaitility.await().atMost(5, SECONDS).until(() -> !handledEvents.isEmpty());
+    firstEventResult.fail(new IllegalStateException("failed"));
+
+    waitFor(first);
+    waitFor(second);
+
+    assertThat(handledEvents, contains(firstEvent));
+    assertThat(countEvents(), is(2L));
+  }
+
+  private void saveEvent(String payload, int attempts, Integer secondsToNextAttempt) {
+    saveEvent("test-key", payload, attempts, secondsToNextAttempt);
+  }
+
+  private void saveEvent(String eventKey, String payload, int attempts,
+    Integer secondsToNextAttempt) {
+
+    waitFor(pgClient.execute(format(INSERT_EVENT_SQL, TENANT_ID, DEAD_LETTER_TABLE),
+      Tuple.of(INVENTORY_ITEM_UPDATED.name(), eventKey, payload,
+        new JsonObject().put("x-okapi-tenant", TENANT_ID), attempts, secondsToNextAttempt)));
+  }
+
+  private Row getSingleEvent() {
+    return waitFor(pgClient.selectSingle(format(SELECT_EVENTS_SQL, TENANT_ID,
+      DEAD_LETTER_TABLE)));
+  }
+
+  private long countEvents() {
+    return waitFor(pgClient.selectSingle(format(COUNT_EVENTS_SQL, TENANT_ID, DEAD_LETTER_TABLE)))
+      .getLong(0);
+  }
+
+  @SneakyThrows
+  private JsonObject post(String path) {
+    CompletableFuture<JsonResponse> postCompleted = new CompletableFuture<>();
+    client.post(StorageTestSuite.storageUrl(path), TENANT_ID, json(postCompleted));
+
+    JsonResponse response = postCompleted.get(30, SECONDS);
+    assertThat(response.getStatusCode(), is(200));
+
+    return response.getJson();
+  }
+
+  @SneakyThrows
+  private String createRequest(String itemId, String shelvingOrder) {
+    JsonObject request = new RequestRequestBuilder()
+      .page()
+      .withItemId(UUID.fromString(itemId))
+      .withItem(new RequestItemSummary("Nod", "565578437802"))
+      .withPickupServicePointId(UUID.randomUUID())
+      .withSearchIndex(new SearchIndex().withShelvingOrder(shelvingOrder))
+      .create();
+
+    return createEntity(request, StorageTestSuite.storageUrl(REQUEST_STORAGE_URL))
+      .getJson()
+      .getString("id");
+  }
+
+  @SneakyThrows
+  private String getShelvingOrder(String requestId) {
+    return getById(StorageTestSuite.storageUrl(REQUEST_STORAGE_URL + "/" + requestId))
+      .getJsonObject("searchIndex")
+      .getString("shelvingOrder");
+  }
+
+  @SuppressWarnings("unchecked")
+  private static KafkaConsumerRecord<String, String> kafkaRecord(String key, String value) {
+    KafkaConsumerRecord<String, String> record = mock(KafkaConsumerRecord.class);
+    when(record.key()).thenReturn(key);
+    when(record.value()).thenReturn(value);
+    when(record.headers()).thenReturn(List.of(KafkaHeader.header("x-okapi-tenant", TENANT_ID)));
+    return record;
+  }
+
+  private static String buildItemUpdateEvent(String itemId, String oldShelvingOrder,
+    String newShelvingOrder) {
+
+    return new JsonObject()
+      .put("tenant", TENANT_ID)
+      .put("type", "UPDATE")
+      .put("old", new JsonObject()
+        .put("id", itemId)
+        .put("effectiveShelvingOrder", oldShelvingOrder))
+      .put("new", new JsonObject()
+        .put("id", itemId)
+        .put("effectiveShelvingOrder", newShelvingOrder))
+      .encode();
+  }
+}
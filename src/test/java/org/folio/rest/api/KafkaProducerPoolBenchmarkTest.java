@@ -0,0 +1,151 @@
+package org.folio.rest.api;
+
+import static org.folio.rest.api.StorageTestSuite.TENANT_ID;
+import static org.folio.rest.api.StorageTestSuite.getVertx;
+import static org.folio.support.kafka.topic.CirculationStorageKafkaTopic.LOAN;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.kafka.KafkaConfig;
+import org.folio.kafka.KafkaProducerManager;
+import org.folio.kafka.SimpleKafkaProducerManager;
+import org.folio.kafka.services.KafkaEnvironmentProperties;
+import org.folio.kafka.services.KafkaProducerRecordBuilder;
+import org.folio.rest.support.ApiTests;
+import org.folio.service.event.DomainEvent;
+import org.folio.service.event.DomainEventOutboxRelay;
+import org.folio.service.event.DomainEventType;
+import org.folio.support.kafka.KafkaProducerPool;
+import org.junit.Test;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+import io.vertx.kafka.client.producer.KafkaProducer;
+import io.vertx.kafka.client.producer.KafkaProducerRecord;
+
+/**
+ * Compares the throughput of domain events published with a producer created and closed for
+ * every event with the events published with the long-lived producer of
+ * {@link KafkaProducerPool}, which {@link DomainEventOutboxRelay} sends the events with. Not a
+ * part of {@link StorageTestSuite}, run it explicitly:
+ * <pre>mvn test -Dtest=KafkaProducerPoolBenchmarkTest</pre>
+ */
+public class KafkaProducerPoolBenchmarkTest extends ApiTests {
+  private static final Logger log = LogManager.getLogger();
+
+  private static final int EVENTS = 2_000;
+  private static final int TIMEOUT_SECONDS = 600;
+  private static final String TOPIC = LOAN.fullTopicName(TENANT_ID);
+  private static final Map<String, String> OKAPI_HEADERS = Map.of("x-okapi-tenant", TENANT_ID);
+
+  private final Context context = getVertx().getOrCreateContext();
+
+  @Test
+  public void publishEventsOneAfterAnother() {
+    double perEvent = measure(this::publishSequentially, this::publishWithProducerPerEvent);
+    double pooled = measure(this::publishSequentially, this::publishWithPooledProducer);
+
+    log.info("Publishing {} events one after another: producer per event {} events/s, " +
+      "pooled producer {} events/s", EVENTS, Math.round(perEvent), Math.round(pooled));
+  }
+
+  @Test
+  public void publishEventsConcurrently() {
+    double perEvent = measure(this::publishConcurrently, this::publishWithProducerPerEvent);
+    double pooled = measure(this::publishConcurrently, this::publishWithPooledProducer);
+
+    log.info("Publishing {} events concurrently: producer per event {} events/s, " +
+      "pooled producer {} events/s", EVENTS, Math.round(perEvent), Math.round(pooled));
+  }
+
+  private double measure(
+    Function<Function<DomainEvent<JsonObject>, Future<Void>>, Future<Void>> publishAll,
+    Function<DomainEvent<JsonObject>, Future<Void>> publish) {
+
+    // warm up, creates the topic and the pooled producer
+    waitFor(publishAll.apply(publish), TIMEOUT_SECONDS);
+
+    long start = System.nanoTime();
+    waitFor(publishAll.apply(publish), TIMEOUT_SECONDS);
+    long elapsed = System.nanoTime() - start;
+
+    return (double) EVENTS / elapsed * TimeUnit.SECONDS.toNanos(1);
+  }
+
+  private Future<Void> publishSequentially(
+    Function<DomainEvent<JsonObject>, Future<Void>> publish) {
+
+    Future<Void> result = Future.succeededFuture();
+    for (int i = 0; i < EVENTS; i++) {
+      result = result.compose(r -> publish.apply(event()));
+    }
+
+    return result;
+  }
+
+  @SuppressWarnings("rawtypes")
+  private Future<Void> publishConcurrently(
+    Function<DomainEvent<JsonObject>, Future<Void>> publish) {
+
+    List<Future> results = new ArrayList<>();
+    for (int i = 0; i < EVENTS; i++) {
+      results.add(publish.apply(event()));
+    }
+
+    return CompositeFuture.all(results).mapEmpty();
+  }
+
+  private Future<Void> publishWithPooledProducer(DomainEvent<JsonObject> event) {
+    return KafkaProducerPool.<String>getProducer(context)
+      .send(producerRecord(event))
+      .mapEmpty();
+  }
+
+  /**
+   * Publishing as it was done before the producers were pooled.
+   */
+  private Future<Void> publishWithProducerPerEvent(DomainEvent<JsonObject> event) {
+    KafkaProducerManager producerManager = new SimpleKafkaProducerManager(getVertx(),
+      KafkaConfig.builder()
+        .kafkaPort(KafkaEnvironmentProperties.port())
+        .kafkaHost(KafkaEnvironmentProperties.host())
+        .build());
+
+    KafkaProducerRecord<String, String> producerRecord = producerRecord(event);
+    KafkaProducer<String, String> producer = producerManager.createShared(TOPIC);
+
+    return producer.send(producerRecord)
+      .<Void>mapEmpty()
+      .onComplete(r -> producer.end(ar -> producer.close()));
+  }
+
+  private static KafkaProducerRecord<String, String> producerRecord(
+    DomainEvent<JsonObject> event) {
+
+    return new KafkaProducerRecordBuilder<String, DomainEvent<JsonObject>>()
+      .key(event.getId().toString()).value(event).topic(TOPIC)
+      .propagateOkapiHeaders(OKAPI_HEADERS)
+      .build();
+  }
+
+  private static DomainEvent<JsonObject> event() {
+    UUID id = UUID.randomUUID();
+
+    return DomainEvent.<JsonObject>builder()
+      .id(id)
+      .type(DomainEventType.UPDATED)
+      .tenant(TENANT_ID)
+      .timestamp(System.currentTimeMillis())
+      .data(new JsonObject().put("new", new JsonObject().put("id", id.toString())))
+      .build();
+  }
+}
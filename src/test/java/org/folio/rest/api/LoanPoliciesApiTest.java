@@ -854,6 +854,37 @@ public class LoanPoliciesApiTest extends ApiTests {
       getResponse, matchesNotFound());
   }
 
+  @Test
+  public void cannotDeleteLoanPolicyReferencedByCirculationRules()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    UUID id = UUID.randomUUID();
+
+    createLoanPolicy(defaultRollingPolicy().withId(id).create());
+
+    putCirculationRules("priority: t, s, c, b, a, m, g\n" +
+      "fallback-policy: l 43198de5-f56a-4a53-a0bd-5a324418967a " +
+      "r 4c6e1fb0-2ef1-4666-bd15-f9190ff89060 n 122b3d2b-4788-4f1e-9117-56daa91cb75c\n" +
+      "m 1a54b431-2e4f-452d-9cae-9cee66c9a892: l " + id +
+      " r 334e5a9e-94f9-4673-8d1d-ab552863886b n 122b3d2b-4788-4f1e-9117-56daa91cb75c");
+
+    JsonResponse inUseResponse = deleteById(id);
+
+    assertThat(inUseResponse, matchesBadRequest());
+    assertThat(inUseResponse.getBody(), is("Cannot delete in use loan policy"));
+
+    // only a comment of the rules refers to the policy
+    putCirculationRules("priority: t, s, c, b, a, m, g\n" +
+      "# replaced l " + id + "\n" +
+      "fallback-policy: l 43198de5-f56a-4a53-a0bd-5a324418967a " +
+      "r 4c6e1fb0-2ef1-4666-bd15-f9190ff89060 n 122b3d2b-4788-4f1e-9117-56daa91cb75c");
+
+    assertThat(deleteById(id), matchesNoContent());
+  }
+
   @Test
   public void cannotUseHoldAlternateRenewalLoanPeriodForFixedProfile() throws Exception {
     DateTime from = DateTime.now().minusMonths(3);
@@ -967,6 +998,35 @@ public class LoanPoliciesApiTest extends ApiTests {
     }
   }
 
+  private JsonResponse deleteById(UUID id)
+    throws MalformedURLException,
+    InterruptedException,
+    ExecutionException,
+    TimeoutException {
+
+    CompletableFuture<JsonResponse> deleteCompleted = new CompletableFuture<>();
+
+    client.delete(loanPolicyStorageUrl(String.format("/%s", id)),
+      StorageTestSuite.TENANT_ID, ResponseHandler.json(deleteCompleted));
+
+    return deleteCompleted.get(5, TimeUnit.SECONDS);
+  }
+
+  private void putCirculationRules(String rulesAsText)
+    throws MalformedURLException,
+    InterruptedException,
+    ExecutionException,
+    TimeoutException {
+
+    CompletableFuture<TextResponse> putCompleted = new CompletableFuture<>();
+
+    client.put(CirculationRulesApiTest.rulesStorageUrl(),
+      new JsonObject().put("rulesAsText", rulesAsText), StorageTestSuite.TENANT_ID,
+      ResponseHandler.text(putCompleted));
+
+    assertThat(putCompleted.get(5, TimeUnit.SECONDS).getStatusCode(), is(204));
+  }
+
   private JsonResponse getById(UUID id)
     throws MalformedURLException,
     InterruptedException,
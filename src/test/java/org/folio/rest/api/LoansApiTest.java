@@ -1132,6 +1132,67 @@ public class LoansApiTest extends ApiTests {
     assertThat(secondPage.getInteger("totalRecords"), is(7));
   }
 
+  @Test
+  public void canGetLargePageOfLoans()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    UUID userId = UUID.randomUUID();
+
+    loansClient.create(new LoanRequestBuilder().withUserId(userId).create());
+    loansClient.create(new LoanRequestBuilder().withUserId(userId).create());
+    loansClient.create(new LoanRequestBuilder().withUserId(userId).create());
+    loansClient.create(loanRequest());
+
+    CompletableFuture<JsonResponse> largePageCompleted = new CompletableFuture<>();
+    CompletableFuture<JsonResponse> smallPageCompleted = new CompletableFuture<>();
+
+    // a limit above the streaming threshold is read through a cursor
+    client.get(InterfaceUrls.loanStorageUrl(),
+      String.format("query=userId=%s+sortBy+id&limit=5000", userId),
+      StorageTestSuite.TENANT_ID, ResponseHandler.json(largePageCompleted));
+
+    client.get(InterfaceUrls.loanStorageUrl(),
+      String.format("query=userId=%s+sortBy+id&limit=10", userId),
+      StorageTestSuite.TENANT_ID, ResponseHandler.json(smallPageCompleted));
+
+    JsonResponse largePageResponse = largePageCompleted.get(5, TimeUnit.SECONDS);
+    JsonResponse smallPageResponse = smallPageCompleted.get(5, TimeUnit.SECONDS);
+
+    assertThat(String.format("Failed to get large page of loans: %s",
+      largePageResponse.getBody()),
+      largePageResponse.getStatusCode(), is(200));
+
+    assertThat(String.format("Failed to get small page of loans: %s",
+      smallPageResponse.getBody()),
+      smallPageResponse.getStatusCode(), is(200));
+
+    JsonObject largePage = largePageResponse.getJson();
+
+    assertThat(largePage.getJsonArray("loans").size(), is(3));
+    assertThat(largePage.getInteger("totalRecords"), is(3));
+    assertThat(largePage, is(smallPageResponse.getJson()));
+  }
+
+  @Test
+  public void cannotGetLargePageOfLoansWithInvalidQuery()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    CompletableFuture<TextResponse> getCompleted = new CompletableFuture<>();
+
+    client.get(InterfaceUrls.loanStorageUrl(), "query=userId%3D%3D&limit=5000",
+      StorageTestSuite.TENANT_ID, ResponseHandler.text(getCompleted));
+
+    TextResponse response = getCompleted.get(5, TimeUnit.SECONDS);
+
+    assertThat(response.getStatusCode(), is(HttpURLConnection.HTTP_BAD_REQUEST));
+  }
+
   @Test
   public void canSearchByUserId()
     throws MalformedURLException,
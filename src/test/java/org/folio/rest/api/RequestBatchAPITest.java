@@ -77,6 +77,32 @@ public class RequestBatchAPITest extends ApiTests {
     assertThat(r[1].getString("id"), is(firstRequest.getString("id")));
   }
 
+  @Test
+  public void canRotateRequestQueueInBatchWithoutRemovingPositions() throws Exception {
+    UUID itemId = UUID.randomUUID();
+
+    JsonObject firstRequest = createRequestForItemAtPosition(itemId, 1);
+    JsonObject secondRequest = createRequestForItemAtPosition(itemId, 2);
+    JsonObject thirdRequest = createRequestForItemAtPosition(itemId, 3);
+
+    reorderRequests(
+      new ReorderRequest(firstRequest, 2),
+      new ReorderRequest(secondRequest, 3),
+      new ReorderRequest(thirdRequest, 1)
+    );
+
+    JsonArray requestsFromDb = getAllRequestsForItem(itemId).getJsonArray("requests");
+    assertThat(requestsFromDb.size(), is(3));
+    for (int i = 0; i < requestsFromDb.size(); i++) {
+      JsonObject request = requestsFromDb.getJsonObject(i);
+      String id = request.getString("id");
+      int expectedPosition = id.equals(firstRequest.getString("id")) ? 2
+        : id.equals(secondRequest.getString("id")) ? 3 : 1;
+
+      assertThat(request.getInteger("position"), is(expectedPosition));
+    }
+  }
+
   @Test
   public void canCloseRequestsInBatch() throws Exception {
     UUID itemId = UUID.randomUUID();
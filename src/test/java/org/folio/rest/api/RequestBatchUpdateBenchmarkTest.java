@@ -0,0 +1,148 @@
+package org.folio.rest.api;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
+import static org.folio.rest.api.StorageTestSuite.TENANT_ID;
+import static org.folio.rest.api.StorageTestSuite.getVertx;
+import static org.folio.support.ModuleConstants.REQUEST_TABLE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.persist.RequestRepository;
+import org.folio.rest.jaxrs.model.Request;
+import org.folio.rest.persist.Criteria.Criterion;
+import org.folio.rest.persist.SQLConnection;
+import org.folio.rest.support.ApiTests;
+import org.folio.service.BatchResourceService;
+import org.folio.service.request.RequestBatchResourceService;
+import org.junit.After;
+import org.junit.Test;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+
+/**
+ * Compares the throughput of a request queue reorder done with one UPDATE per request
+ * with the reorder done with one batched UPDATE. Not a part of {@link StorageTestSuite},
+ * run it explicitly:
+ * <pre>mvn test -Dtest=RequestBatchUpdateBenchmarkTest</pre>
+ */
+public class RequestBatchUpdateBenchmarkTest extends ApiTests {
+  private static final Logger log = LogManager.getLogger();
+
+  private static final int ITERATIONS = 20;
+  private static final int TIMEOUT_SECONDS = 600;
+
+  private static final String SEED_SQL =
+    "INSERT INTO %1$s_mod_circulation_storage.request (id, jsonb) " +
+    "SELECT id, jsonb_build_object(" +
+      "'id', id, " +
+      "'requestLevel', 'Item', " +
+      "'requestType', 'Hold', " +
+      "'requestDate', '2017-07-29T22:25:37.000+0000', " +
+      "'requesterId', 'd4b1458a-8b30-4122-bdf8-58b30364b407', " +
+      "'fulfilmentPreference', 'Hold Shelf', " +
+      "'status', 'Open - Not yet filled', " +
+      "'itemId', '3d7ae8ab-3c47-4d2b-b5a8-1f2b5e3b6f3c', " +
+      "'position', g) " +
+    "FROM (SELECT md5('request' || g)::uuid AS id, g " +
+      "FROM generate_series(1, %2$d) AS g) AS requests";
+
+  private final RequestRepository requestRepository = new RequestRepository(
+    getVertx().getOrCreateContext(), Map.of("x-okapi-tenant", TENANT_ID));
+  private final BatchResourceService batchResourceService = new BatchResourceService(pgClient);
+
+  @After
+  public void afterEach() {
+    truncateTable(REQUEST_TABLE);
+  }
+
+  @Test
+  public void reorderQueueOf10Requests() {
+    benchmark(10);
+  }
+
+  @Test
+  public void reorderQueueOf100Requests() {
+    benchmark(100);
+  }
+
+  @Test
+  public void reorderQueueOf1000Requests() {
+    benchmark(1000);
+  }
+
+  private void benchmark(int queueLength) {
+    truncateTable(REQUEST_TABLE);
+    waitFor(pgClient.execute(format(SEED_SQL, TENANT_ID, queueLength)), TIMEOUT_SECONDS);
+
+    double perEntity = measure(queueLength, this::reorderWithUpdatePerRequest);
+    double batched = measure(queueLength, this::reorderWithBatchedUpdate);
+
+    log.info("Reorder of a queue of {} requests: update per request {} requests/s, " +
+      "batched update {} requests/s", queueLength, Math.round(perEntity), Math.round(batched));
+  }
+
+  private double measure(int queueLength, Function<List<Request>, Future<Void>> reorder) {
+    long elapsed = 0;
+
+    for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+      List<Request> reversedQueue = reverseQueue(waitFor(requestRepository.get(new Criterion())));
+
+      long start = System.nanoTime();
+      waitFor(reorder.apply(reversedQueue), TIMEOUT_SECONDS);
+      elapsed += System.nanoTime() - start;
+
+      assertThat(waitFor(requestRepository.getById(reversedQueue.get(0).getId())).getPosition(),
+        is(1));
+    }
+
+    return (double) queueLength * ITERATIONS / elapsed * TimeUnit.SECONDS.toNanos(1);
+  }
+
+  private Future<Void> reorderWithUpdatePerRequest(List<Request> requests) {
+    List<Function<SQLConnection, Future<RowSet<Row>>>> operations = new ArrayList<>();
+
+    operations.add(batchResourceService.queryWithParamsBatchFactory(
+      format("UPDATE %s_mod_circulation_storage.request SET jsonb = jsonb - 'position'",
+        TENANT_ID), List.of()));
+    requests.forEach(request -> operations.add(batchResourceService
+      .updateSingleEntityBatchFactory(REQUEST_TABLE, request.getId(), request)));
+
+    Promise<Void> promise = Promise.promise();
+    batchResourceService.executeBatchUpdate(operations, promise);
+
+    return promise.future();
+  }
+
+  private Future<Void> reorderWithBatchedUpdate(List<Request> requests) {
+    Promise<Void> promise = Promise.promise();
+    new RequestBatchResourceService(batchResourceService, requestRepository)
+      .executeRequestBatchUpdate(requests, promise);
+
+    return promise.future();
+  }
+
+  private static List<Request> reverseQueue(List<Request> requests) {
+    List<Request> queue = requests.stream()
+      .sorted(Comparator.comparing(Request::getPosition).reversed())
+      .collect(toList());
+
+    for (int position = 1; position <= queue.size(); position++) {
+      queue.get(position - 1).setPosition(position);
+    }
+
+    return queue;
+  }
+}
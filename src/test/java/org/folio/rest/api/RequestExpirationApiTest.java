@@ -2,7 +2,9 @@ package org.folio.rest.api;
 
 import lombok.SneakyThrows;
 import static org.folio.rest.api.RequestsApiTest.requestStorageUrl;
+import static org.folio.rest.api.StorageTestSuite.PROXY_PORT;
 import static org.folio.rest.api.StorageTestSuite.TENANT_ID;
+import static org.folio.rest.api.StorageTestSuite.getVertx;
 import static org.folio.rest.api.StorageTestSuite.prepareTenant;
 import static org.folio.rest.support.ResponseHandler.empty;
 import static org.folio.rest.support.builders.RequestRequestBuilder.CLOSED_PICKUP_EXPIRED;
@@ -13,12 +15,14 @@ import static org.folio.rest.support.builders.RequestRequestBuilder.OPEN_IN_TRAN
 import static org.folio.rest.support.builders.RequestRequestBuilder.OPEN_NOT_YET_FILLED;
 import static org.folio.rest.support.http.InterfaceUrls.requestExpirationUrl;
 import static org.folio.support.EventType.LOG_RECORD;
+import static org.folio.support.DbUtil.rowSetToStream;
 import static org.folio.support.LogEventPayloadField.ORIGINAL;
 import static org.folio.support.LogEventPayloadField.PAYLOAD;
 import static org.folio.support.LogEventPayloadField.REQUESTS;
 import static org.folio.support.LogEventPayloadField.UPDATED;
 import static org.folio.support.MockServer.clearPublishedEvents;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.not;
@@ -26,19 +30,27 @@ import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNull.nullValue;
 
 import java.net.MalformedURLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 import org.awaitility.Awaitility;
+import org.folio.rest.configuration.RequestExpirationConfiguration;
 import org.folio.rest.jaxrs.model.Event;
 import org.folio.rest.jaxrs.model.Request;
+import org.folio.rest.persist.PostgresClient;
 import org.folio.rest.support.ApiTests;
 import org.folio.rest.support.Response;
 import org.folio.rest.support.builders.RequestRequestBuilder;
+import org.folio.service.RequestExpirationResult;
+import org.folio.service.RequestExpirationService;
 import org.folio.support.MockServer;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
@@ -47,11 +59,34 @@ import org.junit.Before;
 import org.junit.Test;
 
 import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Tuple;
 
 public class RequestExpirationApiTest extends ApiTests {
 
   private static final String REQUEST_TABLE = "request";
 
+  /**
+   * Creates open requests which are not expired, half of them awaiting pickup, each of its own
+   * item.
+   */
+  private static final String SEED_OPEN_REQUESTS_SQL =
+    "INSERT INTO %1$s.request (id, jsonb) " +
+    "SELECT id, jsonb_build_object(" +
+      "'id', id, " +
+      "'requestLevel', 'Item', " +
+      "'requestType', 'Hold', " +
+      "'requestDate', '2017-07-29T22:25:37.000+0000', " +
+      "'requesterId', 'd4b1458a-8b30-4122-bdf8-58b30364b407', " +
+      "'fulfilmentPreference', 'Hold Shelf', " +
+      "'status', CASE WHEN g %% 2 = 0 THEN 'Open - Not yet filled' " +
+        "ELSE 'Open - Awaiting pickup' END, " +
+      "'itemId', md5('item' || g)::uuid, " +
+      "'position', 1, " +
+      "'requestExpirationDate', '9999-07-30T10:22:54.000+0000', " +
+      "'holdShelfExpirationDate', '9999-07-30T10:22:54.000+0000') " +
+    "FROM (SELECT md5('request' || g)::uuid AS id, g " +
+      "FROM generate_series(1, %2$d) AS g) AS requests";
+
   @Before
   public void beforeEach()
     throws MalformedURLException {
@@ -1016,6 +1051,130 @@ public class RequestExpirationApiTest extends ApiTests {
     assertThat(requestFromDummyTenant.getInteger("position"), nullValue());
   }
 
+  @Test
+  public void expiresRequestsInBatchesUntilNoneAreLeft() throws InterruptedException,
+    MalformedURLException, TimeoutException, ExecutionException {
+
+    UUID itemId = UUID.randomUUID();
+    createExpiredRequests(itemId, 3);
+
+    RequestExpirationResult result = waitFor(createRequestExpirationService(
+      new RequestExpirationConfiguration(1, 60)).doRequestExpiration());
+
+    assertThat(result.getExpiredRequests(), is(3));
+    assertThat(result.getIterations(), is(4));
+  }
+
+  @Test
+  public void expiresSingleBatchWhenTimeLimitIsZero() throws InterruptedException,
+    MalformedURLException, TimeoutException, ExecutionException {
+
+    UUID itemId = UUID.randomUUID();
+    createExpiredRequests(itemId, 3);
+
+    RequestExpirationResult result = waitFor(createRequestExpirationService(
+      new RequestExpirationConfiguration(2, 0)).doRequestExpiration());
+
+    assertThat(result.getExpiredRequests(), is(2));
+    assertThat(result.getIterations(), is(1));
+  }
+
+  @Test
+  public void expiredRequestsAreFoundUsingPartialIndexes() {
+    String schemaName = PostgresClient.convertToPsqlStandard(TENANT_ID);
+
+    try {
+      waitFor(pgClient.execute(String.format(SEED_OPEN_REQUESTS_SQL, schemaName, 10_000))
+        .compose(x -> pgClient.execute(String.format("ANALYZE %s.%s", schemaName, REQUEST_TABLE))));
+
+      String plan = waitFor(pgClient.execute("EXPLAIN " +
+          RequestExpirationService.expiredRequestsQuery(TENANT_ID, 100),
+          Tuple.of(OffsetDateTime.now(ZoneOffset.UTC)))
+        .map(rowSet -> rowSetToStream(rowSet)
+          .map(row -> row.getString(0))
+          .collect(Collectors.joining("\n"))));
+
+      assertThat(plan, containsString("request_requestexpirationdate_open_idx"));
+      assertThat(plan, containsString("request_holdshelfexpirationdate_open_idx"));
+      assertThat(plan, not(containsString("Seq Scan")));
+    } finally {
+      truncateTable(REQUEST_TABLE);
+    }
+  }
+
+  @Test
+  public void requestWithExpirationDateWithoutOffsetIsExpired()
+    throws MalformedURLException {
+
+    UUID id = UUID.randomUUID();
+
+    waitFor(pgClient.execute(String.format("INSERT INTO %s.%s (id, jsonb) VALUES ($1, $2)",
+        PostgresClient.convertToPsqlStandard(TENANT_ID), REQUEST_TABLE),
+      Tuple.of(id, new RequestRequestBuilder()
+        .hold()
+        .withId(id)
+        .withItemId(UUID.randomUUID())
+        .withPosition(1)
+        .withStatus(OPEN_NOT_YET_FILLED)
+        .create()
+        .put("requestExpirationDate", "2017-07-30T10:22:54.000")
+        .put("metadata", new JsonObject()
+          .put("createdDate", "2017-07-29T22:25:37.000+0000")
+          .put("updatedDate", "2017-07-29T22:25:37.000+0000")))));
+
+    expireRequests();
+
+    JsonObject response = getById(requestStorageUrl(String.format("/%s", id)));
+
+    assertThat(response.getString("status"), is(CLOSED_UNFILLED));
+  }
+
+  @Test
+  public void dateTimesWithoutOffsetAreParsedAsUtc() {
+    assertThat(parseDateTime("2021-08-31T10:15:30.000+0200"),
+      is(OffsetDateTime.of(2021, 8, 31, 8, 15, 30, 0, ZoneOffset.UTC)));
+    assertThat(parseDateTime("2021-08-31T10:15:30.123-05:30"),
+      is(OffsetDateTime.of(2021, 8, 31, 15, 45, 30, 123_000_000, ZoneOffset.UTC)));
+    assertThat(parseDateTime("2021-08-31T10:15:30Z"),
+      is(OffsetDateTime.of(2021, 8, 31, 10, 15, 30, 0, ZoneOffset.UTC)));
+    assertThat(parseDateTime("2021-08-31T10:15:30.000"),
+      is(OffsetDateTime.of(2021, 8, 31, 10, 15, 30, 0, ZoneOffset.UTC)));
+    assertThat(parseDateTime("2021-02-30T10:15:30.000Z"), nullValue());
+    assertThat(parseDateTime("now"), nullValue());
+  }
+
+  private OffsetDateTime parseDateTime(String dateTime) {
+    return waitFor(pgClient.execute(String.format("SELECT %s.parse_date_time($1)",
+        PostgresClient.convertToPsqlStandard(TENANT_ID)), Tuple.of(dateTime))
+      .map(rowSet -> rowSet.iterator().next().getOffsetDateTime(0)));
+  }
+
+  private void createExpiredRequests(UUID itemId, int numberOfRequests)
+    throws InterruptedException, MalformedURLException, TimeoutException, ExecutionException {
+
+    for (int position = 1; position <= numberOfRequests; position++) {
+      createEntity(
+        new RequestRequestBuilder()
+          .hold()
+          .withId(UUID.randomUUID())
+          .withRequestExpirationDate(new DateTime(2017, 7, 30, 10, 22, 54, DateTimeZone.UTC))
+          .withItemId(itemId)
+          .withPosition(position)
+          .withStatus(OPEN_NOT_YET_FILLED)
+          .create(),
+        requestStorageUrl());
+    }
+  }
+
+  private RequestExpirationService createRequestExpirationService(
+    RequestExpirationConfiguration configuration) {
+
+    return new RequestExpirationService(Map.of(
+      "x-okapi-tenant", TENANT_ID,
+      "x-okapi-url", "http://localhost:" + PROXY_PORT),
+      getVertx(), "itemId", configuration);
+  }
+
   @SneakyThrows
   private void expireRequestsForTenant(String tenantId) {
     final var createCompleted = new CompletableFuture<Response>();
@@ -0,0 +1,122 @@
+package org.folio.rest.api;
+
+import static java.lang.String.format;
+import static org.folio.rest.api.StorageTestSuite.PROXY_PORT;
+import static org.folio.rest.api.StorageTestSuite.TENANT_ID;
+import static org.folio.rest.api.StorageTestSuite.getVertx;
+import static org.folio.support.MockServer.clearPublishedEvents;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.configuration.RequestExpirationConfiguration;
+import org.folio.rest.jaxrs.model.Request;
+import org.folio.rest.support.ApiTests;
+import org.folio.service.RequestExpirationService;
+import org.junit.After;
+import org.junit.Test;
+
+import io.vertx.core.Future;
+
+/**
+ * Compares the set-based request expiration with the row-by-row one of
+ * {@link RowByRowRequestExpiration}. Not a part of
+ * {@link StorageTestSuite}, run it explicitly:
+ * <pre>mvn test -Dtest=RequestExpirationBenchmarkTest</pre>
+ */
+public class RequestExpirationBenchmarkTest extends ApiTests {
+  private static final Logger log = LogManager.getLogger();
+
+  private static final String REQUEST_TABLE = "request";
+  private static final int QUEUE_LENGTH = 10;
+  private static final int BATCH_SIZE = 150;
+  private static final int TIMEOUT_SECONDS = 600;
+  private static final Map<String, String> OKAPI_HEADERS = Map.of(
+    "x-okapi-tenant", TENANT_ID,
+    "x-okapi-url", "http://localhost:" + PROXY_PORT);
+
+  /**
+   * Creates queues of {@value #QUEUE_LENGTH} requests, every request at an odd position
+   * is expired, so that each expiration batch also has to renumber the queues.
+   */
+  private static final String SEED_SQL =
+    "INSERT INTO %1$s_mod_circulation_storage.request (id, jsonb) " +
+    "SELECT id, jsonb_build_object(" +
+      "'id', id, " +
+      "'requestLevel', 'Item', " +
+      "'requestType', 'Hold', " +
+      "'requestDate', '2017-07-29T22:25:37.000+0000', " +
+      "'requesterId', 'd4b1458a-8b30-4122-bdf8-58b30364b407', " +
+      "'fulfilmentPreference', 'Hold Shelf', " +
+      "'status', 'Open - Not yet filled', " +
+      "'itemId', item_id, " +
+      "'position', position, " +
+      "'requestExpirationDate', CASE WHEN position %% 2 = 1 " +
+        "THEN '2017-07-30T10:22:54.000+0000' ELSE '9999-07-30T10:22:54.000+0000' END, " +
+      "'metadata', jsonb_build_object(" +
+        "'createdDate', '2017-07-29T22:25:37.000+0000', " +
+        "'updatedDate', '2017-07-29T22:25:37.000+0000')) " +
+    "FROM (SELECT md5('request' || g)::uuid AS id, " +
+        "md5('item' || g / %2$d)::uuid AS item_id, " +
+        "g %% %2$d + 1 AS position " +
+      "FROM generate_series(0, %3$d - 1) AS g) AS requests";
+
+  private static final String COUNT_MISPLACED_SQL =
+    "SELECT count(*) FROM %s_mod_circulation_storage.request " +
+    "WHERE jsonb->>'status' = 'Open - Not yet filled' AND (jsonb->>'position')::int > %d";
+
+  @After
+  public void afterEach() {
+    truncateTable(REQUEST_TABLE);
+    clearPublishedEvents();
+  }
+
+  @Test
+  public void expire10000Requests() {
+    benchmark(10_000);
+  }
+
+  @Test
+  public void expire100000Requests() {
+    benchmark(100_000);
+  }
+
+  private void benchmark(int expiredRequests) {
+    long rowByRow = measure(expiredRequests, () -> new RowByRowRequestExpiration(
+      OKAPI_HEADERS, getVertx(), "itemId", Request::getItemId, BATCH_SIZE).expireRequests());
+    long setBased = measure(expiredRequests, () -> new RequestExpirationService(
+      OKAPI_HEADERS, getVertx(), "itemId", new RequestExpirationConfiguration(BATCH_SIZE, 0))
+      .expireRequests());
+
+    log.info("Expiration of {} requests: row-by-row {} ms, set-based {} ms", expiredRequests,
+      rowByRow, setBased);
+  }
+
+  private long measure(int expiredRequests, Supplier<Future<Integer>> expiration) {
+
+    truncateTable(REQUEST_TABLE);
+    clearPublishedEvents();
+    waitFor(pgClient.execute(format(SEED_SQL, TENANT_ID, QUEUE_LENGTH, expiredRequests * 2)),
+      TIMEOUT_SECONDS);
+
+    long start = System.nanoTime();
+    int total = 0;
+    int closed;
+    do {
+      closed = waitFor(expiration.get(), TIMEOUT_SECONDS);
+      total += closed;
+    } while (closed > 0);
+    long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    assertThat(total, is(expiredRequests));
+    assertThat(waitFor(pgClient.selectSingle(format(COUNT_MISPLACED_SQL, TENANT_ID,
+      QUEUE_LENGTH / 2))).getLong(0), is(0L));
+
+    return elapsed;
+  }
+}
@@ -558,6 +558,39 @@ public class RequestsApiTest extends ApiTests {
     assertNoRequestEvent(secondRequest.getString("id"));
   }
 
+  @Test
+  public void cannotCreateRequestWithIdOfExistingRequest()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    UUID id = UUID.randomUUID();
+
+    createEntity(
+      new RequestRequestBuilder()
+      .withId(id)
+      .withItemId(UUID.randomUUID())
+      .withPosition(1)
+      .create(),
+      requestStorageUrl());
+
+    CompletableFuture<TextResponse> createCompleted = new CompletableFuture<>();
+
+    client.post(requestStorageUrl(),
+      new RequestRequestBuilder()
+        .withId(id)
+        .withItemId(UUID.randomUUID())
+        .withPosition(1)
+        .create(),
+      TENANT_ID, ResponseHandler.text(createCompleted));
+
+    TextResponse response = createCompleted.get(5, TimeUnit.SECONDS);
+
+    assertThat(String.format("Should not create request: %s", response.getBody()),
+      response.getStatusCode(), is(HttpURLConnection.HTTP_BAD_REQUEST));
+  }
+
   @Test
   public void canCreateMultipleClosedRequestsForTheSameItem()
     throws InterruptedException,
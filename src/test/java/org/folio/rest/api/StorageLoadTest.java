@@ -0,0 +1,431 @@
+package org.folio.rest.api;
+
+import static java.lang.String.format;
+import static org.folio.rest.api.StorageTestSuite.TENANT_ID;
+import static org.folio.rest.api.StorageTestSuite.getVertx;
+import static org.folio.rest.api.StorageTestSuite.storageUrl;
+import static org.folio.util.StringUtil.urlEncode;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.support.ApiTests;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.HttpRequest;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.WebClientOptions;
+import lombok.SneakyThrows;
+import lombok.Value;
+
+/**
+ * Load test of the loan and request storage: seeds realistic volumes of loans, requests and
+ * loan history, drives concurrent traffic against each endpoint and reports the p50 and p99
+ * latency and the throughput per endpoint. The results are logged and written to
+ * {@value #RESULT_FILE}. Not a part of {@link StorageTestSuite}, run it explicitly:
+ * <pre>mvn test -Dtest=StorageLoadTest</pre>
+ * The volumes and the traffic are configured with system properties, for example
+ * <pre>mvn test -Dtest=StorageLoadTest -Dload.loans=500000 -Dload.concurrency=64</pre>
+ * <ul>
+ *   <li>{@code load.loans} - number of loans, default 5 000 000, every 10th loan is open</li>
+ *   <li>{@code load.requests} - number of requests in queues of 10, default 2 000 000</li>
+ *   <li>{@code load.auditLoans} - number of loan history records, default 10 000 000</li>
+ *   <li>{@code load.concurrency} - number of requests sent at the same time, default 32</li>
+ *   <li>{@code load.durationSeconds} - duration of the traffic per endpoint, default 60</li>
+ * </ul>
+ */
+public class StorageLoadTest extends ApiTests {
+  private static final Logger log = LogManager.getLogger();
+
+  private static final int LOANS = Integer.getInteger("load.loans", 5_000_000);
+  private static final int REQUESTS = Integer.getInteger("load.requests", 2_000_000);
+  private static final int AUDIT_LOANS = Integer.getInteger("load.auditLoans", 10_000_000);
+  private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 32);
+  private static final int DURATION_SECONDS = Integer.getInteger("load.durationSeconds", 60);
+
+  private static final String RESULT_FILE = "target/load-test-result.json";
+  private static final int QUEUE_LENGTH = 10;
+  private static final int USERS = 100_000;
+  private static final int SEED_CHUNK = 500_000;
+  private static final int SEED_TIMEOUT_SECONDS = 3600;
+  private static final String LOAN_DATE = "2023-03-01T10:00:00.000Z";
+  private static final String REQUEST_DATE = "2023-03-01T10:00:00.000+00:00";
+  private static final String INSTANCE_ID = "86c722c3-2f5e-42e1-bd0e-7ffbbd3b4972";
+  private static final String HOLDINGS_RECORD_ID = "e63273e7-48f5-4c43-ab4e-1751ecacaa21";
+
+  private static final String SEED_LOANS_SQL =
+    "INSERT INTO %1$s_mod_circulation_storage.loan (id, jsonb) " +
+    "SELECT md5('loan' || g)::uuid, jsonb_build_object(" +
+      "'id', md5('loan' || g)::uuid, " +
+      "'userId', md5('user' || g %% %4$d)::uuid, " +
+      "'itemId', md5('loanitem' || g)::uuid, " +
+      "'loanDate', '" + LOAN_DATE + "', " +
+      "'dueDate', '" + LOAN_DATE + "', " +
+      "'action', CASE WHEN g %% 10 = 0 THEN 'checkedout' ELSE 'checkedin' END, " +
+      "'status', jsonb_build_object('name', CASE WHEN g %% 10 = 0 THEN 'Open' ELSE 'Closed' END)) " +
+    "FROM generate_series(%2$d, %3$d - 1) AS g";
+
+  private static final String SEED_AUDIT_LOANS_SQL =
+    "INSERT INTO %1$s_mod_circulation_storage.audit_loan (id, jsonb) " +
+    "SELECT md5('auditloan' || g)::uuid, jsonb_build_object(" +
+      "'id', md5('auditloan' || g)::uuid, " +
+      "'createdDate', '" + LOAN_DATE + "', " +
+      "'loan', jsonb_build_object(" +
+        "'id', md5('loan' || g %% %4$d)::uuid, " +
+        "'userId', md5('user' || g %% %5$d)::uuid, " +
+        "'itemId', md5('loanitem' || g %% %4$d)::uuid, " +
+        "'loanDate', '" + LOAN_DATE + "', " +
+        "'action', 'renewed', " +
+        "'status', jsonb_build_object('name', 'Open'))) " +
+    "FROM generate_series(%2$d, %3$d - 1) AS g";
+
+  private static final String SEED_REQUESTS_SQL =
+    "INSERT INTO %1$s_mod_circulation_storage.request (id, jsonb) " +
+    "SELECT md5('request' || g)::uuid, jsonb_build_object(" +
+      "'id', md5('request' || g)::uuid, " +
+      "'requestLevel', 'Item', " +
+      "'requestType', 'Hold', " +
+      "'requestDate', '" + REQUEST_DATE + "', " +
+      "'requesterId', md5('user' || g %% %4$d)::uuid, " +
+      "'instanceId', '" + INSTANCE_ID + "', " +
+      "'holdingsRecordId', '" + HOLDINGS_RECORD_ID + "', " +
+      "'itemId', md5('item' || g / %5$d)::uuid, " +
+      "'fulfillmentPreference', 'Hold Shelf', " +
+      "'status', 'Open - Not yet filled', " +
+      "'position', g %% %5$d + 1) " +
+    "FROM generate_series(%2$d, %3$d - 1) AS g";
+
+  private static final List<EndpointStatistics> results = new ArrayList<>();
+  private static WebClient webClient;
+
+  @BeforeClass
+  public static void seed() {
+    webClient = WebClient.create(getVertx(), new WebClientOptions()
+      .setMaxPoolSize(CONCURRENCY));
+
+    truncate("loan", "audit_loan", "request");
+    long start = System.nanoTime();
+
+    seed(SEED_LOANS_SQL, LOANS, USERS);
+    // loans are audited by a trigger, the rest of the history is inserted directly
+    long auditedLoans = waitFor(pgClient.selectSingle(format(
+      "SELECT count(*) FROM %s_mod_circulation_storage.audit_loan", TENANT_ID))).getLong(0);
+    seedRange(SEED_AUDIT_LOANS_SQL, (int) auditedLoans, AUDIT_LOANS, Math.max(LOANS, 1), USERS);
+    seed(SEED_REQUESTS_SQL, REQUESTS, USERS, QUEUE_LENGTH);
+
+    for (String table : List.of("loan", "audit_loan", "request")) {
+      waitFor(pgClient.execute(format("ANALYZE %s_mod_circulation_storage.%s", TENANT_ID, table)),
+        SEED_TIMEOUT_SECONDS);
+    }
+
+    log.info("seed:: {} loans, {} loan history records and {} requests seeded in {} s", LOANS,
+      AUDIT_LOANS, REQUESTS, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+  }
+
+  @AfterClass
+  @SneakyThrows
+  public static void report() {
+    JsonArray report = new JsonArray();
+    results.forEach(statistics -> {
+      log.info("report:: {}", statistics);
+      report.add(JsonObject.mapFrom(statistics));
+    });
+
+    Files.writeString(Path.of(RESULT_FILE), report.encodePrettily());
+    truncate("loan", "audit_loan", "request");
+  }
+
+  @Test
+  public void getLoansOfUser() {
+    run("GET /loan-storage/loans?query=userId==", worker ->
+      get(format("/loan-storage/loans?query=%s", urlEncode("userId==" + randomUserId()))));
+  }
+
+  @Test
+  public void getLoanById() {
+    run("GET /loan-storage/loans/{id}", worker ->
+      get("/loan-storage/loans/" + md5Uuid("loan" + random(LOANS))));
+  }
+
+  @Test
+  public void createLoan() {
+    run("POST /loan-storage/loans", worker ->
+      send(HttpMethod.POST, "/loan-storage/loans", loan(UUID.randomUUID().toString(),
+        UUID.randomUUID().toString(), randomUserId(), "Open")));
+  }
+
+  @Test
+  public void updateLoan() {
+    run("PUT /loan-storage/loans/{id}", worker -> {
+      // closed loans only, open loans are unique per item
+      int loan = random(LOANS / 10) * 10 + 1 + random(9);
+      String loanId = md5Uuid("loan" + loan);
+
+      return send(HttpMethod.PUT, "/loan-storage/loans/" + loanId, loan(loanId,
+        md5Uuid("loanitem" + loan), md5Uuid("user" + loan % USERS), "Closed"));
+    });
+  }
+
+  @Test
+  public void getRequestsOfItem() {
+    run("GET /request-storage/requests?query=itemId==", worker ->
+      get(format("/request-storage/requests?query=%s",
+        urlEncode("itemId==" + md5Uuid("item" + random(REQUESTS / QUEUE_LENGTH))))));
+  }
+
+  @Test
+  public void createRequest() {
+    run("POST /request-storage/requests", worker ->
+      send(HttpMethod.POST, "/request-storage/requests", request(UUID.randomUUID().toString(),
+        UUID.randomUUID().toString(), randomUserId(), 1)));
+  }
+
+  @Test
+  public void updateRequest() {
+    run("PUT /request-storage/requests/{id}", worker -> {
+      int request = randomRequestOfWorker(worker);
+      String requestId = md5Uuid("request" + request);
+
+      return send(HttpMethod.PUT, "/request-storage/requests/" + requestId,
+        seededRequest(request).put("patronComments", "Updated by the load test"));
+    });
+  }
+
+  @Test
+  public void reorderRequestQueue() {
+    run("POST /request-storage-batch/requests", worker -> {
+      // queues are not shared between workers to avoid conflicting reorders
+      int firstRequest = randomRequestOfWorker(worker) / QUEUE_LENGTH * QUEUE_LENGTH;
+      int shift = 1 + random(QUEUE_LENGTH - 1);
+      JsonArray queue = new JsonArray();
+      for (int request = firstRequest; request < firstRequest + QUEUE_LENGTH; request++) {
+        queue.add(seededRequest(request)
+          .put("position", (request - firstRequest + shift) % QUEUE_LENGTH + 1));
+      }
+
+      return send(HttpMethod.POST, "/request-storage-batch/requests",
+        new JsonObject().put("requests", queue));
+    });
+  }
+
+  private void run(String endpoint, IntFunction<Future<Integer>> operation) {
+    EndpointStatistics.Builder statistics = new EndpointStatistics.Builder(endpoint);
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+
+    List<Future<Void>> workers = new ArrayList<>();
+    for (int worker = 0; worker < CONCURRENCY; worker++) {
+      Promise<Void> finished = Promise.promise();
+      runWorker(worker, operation, statistics, deadline, finished);
+      workers.add(finished.future());
+    }
+    workers.forEach(worker -> waitFor(worker, DURATION_SECONDS * 2));
+
+    EndpointStatistics result = statistics.build(DURATION_SECONDS);
+    log.info("run:: {}", result);
+    results.add(result);
+
+    assertThat(result.getRequests(), greaterThan(0));
+  }
+
+  private static void runWorker(int worker, IntFunction<Future<Integer>> operation,
+    EndpointStatistics.Builder statistics, long deadline, Promise<Void> finished) {
+
+    if (System.nanoTime() >= deadline) {
+      finished.complete();
+      return;
+    }
+
+    long start = System.nanoTime();
+    operation.apply(worker)
+      .onComplete(result -> {
+        statistics.record(System.nanoTime() - start,
+          result.succeeded() && result.result() < 300);
+        runWorker(worker, operation, statistics, deadline, finished);
+      });
+  }
+
+  private static Future<Integer> get(String path) {
+    return request(HttpMethod.GET, path).send()
+      .map(response -> response.statusCode());
+  }
+
+  private static Future<Integer> send(HttpMethod method, String path, JsonObject body) {
+    return request(method, path).sendJsonObject(body)
+      .map(response -> response.statusCode());
+  }
+
+  @SneakyThrows
+  private static HttpRequest<Buffer> request(HttpMethod method, String path) {
+    URL url = storageUrl(path);
+
+    return webClient.requestAbs(method, url.toString())
+      .putHeader("Accept", "application/json, text/plain")
+      .putHeader("X-Okapi-Tenant", TENANT_ID)
+      .putHeader("X-Okapi-Url", rootUrl(url));
+  }
+
+  private static String rootUrl(URL url) {
+    return url.getProtocol() + "://" + url.getHost() + ":" + url.getPort();
+  }
+
+  private static JsonObject loan(String id, String itemId, String userId, String status) {
+    return new JsonObject()
+      .put("id", id)
+      .put("userId", userId)
+      .put("itemId", itemId)
+      .put("loanDate", LOAN_DATE)
+      .put("dueDate", "2023-03-15T10:00:00.000Z")
+      .put("action", "Open".equals(status) ? "checkedout" : "checkedin")
+      .put("status", new JsonObject().put("name", status));
+  }
+
+  /**
+   * The request as seeded by {@link #SEED_REQUESTS_SQL}.
+   */
+  private static JsonObject seededRequest(int request) {
+    return request(md5Uuid("request" + request), md5Uuid("item" + request / QUEUE_LENGTH),
+      md5Uuid("user" + request % USERS), request % QUEUE_LENGTH + 1);
+  }
+
+  private static JsonObject request(String id, String itemId, String requesterId,
+    int position) {
+
+    return new JsonObject()
+      .put("id", id)
+      .put("requestLevel", "Item")
+      .put("requestType", "Hold")
+      .put("requestDate", REQUEST_DATE)
+      .put("requesterId", requesterId)
+      .put("instanceId", INSTANCE_ID)
+      .put("holdingsRecordId", HOLDINGS_RECORD_ID)
+      .put("itemId", itemId)
+      .put("fulfillmentPreference", "Hold Shelf")
+      .put("status", "Open - Not yet filled")
+      .put("position", position);
+  }
+
+  private static int randomRequestOfWorker(int worker) {
+    int queuesPerWorker = REQUESTS / QUEUE_LENGTH / CONCURRENCY;
+    int queue = random(Math.max(queuesPerWorker, 1)) * CONCURRENCY + worker;
+
+    return queue * QUEUE_LENGTH + random(QUEUE_LENGTH);
+  }
+
+  private static String randomUserId() {
+    return md5Uuid("user" + random(USERS));
+  }
+
+  private static int random(int bound) {
+    return ThreadLocalRandom.current().nextInt(Math.max(bound, 1));
+  }
+
+  /**
+   * Same as {@code md5(value)::uuid} in PostgreSQL.
+   */
+  private static String md5Uuid(String value) {
+    try {
+      StringBuilder hex = new StringBuilder();
+      for (byte b : MessageDigest.getInstance("MD5").digest(
+        value.getBytes(StandardCharsets.UTF_8))) {
+
+        hex.append(format("%02x", b));
+      }
+
+      return format("%s-%s-%s-%s-%s", hex.substring(0, 8), hex.substring(8, 12),
+        hex.substring(12, 16), hex.substring(16, 20), hex.substring(20));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void seed(String sql, int rows, int... parameters) {
+    seedRange(sql, 0, rows, parameters);
+  }
+
+  private static void seedRange(String sql, int from, int to, int... parameters) {
+    for (int chunkFrom = from; chunkFrom < to; chunkFrom += SEED_CHUNK) {
+      Object[] arguments = new Object[parameters.length + 3];
+      arguments[0] = TENANT_ID;
+      arguments[1] = chunkFrom;
+      arguments[2] = Math.min(chunkFrom + SEED_CHUNK, to);
+      for (int i = 0; i < parameters.length; i++) {
+        arguments[i + 3] = parameters[i];
+      }
+
+      waitFor(pgClient.execute(format(sql, arguments)), SEED_TIMEOUT_SECONDS);
+      log.info("seedRange:: {} rows seeded", arguments[2]);
+    }
+  }
+
+  private static void truncate(String... tables) {
+    for (String table : tables) {
+      waitFor(pgClient.execute(format("TRUNCATE %s_mod_circulation_storage.%s", TENANT_ID,
+        table)), SEED_TIMEOUT_SECONDS);
+    }
+  }
+
+  @Value
+  public static class EndpointStatistics {
+    String endpoint;
+    int requests;
+    int errors;
+    double throughputPerSecond;
+    double p50Ms;
+    double p99Ms;
+
+    static class Builder {
+      private final String endpoint;
+      private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+      private final List<Long> errorLatencies = Collections.synchronizedList(new ArrayList<>());
+
+      Builder(String endpoint) {
+        this.endpoint = endpoint;
+      }
+
+      void record(long latencyNanos, boolean succeeded) {
+        (succeeded ? latencies : errorLatencies).add(latencyNanos);
+      }
+
+      EndpointStatistics build(int durationSeconds) {
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+
+        return new EndpointStatistics(endpoint, sorted.size(), errorLatencies.size(),
+          (double) sorted.size() / durationSeconds, percentileMs(sorted, 50),
+          percentileMs(sorted, 99));
+      }
+
+      private static double percentileMs(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+          return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+
+        return sorted.get(Math.max(index, 0)) / 1_000_000.0;
+      }
+    }
+  }
+}
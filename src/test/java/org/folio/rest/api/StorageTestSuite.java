@@ -80,7 +80,9 @@ import lombok.SneakyThrows;
   IsbnNormalizationTest.class,
   TlrFeatureToggleJobAPITest.class,
   ActualCostRecordAPITest.class,
-  EventConsumerVerticleTest.class
+  EventConsumerVerticleTest.class,
+  DomainEventOutboxApiTest.class,
+  InventoryEventDeadLetterApiTest.class
 })
 public class StorageTestSuite {
 
@@ -15,6 +15,7 @@ import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 import static org.folio.HttpStatus.HTTP_CREATED;
+import static org.folio.rest.configuration.RequestMigrationConfiguration.DEFAULT_LOOKUP_CACHE_SIZE;
 import static org.folio.rest.jaxrs.model.Request.Status.CLOSED_CANCELLED;
 import static org.folio.rest.jaxrs.model.Request.Status.CLOSED_FILLED;
 import static org.folio.rest.jaxrs.model.Request.Status.CLOSED_PICKUP_EXPIRED;
@@ -38,12 +39,14 @@ import org.apache.commons.io.IOUtils;
 import org.folio.postgres.testing.PostgresTesterContainer;
 import org.folio.rest.RestVerticle;
 import org.folio.rest.client.TenantClient;
+import org.folio.rest.configuration.RequestMigrationConfiguration;
 import org.folio.rest.jaxrs.model.Parameter;
 import org.folio.rest.jaxrs.model.Request;
 import org.folio.rest.jaxrs.model.TenantAttributes;
 import org.folio.rest.jaxrs.model.TenantJob;
 import org.folio.rest.persist.PostgresClient;
 import org.folio.rest.tools.utils.NetworkUtils;
+import org.folio.service.migration.TlrDataMigrationService;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -93,6 +96,7 @@ public class TenantRefApiTests {
   private static final String FAIL_SECOND_CALL_SCENARIO = "Test scenario";
   private static final String FIRST_CALL_MADE_SCENARIO_STATE = "First call made";
   private static final String DEFAULT_UUID = "00000000-0000-4000-8000-000000000000";
+  private static final int MIGRATION_BATCH_SIZE = 80;
 
   private static StubMapping itemStorageStub;
   private static StubMapping holdingsStorageStub;
@@ -346,6 +350,53 @@ public class TenantRefApiTests {
       });
   }
 
+  @Test
+  public void tlrMigrationIsResumedFromCheckpointAfterError(TestContext context) {
+    Async async = context.async();
+    wireMock.removeStub(itemStorageStub);
+
+    // first batch - return valid response
+    wireMock.stubFor(get(urlMatching(ITEM_STORAGE_URL + ANY_URL_PARAMS_REGEX_TEMPLATE))
+      .atPriority(0)
+      .inScenario(FAIL_SECOND_CALL_SCENARIO)
+      .willReturn(ok().withBody(new JsonObject().put("items", new JsonArray(items)).encodePrettily()))
+      .willSetStateTo(FIRST_CALL_MADE_SCENARIO_STATE));
+
+    // second batch - return 500
+    wireMock.stubFor(get(urlMatching(ITEM_STORAGE_URL + ANY_URL_PARAMS_REGEX_TEMPLATE))
+      .atPriority(0)
+      .inScenario(FAIL_SECOND_CALL_SCENARIO)
+      .whenScenarioStateIs(FIRST_CALL_MADE_SCENARIO_STATE)
+      .willReturn(serverError()));
+
+    // every batch is committed separately
+    RequestMigrationConfiguration configuration = new RequestMigrationConfiguration(
+      MIGRATION_BATCH_SIZE, MIGRATION_BATCH_SIZE, 0, DEFAULT_LOOKUP_CACHE_SIZE);
+
+    runTlrMigration(configuration)
+      .compose(r -> Future.<Integer>failedFuture("TLR migration should have failed"),
+        throwable -> getNumberOfRequestsUpdatedByTlrMigration())
+      .onSuccess(count -> context.assertEquals(MIGRATION_BATCH_SIZE, count))
+      .compose(count -> {
+        mockEndpoints();
+        // migrated requests would fail validation if they were migrated again
+        return runTlrMigration(configuration);
+      })
+      .onFailure(context::fail)
+      .onSuccess(r -> validateTlrMigrationResult(context, async));
+  }
+
+  @Test
+  public void tlrMigrationPrefetchesRelatedRecordsOfNextBatches(TestContext context) {
+    Async async = context.async();
+
+    // several batches in one chunk, related records of next batches are fetched concurrently
+    runTlrMigration(new RequestMigrationConfiguration(10, 50, 2,
+      DEFAULT_LOOKUP_CACHE_SIZE))
+      .onFailure(context::fail)
+      .onSuccess(r -> validateTlrMigrationResult(context, async));
+  }
+
   @Test
   public void jobFailsWhenRequestAlreadyHasTitleLevelRequestField(TestContext context) {
     Async async = context.async();
@@ -426,6 +477,24 @@ public class TenantRefApiTests {
       .onFailure(context::fail);
   }
 
+  private static Future<Void> runTlrMigration(RequestMigrationConfiguration configuration) {
+    Map<String, String> headers = Map.of(
+      "x-okapi-tenant", TENANT,
+      "x-okapi-token", TOKEN,
+      "x-okapi-url", "http://localhost:" + wireMock.port());
+
+    return new TlrDataMigrationService(getTenantAttributes(TLR_MIGRATION_PREV_MODULE_VERSION,
+      TLR_MIGRATION_MODULE_VERSION), vertx.getOrCreateContext(), headers, configuration)
+      .migrate();
+  }
+
+  private static Future<Integer> getNumberOfRequestsUpdatedByTlrMigration() {
+    return postgresClient.select("SELECT COUNT(*) " +
+        "FROM " + REQUEST_TABLE + " " +
+        "WHERE jsonb->>'requestLevel' IS NOT null")
+      .map(TenantRefApiTests::getCount);
+  }
+
   private static void assertThatNoRequestsWereUpdatedByTlrMigration(TestContext context) {
     postgresClient.select("SELECT COUNT(*) " +
         "FROM " + REQUEST_TABLE + " " +
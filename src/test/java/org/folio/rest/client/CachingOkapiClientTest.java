@@ -0,0 +1,204 @@
+package org.folio.rest.client;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.client.WireMock.serverError;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import lombok.Getter;
+import lombok.Setter;
+
+@RunWith(VertxUnitRunner.class)
+public class CachingOkapiClientTest {
+  private static final String SERVICE_POINTS_URL = "/service-points";
+  private static final String SERVICE_POINT_ID = "3a40852d-49fd-4df2-a1f9-6e2641a6e91f";
+  private static final String MISSING_SERVICE_POINT_ID = "c4c90014-c8c9-4ade-8f24-b5e313319f4b";
+
+  @Rule
+  public WireMockRule wireMock = new WireMockRule(new WireMockConfiguration().dynamicPort());
+
+  private CachingOkapiClient client;
+
+  @Before
+  public void beforeEach() {
+    client = new CachingOkapiClient(Vertx.vertx(),
+      Map.of("x-okapi-url", "http://localhost:" + wireMock.port()), 100);
+  }
+
+  @Test
+  public void recordIsFetchedOnlyOnce(TestContext context) {
+    stubServicePoints();
+
+    client.get(SERVICE_POINTS_URL, List.of(SERVICE_POINT_ID), "servicepoints", TestRecord.class)
+      .compose(r -> client.get(SERVICE_POINTS_URL, List.of(SERVICE_POINT_ID, SERVICE_POINT_ID),
+        "servicepoints", TestRecord.class))
+      .onComplete(context.asyncAssertSuccess(servicePoints -> {
+        assertThat(servicePoints, hasSize(1));
+        assertThat(client.getHits(), is(1L));
+        assertThat(client.getMisses(), is(1L));
+        wireMock.verify(1, getRequestedFor(urlPathEqualTo(SERVICE_POINTS_URL)));
+      }));
+  }
+
+  @Test
+  public void recordRequestedConcurrentlyIsFetchedOnlyOnce(TestContext context) {
+    stubServicePoints();
+
+    client.get(SERVICE_POINTS_URL, List.of(SERVICE_POINT_ID), "servicepoints", TestRecord.class);
+    client.get(SERVICE_POINTS_URL, List.of(SERVICE_POINT_ID), "servicepoints", TestRecord.class)
+      .onComplete(context.asyncAssertSuccess(servicePoints -> {
+        assertThat(servicePoints, hasSize(1));
+        assertThat(client.getHits(), is(1L));
+        wireMock.verify(1, getRequestedFor(urlPathEqualTo(SERVICE_POINTS_URL)));
+      }));
+  }
+
+  @Test
+  public void missingRecordIsNotFetchedAgain(TestContext context) {
+    stubServicePoints();
+
+    client.get(SERVICE_POINTS_URL, List.of(MISSING_SERVICE_POINT_ID), "servicepoints",
+        TestRecord.class)
+      .compose(r -> client.get(SERVICE_POINTS_URL, List.of(SERVICE_POINT_ID,
+        MISSING_SERVICE_POINT_ID), "servicepoints", TestRecord.class))
+      .onComplete(context.asyncAssertSuccess(servicePoints -> {
+        assertThat(servicePoints, hasSize(1));
+        assertThat(client.getHits(), is(1L));
+        assertThat(client.getMisses(), is(2L));
+        wireMock.verify(2, getRequestedFor(urlPathEqualTo(SERVICE_POINTS_URL)));
+      }));
+  }
+
+  @Test
+  public void failedLookupIsNotCached(TestContext context) {
+    wireMock.stubFor(get(urlPathEqualTo(SERVICE_POINTS_URL)).willReturn(serverError()));
+
+    client.get(SERVICE_POINTS_URL, List.of(SERVICE_POINT_ID), "servicepoints", TestRecord.class)
+      .recover(throwable -> {
+        stubServicePoints();
+        return client.get(SERVICE_POINTS_URL, List.of(SERVICE_POINT_ID), "servicepoints",
+          TestRecord.class);
+      })
+      .onComplete(context.asyncAssertSuccess(servicePoints -> {
+        assertThat(servicePoints, hasSize(1));
+        assertThat(client.getMisses(), is(2L));
+        wireMock.verify(2, getRequestedFor(urlPathEqualTo(SERVICE_POINTS_URL)));
+      }));
+  }
+
+  @Test
+  public void failedLookupDoesNotRemoveNewerLookupOfSameRecord(TestContext context) {
+    stubServicePoints();
+    // the first lookup of the record fails after the record was evicted and looked up again
+    wireMock.stubFor(get(urlPathEqualTo(SERVICE_POINTS_URL))
+      .withQueryParam("query", containing(SERVICE_POINT_ID))
+      .inScenario("slow failure").whenScenarioStateIs(STARTED)
+      .willReturn(serverError().withFixedDelay(500))
+      .willSetStateTo("recovered"));
+    wireMock.stubFor(get(urlPathEqualTo(SERVICE_POINTS_URL))
+      .withQueryParam("query", containing(SERVICE_POINT_ID))
+      .inScenario("slow failure").whenScenarioStateIs("recovered")
+      .willReturn(ok().withBody(servicePoints())));
+    CachingOkapiClient smallClient = new CachingOkapiClient(Vertx.vertx(),
+      Map.of("x-okapi-url", "http://localhost:" + wireMock.port()), 1);
+
+    Future<Collection<TestRecord>> failedLookup = smallClient.get(SERVICE_POINTS_URL,
+      List.of(SERVICE_POINT_ID), "servicepoints", TestRecord.class);
+
+    smallClient.get(SERVICE_POINTS_URL, List.of(MISSING_SERVICE_POINT_ID), "servicepoints",
+        TestRecord.class)
+      .compose(r -> smallClient.get(SERVICE_POINTS_URL, List.of(SERVICE_POINT_ID),
+        "servicepoints", TestRecord.class))
+      .compose(r -> failedLookup.transform(ignored -> smallClient.get(SERVICE_POINTS_URL,
+        List.of(SERVICE_POINT_ID), "servicepoints", TestRecord.class)))
+      .onComplete(context.asyncAssertSuccess(servicePoints -> {
+        assertThat(failedLookup.failed(), is(true));
+        assertThat(servicePoints, hasSize(1));
+        assertThat(smallClient.getHits(), is(1L));
+        assertThat(smallClient.getMisses(), is(3L));
+      }));
+  }
+
+  @Test
+  public void leastRecentlyUsedRecordIsEvicted(TestContext context) {
+    stubServicePoints();
+    CachingOkapiClient smallClient = new CachingOkapiClient(Vertx.vertx(),
+      Map.of("x-okapi-url", "http://localhost:" + wireMock.port()), 1);
+
+    smallClient.get(SERVICE_POINTS_URL, List.of(SERVICE_POINT_ID), "servicepoints",
+        TestRecord.class)
+      .compose(r -> smallClient.get(SERVICE_POINTS_URL, List.of(MISSING_SERVICE_POINT_ID),
+        "servicepoints", TestRecord.class))
+      .compose(r -> smallClient.get(SERVICE_POINTS_URL, List.of(SERVICE_POINT_ID),
+        "servicepoints", TestRecord.class))
+      .onComplete(context.asyncAssertSuccess(servicePoints -> {
+        assertThat(servicePoints, hasSize(1));
+        assertThat(smallClient.getHits(), is(0L));
+        assertThat(smallClient.getMisses(), is(3L));
+        wireMock.verify(3, getRequestedFor(urlPathEqualTo(SERVICE_POINTS_URL)));
+      }));
+  }
+
+  @Test
+  public void recordsOfDifferentResourcesAreCachedSeparately(TestContext context) {
+    stubServicePoints();
+    wireMock.stubFor(get(urlPathEqualTo("/item-storage/items"))
+      .willReturn(ok().withBody(new JsonObject()
+        .put("items", new JsonArray().add(new JsonObject().put("id", SERVICE_POINT_ID)))
+        .encode())));
+
+    client.get(SERVICE_POINTS_URL, List.of(SERVICE_POINT_ID), "servicepoints", TestRecord.class)
+      .compose(r -> client.get("/item-storage/items", List.of(SERVICE_POINT_ID), "items",
+        TestRecord.class))
+      .onComplete(context.asyncAssertSuccess(items -> {
+        assertThat(items, hasSize(1));
+        assertThat(client.getMisses(), is(2L));
+        assertThat(items.iterator().next().getId(), is(SERVICE_POINT_ID));
+      }));
+  }
+
+  private void stubServicePoints() {
+    wireMock.stubFor(get(urlPathEqualTo(SERVICE_POINTS_URL))
+      .willReturn(ok().withBody(servicePoints())));
+  }
+
+  private static String servicePoints() {
+    return new JsonObject()
+      .put("servicepoints", new JsonArray().add(new JsonObject()
+        .put("id", SERVICE_POINT_ID)
+        .put("name", "Circ Desk 1")))
+      .encode();
+  }
+
+  @Getter
+  @Setter
+  @JsonIgnoreProperties(ignoreUnknown = true)
+  public static class TestRecord {
+    private String id;
+  }
+}
@@ -0,0 +1,29 @@
+package org.folio.service.event;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import io.vertx.core.json.JsonObject;
+
+public class StoredOkapiHeadersTest {
+
+  @Test
+  public void onlyTenantUrlAndUserIdHeadersAreSaved() {
+    JsonObject headers = StoredOkapiHeaders.of(Map.of(
+      "X-Okapi-Tenant", "diku",
+      "x-okapi-url", "http://okapi:9130",
+      "x-okapi-user-id", "0ba5a7ad-4cce-4f32-b2c5-49d2d7c26b7d",
+      "x-okapi-token", "secret-token",
+      "x-okapi-request-id", "123456/loans",
+      "content-type", "application/json"));
+
+    assertThat(headers, is(new JsonObject()
+      .put("X-Okapi-Tenant", "diku")
+      .put("x-okapi-url", "http://okapi:9130")
+      .put("x-okapi-user-id", "0ba5a7ad-4cce-4f32-b2c5-49d2d7c26b7d")));
+  }
+}
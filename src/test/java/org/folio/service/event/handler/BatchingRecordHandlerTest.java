@@ -0,0 +1,144 @@
+package org.folio.service.event.handler;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.kafka.client.consumer.KafkaConsumerRecord;
+import lombok.SneakyThrows;
+
+public class BatchingRecordHandlerTest {
+  private Vertx vertx;
+  private Context context;
+  private List<List<KafkaConsumerRecord<String, String>>> batches;
+
+  @Before
+  public void beforeEach() {
+    vertx = Vertx.vertx();
+    context = vertx.getOrCreateContext();
+    batches = new ArrayList<>();
+  }
+
+  @After
+  public void afterEach() {
+    if (vertx != null) {
+      vertx.close();
+    }
+  }
+
+  @Test
+  public void fullBatchIsHandedOverWithoutWaiting() {
+    BatchingRecordHandler handler = new BatchingRecordHandler(vertx, 2, 60_000,
+      this::collectBatch);
+
+    Future<String> first = runOnContext(handler, record("1"));
+    Future<String> second = runOnContext(handler, record("2"));
+
+    assertThat(await(first), is("1"));
+    assertThat(await(second), is("2"));
+    assertThat(batches.size(), is(1));
+    assertThat(batches.get(0).size(), is(2));
+  }
+
+  @Test
+  public void incompleteBatchIsHandedOverAfterWaitTime() {
+    BatchingRecordHandler handler = new BatchingRecordHandler(vertx, 10, 100,
+      this::collectBatch);
+
+    Future<String> result = runOnContext(handler, record("1"));
+
+    assertThat(await(result), is("1"));
+    assertThat(batches.size(), is(1));
+    assertThat(batches.get(0).size(), is(1));
+  }
+
+  @Test
+  public void recordsOfFailedBatchFail() {
+    BatchingRecordHandler handler = new BatchingRecordHandler(vertx, 1, 100,
+      batch -> Future.failedFuture("failed"));
+
+    Future<String> result = runOnContext(handler, record("1"));
+
+    assertThrows(ExecutionException.class, () -> result.toCompletionStage()
+      .toCompletableFuture().get(5, SECONDS));
+  }
+
+  @Test
+  public void batchAfterFailedBatchIsHandled() {
+    List<Integer> handledBatchSizes = new ArrayList<>();
+    BatchingRecordHandler handler = new BatchingRecordHandler(vertx, 1, 100, batch -> {
+      handledBatchSizes.add(batch.size());
+      return handledBatchSizes.size() == 1
+        ? Future.failedFuture("failed")
+        : noFailedRecords();
+    });
+
+    runOnContext(handler, record("1"));
+    Future<String> second = runOnContext(handler, record("2"));
+
+    assertThat(await(second), is("2"));
+    assertThat(handledBatchSizes.size(), is(2));
+  }
+
+  @Test
+  public void recordFailedByBatchHandlerFailsAlone() {
+    KafkaConsumerRecord<String, String> failedRecord = record("2");
+    BatchingRecordHandler handler = new BatchingRecordHandler(vertx, 2, 60_000,
+      batch -> Future.succeededFuture(Map.of(failedRecord, new IllegalArgumentException())));
+
+    Future<String> first = runOnContext(handler, record("1"));
+    Future<String> second = runOnContext(handler, failedRecord);
+
+    assertThat(await(first), is("1"));
+    assertThrows(ExecutionException.class, () -> second.toCompletionStage()
+      .toCompletableFuture().get(5, SECONDS));
+  }
+
+  private Future<Map<KafkaConsumerRecord<String, String>, Throwable>> collectBatch(
+    List<KafkaConsumerRecord<String, String>> batch) {
+
+    batches.add(batch);
+    return noFailedRecords();
+  }
+
+  private static Future<Map<KafkaConsumerRecord<String, String>, Throwable>> noFailedRecords() {
+    return Future.succeededFuture(Map.of());
+  }
+
+  private Future<String> runOnContext(BatchingRecordHandler handler,
+    KafkaConsumerRecord<String, String> record) {
+
+    // the handler is not thread safe, all records are passed on the same context
+    Promise<String> result = Promise.promise();
+    context.runOnContext(v -> handler.handle(record).onComplete(result));
+    return result.future();
+  }
+
+  @SneakyThrows
+  private static <T> T await(Future<T> future) {
+    return future.toCompletionStage().toCompletableFuture().get(5, SECONDS);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static KafkaConsumerRecord<String, String> record(String key) {
+    KafkaConsumerRecord<String, String> record = mock(KafkaConsumerRecord.class);
+    when(record.key()).thenReturn(key);
+    return record;
+  }
+}
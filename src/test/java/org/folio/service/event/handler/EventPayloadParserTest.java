@@ -0,0 +1,73 @@
+package org.folio.service.event.handler;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.util.Set;
+
+import org.junit.Test;
+
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+public class EventPayloadParserTest {
+  private final EventPayloadParser parser = new EventPayloadParser(
+    Set.of("id", "effectiveShelvingOrder", "effectiveCallNumberComponents", "yearCaption"));
+
+  @Test
+  public void onlyRelevantPropertiesOfOldAndNewVersionAreKept() {
+    JsonObject oldItem = new JsonObject()
+      .put("id", "195efae1-588f-47bd-a181-13a2eb437701")
+      .put("barcode", "760932543816")
+      .put("status", new JsonObject().put("name", "Available"))
+      .put("notes", new JsonArray().add(new JsonObject().put("note", "fragile")))
+      .put("effectiveShelvingOrder", "F 416 H37 A2 59001")
+      .put("effectiveCallNumberComponents", new JsonObject()
+        .put("callNumber", "F16.H37 A2 9001")
+        .put("prefix", "PFX"))
+      .put("yearCaption", new JsonArray().add("1984"));
+    JsonObject newItem = oldItem.copy()
+      .put("effectiveShelvingOrder", "F 416 H37 A2 59002");
+
+    JsonObject payload = parser.parse(new JsonObject()
+      .put("type", "UPDATE")
+      .put("tenant", "diku")
+      .put("old", oldItem)
+      .put("new", newItem)
+      .encode());
+
+    assertThat(payload.fieldNames(), is(Set.of("type", "old", "new")));
+    assertThat(payload.getString("type"), is("UPDATE"));
+    assertThat(payload.getJsonObject("old"), is(new JsonObject()
+      .put("id", "195efae1-588f-47bd-a181-13a2eb437701")
+      .put("effectiveShelvingOrder", "F 416 H37 A2 59001")
+      .put("effectiveCallNumberComponents", new JsonObject()
+        .put("callNumber", "F16.H37 A2 9001")
+        .put("prefix", "PFX"))
+      .put("yearCaption", new JsonArray().add("1984"))));
+    assertThat(payload.getJsonObject("new").getString("effectiveShelvingOrder"),
+      is("F 416 H37 A2 59002"));
+    assertThat(payload.getJsonObject("new").getJsonObject("effectiveCallNumberComponents")
+      .getString("callNumber"), is("F16.H37 A2 9001"));
+  }
+
+  @Test
+  public void missingVersionsAreNotAdded() {
+    JsonObject payload = parser.parse(new JsonObject()
+      .put("type", "DELETE")
+      .put("old", new JsonObject().put("id", "195efae1-588f-47bd-a181-13a2eb437701"))
+      .encode());
+
+    assertThat(payload.getString("type"), is("DELETE"));
+    assertThat(payload.getJsonObject("new"), is(nullValue()));
+  }
+
+  @Test
+  public void payloadWhichIsNotJsonObjectIsRejected() {
+    assertThrows(DecodeException.class, () -> parser.parse("[]"));
+    assertThrows(DecodeException.class, () -> parser.parse("{\"type\": "));
+  }
+}
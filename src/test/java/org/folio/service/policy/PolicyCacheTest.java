@@ -0,0 +1,172 @@
+package org.folio.service.policy;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Locale;
+
+import org.folio.rest.configuration.PolicyCacheConfiguration;
+import org.folio.rest.jaxrs.model.LoanPolicy;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.service.rules.PolicyType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowIterator;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
+import lombok.SneakyThrows;
+
+public class PolicyCacheTest {
+  private static final String TENANT_ID = "diku";
+  private static final String FIRST_POLICY_ID = "43198de5-f56a-4a53-a0bd-5a324418967a";
+  private static final String SECOND_POLICY_ID = "d9cd0bed-1b49-4b5e-a7bd-064b8d177231";
+
+  private PostgresClient postgresClient;
+
+  @Before
+  public void beforeEach() {
+    postgresClient = mock(PostgresClient.class);
+    when(postgresClient.getTenantId()).thenReturn(TENANT_ID);
+    when(postgresClient.execute(anyString(), any(Tuple.class)))
+      .thenAnswer(invocation -> policyRows(invocation.getArgument(1, Tuple.class).getUUID(0)
+        .toString()));
+
+    PolicyCache.setNotificationsReceived(true);
+  }
+
+  @After
+  public void afterEach() {
+    PolicyCache.setNotificationsReceived(false);
+  }
+
+  @Test
+  public void cachedPolicyIsNotReadAgain() {
+    PolicyCache<LoanPolicy> cache = loanPolicyCache(10, 300);
+
+    CachedPolicy<LoanPolicy> first = get(cache, FIRST_POLICY_ID);
+    CachedPolicy<LoanPolicy> second = get(cache, FIRST_POLICY_ID.toUpperCase(Locale.ROOT));
+
+    assertThat(second, is(first));
+    assertThat(first.getPolicy().getId(), is(FIRST_POLICY_ID));
+    assertThat(new JsonObject(first.getJson()).getString("name"), is("Policy " + FIRST_POLICY_ID));
+    assertThat(cache.getHits(), is(1L));
+    assertThat(cache.getMisses(), is(1L));
+    verify(postgresClient, times(1)).execute(anyString(), any(Tuple.class));
+  }
+
+  @Test
+  public void leastRecentlyReadPolicyIsEvicted() {
+    PolicyCache<LoanPolicy> cache = loanPolicyCache(1, 300);
+
+    get(cache, FIRST_POLICY_ID);
+    get(cache, SECOND_POLICY_ID);
+    get(cache, FIRST_POLICY_ID);
+
+    assertThat(cache.getHits(), is(0L));
+    verify(postgresClient, times(3)).execute(anyString(), any(Tuple.class));
+  }
+
+  @Test
+  @SneakyThrows
+  public void expiredPolicyIsReadAgain() {
+    PolicyCache<LoanPolicy> cache = loanPolicyCache(10, 1);
+
+    get(cache, FIRST_POLICY_ID);
+    Thread.sleep(1_100);
+    get(cache, FIRST_POLICY_ID);
+
+    verify(postgresClient, times(2)).execute(anyString(), any(Tuple.class));
+  }
+
+  @Test
+  public void invalidatedPolicyIsReadAgain() {
+    PolicyCache<LoanPolicy> cache = loanPolicyCache(10, 300);
+
+    get(cache, FIRST_POLICY_ID);
+    get(cache, SECOND_POLICY_ID);
+    cache.invalidate(TENANT_ID, FIRST_POLICY_ID);
+    get(cache, FIRST_POLICY_ID);
+    get(cache, SECOND_POLICY_ID);
+
+    assertThat(cache.getHits(), is(1L));
+    verify(postgresClient, times(3)).execute(anyString(), any(Tuple.class));
+  }
+
+  @Test
+  public void notificationOfOtherModuleInstanceInvalidatesPolicy() {
+    PolicyCache<LoanPolicy> cache = PolicyCache.loanPolicies();
+
+    get(cache, FIRST_POLICY_ID);
+    PolicyCache.handleNotification(new JsonObject()
+      .put("tenantId", TENANT_ID)
+      .put("policyType", PolicyType.LOAN.name())
+      .put("policyId", FIRST_POLICY_ID)
+      .encode());
+    get(cache, FIRST_POLICY_ID);
+
+    verify(postgresClient, times(2)).execute(anyString(), any(Tuple.class));
+  }
+
+  @Test
+  public void policiesAreNotCachedWithoutNotifications() {
+    PolicyCache<LoanPolicy> cache = loanPolicyCache(10, 300);
+    PolicyCache.setNotificationsReceived(false);
+
+    get(cache, FIRST_POLICY_ID);
+    get(cache, FIRST_POLICY_ID);
+
+    verify(postgresClient, times(2)).execute(anyString(), any(Tuple.class));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void missingPolicyIsNotCached() {
+    PolicyCache<LoanPolicy> cache = loanPolicyCache(10, 300);
+    RowSet<Row> noRows = mock(RowSet.class);
+    when(postgresClient.execute(anyString(), any(Tuple.class)))
+      .thenReturn(Future.succeededFuture(noRows));
+
+    assertThat(get(cache, FIRST_POLICY_ID), is(nullValue()));
+    assertThat(get(cache, FIRST_POLICY_ID), is(nullValue()));
+
+    verify(postgresClient, times(2)).execute(anyString(), any(Tuple.class));
+  }
+
+  private PolicyCache<LoanPolicy> loanPolicyCache(int maxSize, int ttlSeconds) {
+    return new PolicyCache<>(PolicyType.LOAN, "loan_policy", LoanPolicy.class,
+      new PolicyCacheConfiguration(maxSize, ttlSeconds, 0));
+  }
+
+  private CachedPolicy<LoanPolicy> get(PolicyCache<LoanPolicy> cache, String policyId) {
+    return cache.get(postgresClient, policyId).result();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Future<RowSet<Row>> policyRows(String policyId) {
+    RowSet<Row> rows = mock(RowSet.class);
+    RowIterator<Row> iterator = mock(RowIterator.class);
+    Row row = mock(Row.class);
+
+    when(rows.size()).thenReturn(1);
+    when(rows.iterator()).thenReturn(iterator);
+    when(iterator.next()).thenReturn(row);
+    when(row.getString(0)).thenReturn(new JsonObject()
+      .put("id", policyId)
+      .put("name", "Policy " + policyId)
+      .encode());
+
+    return Future.succeededFuture(rows);
+  }
+}
@@ -0,0 +1,46 @@
+package org.folio.service.rules;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class CirculationRulesPolicyIndexTest {
+
+  @Test
+  public void policiesOfEveryRuleLineAreFound() {
+    String rulesAsText = "priority: t, s, c, b, a, m, g\n" +
+      "fallback-policy: l 43198de5-f56a-4a53-a0bd-5a324418967a " +
+      "r 4c6e1fb0-2ef1-4666-bd15-f9190ff89060 n 122b3d2b-4788-4f1e-9117-56daa91cb75c " +
+      "o 9e2b2c3f-0f9c-4e8f-bb36-6e4c6a0e1f5d i ED892C0E-52E0-4CD9-8133-C0EF07B4A709\n" +
+      "m 1a54b431-2e4f-452d-9cae-9cee66c9a892 + t 2b94c631-fca9-4892-a730-03ee529ffe27: " +
+      "l d9cd0bed-1b49-4b5e-a7bd-064b8d177231";
+
+    assertThat(CirculationRulesPolicyIndex.parse(rulesAsText), is(List.of(
+      new PolicyReference(PolicyType.LOAN, "43198de5-f56a-4a53-a0bd-5a324418967a", 2),
+      new PolicyReference(PolicyType.REQUEST, "4c6e1fb0-2ef1-4666-bd15-f9190ff89060", 2),
+      new PolicyReference(PolicyType.NOTICE, "122b3d2b-4788-4f1e-9117-56daa91cb75c", 2),
+      new PolicyReference(PolicyType.OVERDUE_FINE, "9e2b2c3f-0f9c-4e8f-bb36-6e4c6a0e1f5d", 2),
+      new PolicyReference(PolicyType.LOST_ITEM_FEE, "ed892c0e-52e0-4cd9-8133-c0ef07b4a709", 2),
+      new PolicyReference(PolicyType.LOAN, "d9cd0bed-1b49-4b5e-a7bd-064b8d177231", 3))));
+  }
+
+  @Test
+  public void policiesInCommentsAreIgnored() {
+    String rulesAsText = "# l 43198de5-f56a-4a53-a0bd-5a324418967a\r\n" +
+      "/ r 4c6e1fb0-2ef1-4666-bd15-f9190ff89060\r\n" +
+      "g 2b94c631-fca9-4892-a730-03ee529ffe27: n 122b3d2b-4788-4f1e-9117-56daa91cb75c " +
+      "# was n 16b88363-0d93-464a-967a-ad5ad0f9187c";
+
+    assertThat(CirculationRulesPolicyIndex.parse(rulesAsText), is(List.of(
+      new PolicyReference(PolicyType.NOTICE, "122b3d2b-4788-4f1e-9117-56daa91cb75c", 3))));
+  }
+
+  @Test
+  public void noRulesReferToNoPolicies() {
+    assertThat(CirculationRulesPolicyIndex.parse(null), is(List.of()));
+    assertThat(CirculationRulesPolicyIndex.parse(""), is(List.of()));
+  }
+}
@@ -0,0 +1,88 @@
+package org.folio.support;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+public class KeyedExecutorTest {
+  private final List<String> startedTasks = new ArrayList<>();
+
+  @Test
+  public void tasksOfSameKeyRunOneAfterAnother() {
+    KeyedExecutor executor = new KeyedExecutor(5);
+    Promise<String> first = Promise.promise();
+    Promise<String> second = Promise.promise();
+
+    Future<String> firstResult = executor.execute("item", task("first", first));
+    Future<String> secondResult = executor.execute("item", task("second", second));
+
+    assertThat(startedTasks, is(List.of("first")));
+
+    first.complete("first");
+
+    assertThat(firstResult.result(), is("first"));
+    assertThat(startedTasks, is(List.of("first", "second")));
+
+    second.complete("second");
+
+    assertThat(secondResult.result(), is("second"));
+    assertThat(executor.getRunningTasks(), is(0));
+  }
+
+  @Test
+  public void tasksOfDifferentKeysRunAtTheSameTime() {
+    KeyedExecutor executor = new KeyedExecutor(5);
+
+    executor.execute("first-item", task("first", Promise.promise()));
+    executor.execute("second-item", task("second", Promise.promise()));
+
+    assertThat(startedTasks, is(List.of("first", "second")));
+    assertThat(executor.getRunningTasks(), is(2));
+  }
+
+  @Test
+  public void numberOfRunningTasksIsLimited() {
+    KeyedExecutor executor = new KeyedExecutor(1);
+    Promise<String> first = Promise.promise();
+
+    executor.execute("first-item", task("first", first));
+    executor.execute("second-item", task("second", Promise.promise()));
+
+    assertThat(startedTasks, is(List.of("first")));
+
+    first.complete("first");
+
+    assertThat(startedTasks, is(List.of("first", "second")));
+    assertThat(executor.getRunningTasks(), is(1));
+  }
+
+  @Test
+  public void failedTaskDoesNotBlockNextTaskOfSameKey() {
+    KeyedExecutor executor = new KeyedExecutor(5);
+
+    Future<String> firstResult = executor.execute("item", () -> {
+      throw new IllegalStateException("failed");
+    });
+    Future<String> secondResult = executor.execute("item",
+      () -> Future.succeededFuture("second"));
+
+    assertThat(firstResult.failed(), is(true));
+    assertThat(secondResult.result(), is("second"));
+    assertThat(executor.getRunningTasks(), is(0));
+  }
+
+  private Supplier<Future<String>> task(String name, Promise<String> result) {
+    return () -> {
+      startedTasks.add(name);
+      return result.future();
+    };
+  }
+}
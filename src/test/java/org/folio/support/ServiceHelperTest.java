@@ -1,11 +1,17 @@
 package org.folio.support;
 
+import static io.vertx.core.Future.failedFuture;
 import static io.vertx.core.Future.succeededFuture;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -13,16 +19,21 @@ import static org.folio.rest.jaxrs.model.Request.Status.OPEN_IN_TRANSIT;
 import static org.folio.rest.jaxrs.model.Request.Status.OPEN_NOT_YET_FILLED;
 
 import java.util.UUID;
+import java.util.function.Function;
 
+import io.vertx.core.Future;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
 import org.apache.commons.lang3.StringUtils;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import org.folio.persist.AbstractRepository;
 import org.folio.persist.RequestRepository;
+import org.folio.persist.UpsertResult;
 import org.folio.rest.jaxrs.model.Request;
+import org.folio.rest.persist.Conn;
 import org.folio.service.event.EntityChangedEventPublisher;
 
 @RunWith(VertxUnitRunner.class)
@@ -34,31 +45,76 @@ public class ServiceHelperTest {
 
   private AbstractRepository<Request> repository = mock(RequestRepository.class);
   private EntityChangedEventPublisher<String, Request> eventPublisher = mock(EntityChangedEventPublisher.class);
+  private Conn conn = mock(Conn.class);
   private ServiceHelper serviceHelper = new ServiceHelper(repository, eventPublisher);
 
+  @Before
+  @SuppressWarnings("unchecked")
+  public void beforeEach() {
+    when(repository.withTransaction(any())).thenAnswer(invocation ->
+      ((Function<Conn, Future<?>>) invocation.getArgument(0)).apply(conn));
+  }
+
+  @Test
+  public void shouldSaveCreatedEventInTransaction(TestContext testContext) {
+    when(repository.getById(eq(conn), eq(ENTITY_ID))).thenReturn(succeededFuture());
+    when(repository.upsertAndReturnUpdatedEntity(eq(conn), eq(ENTITY_ID), any()))
+      .thenReturn(succeededFuture(new UpsertResult<>(NEW_ENTITY, true)));
+    when(eventPublisher.saveCreatedEvent(any(), any())).thenReturn(succeededFuture());
+
+    serviceHelper.upsertAndPublishEvents(ENTITY_ID, NEW_ENTITY)
+      .onComplete(testContext.asyncAssertSuccess(response -> {
+        assertThat(response.getStatus(), is(204));
+        verify(repository).upsertAndReturnUpdatedEntity(eq(conn), eq(ENTITY_ID), eq(NEW_ENTITY));
+        verify(repository, times(1)).getById(any(Conn.class), anyString());
+        verify(eventPublisher).saveCreatedEvent(eq(conn), eq(NEW_ENTITY));
+        verify(eventPublisher).relaySavedEvents();
+      }));
+  }
+
   @Test
-  public void shouldPublishCreatedEvent(TestContext testContext) {
-    when(repository.getById(eq(ENTITY_ID))).thenReturn(succeededFuture());
-    when(repository.upsert(eq(ENTITY_ID), any())).thenReturn(succeededFuture(ENTITY_ID));
-    when(eventPublisher.publishCreated()).thenReturn(res -> succeededFuture(res));
+  public void shouldSaveUpdatedEventInTransaction(TestContext testContext) {
+    when(repository.getById(eq(conn), eq(ENTITY_ID))).thenReturn(succeededFuture(OLD_ENTITY));
+    when(repository.upsertAndReturnUpdatedEntity(eq(conn), any(), any()))
+      .thenReturn(succeededFuture(new UpsertResult<>(NEW_ENTITY, false)));
+    when(eventPublisher.saveUpdatedEvent(any(), any(), any())).thenReturn(succeededFuture());
 
     serviceHelper.upsertAndPublishEvents(ENTITY_ID, NEW_ENTITY)
-      .onComplete(testContext.asyncAssertSuccess(notUsed -> {
-        verify(repository).upsert(eq(ENTITY_ID), eq(NEW_ENTITY));
-        verify(eventPublisher).publishCreated();
+      .onComplete(testContext.asyncAssertSuccess(response -> {
+        assertThat(response.getStatus(), is(204));
+        verify(repository).upsertAndReturnUpdatedEntity(eq(conn), eq(ENTITY_ID), eq(NEW_ENTITY));
+        verify(repository, times(1)).getById(any(Conn.class), anyString());
+        verify(eventPublisher).saveUpdatedEvent(eq(conn), eq(OLD_ENTITY), eq(NEW_ENTITY));
+        verify(eventPublisher).relaySavedEvents();
       }));
   }
 
   @Test
-  public void shouldPushUpdatedEvent(TestContext testContext) {
-    when(repository.getById(eq(ENTITY_ID))).thenReturn(succeededFuture(OLD_ENTITY));
-    when(repository.upsert(any(), any())).thenReturn(succeededFuture(ENTITY_ID));
-    when(eventPublisher.publishUpdated(any())).thenReturn(res -> succeededFuture(res));
+  public void shouldNotRelayEventsWhenTransactionFails(TestContext testContext) {
+    when(repository.getById(eq(conn), eq(ENTITY_ID))).thenReturn(succeededFuture(OLD_ENTITY));
+    when(repository.upsertAndReturnUpdatedEntity(eq(conn), any(), any()))
+      .thenReturn(failedFuture(new IllegalStateException("Connection closed")));
 
     serviceHelper.upsertAndPublishEvents(ENTITY_ID, NEW_ENTITY)
-      .onComplete(testContext.asyncAssertSuccess(notUsed -> {
-        verify(repository).upsert(eq(ENTITY_ID), eq(NEW_ENTITY));
-        verify(eventPublisher).publishUpdated(eq(OLD_ENTITY));
+      .onComplete(testContext.asyncAssertFailure(notUsed -> {
+        verify(eventPublisher, never()).saveUpdatedEvent(any(), any(), any());
+        verify(eventPublisher, never()).relaySavedEvents();
+      }));
+  }
+
+  @Test
+  public void shouldSaveCreatedEventOfCreatedRecord(TestContext testContext) {
+    Request createdEntity = new Request().withId(ENTITY_ID).withStatus(OPEN_NOT_YET_FILLED)
+      .withPosition(1);
+    when(repository.saveAndReturnUpdatedEntity(eq(conn), eq(ENTITY_ID), any()))
+      .thenReturn(succeededFuture(createdEntity));
+    when(eventPublisher.saveCreatedEvent(any(), any())).thenReturn(succeededFuture());
+
+    serviceHelper.createAndPublishEvent(ENTITY_ID, NEW_ENTITY)
+      .onComplete(testContext.asyncAssertSuccess(created -> {
+        assertThat(created, is(createdEntity));
+        verify(eventPublisher).saveCreatedEvent(eq(conn), eq(createdEntity));
+        verify(eventPublisher).relaySavedEvents();
       }));
   }
 
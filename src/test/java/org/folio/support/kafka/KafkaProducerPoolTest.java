@@ -0,0 +1,95 @@
+package org.folio.support.kafka;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.kafka.client.producer.KafkaProducer;
+
+public class KafkaProducerPoolTest {
+  private Vertx vertx;
+
+  @Before
+  public void beforeEach() {
+    vertx = Vertx.vertx();
+  }
+
+  @After
+  public void afterEach() throws Exception {
+    if (vertx != null) {
+      // closes the producers of the contexts which are not closed by a test
+      await(vertx.close());
+    }
+  }
+
+  @Test
+  public void producerIsReusedForSameContext() {
+    Context context = vertx.getOrCreateContext();
+
+    KafkaProducer<String, String> first = KafkaProducerPool.getProducer(context);
+    KafkaProducer<String, String> second = KafkaProducerPool.getProducer(context);
+
+    assertThat(second, is(sameInstance(first)));
+  }
+
+  @Test
+  public void producerIsNotSharedBetweenContexts() {
+    KafkaProducer<String, String> first = KafkaProducerPool.getProducer(
+      vertx.getOrCreateContext());
+    KafkaProducer<String, String> second = KafkaProducerPool.getProducer(
+      vertx.getOrCreateContext());
+
+    assertThat(second, is(not(sameInstance(first))));
+  }
+
+  @Test
+  public void producerIsClosedWhenVerticleIsUndeployed() throws Exception {
+    ProducerVerticle verticle = new ProducerVerticle();
+    String deploymentId = await(vertx.deployVerticle(verticle));
+
+    await(vertx.undeploy(deploymentId));
+
+    assertThat(verticle.producerContext.get("kafka-producer"), is(nullValue()));
+  }
+
+  @Test
+  public void batchingSettingsAreAddedToProducerProperties() {
+    assertThat(KafkaProducerPool.producerProperties().get("linger.ms"), is("5"));
+    assertThat(KafkaProducerPool.producerProperties().get("batch.size"), is("16384"));
+    assertThat(KafkaProducerPool.producerProperties().get("compression.type"), is("none"));
+  }
+
+  @Test
+  public void producerIsIdempotentToKeepOrderOfEventsOfKey() {
+    assertThat(KafkaProducerPool.producerProperties().get("enable.idempotence"), is("true"));
+    assertThat(KafkaProducerPool.producerProperties().get("acks"), is("all"));
+    assertThat(KafkaProducerPool.producerProperties()
+      .get("max.in.flight.requests.per.connection"), is("5"));
+  }
+
+  private static <T> T await(Future<T> future) throws Exception {
+    return future.toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+  }
+
+  private static class ProducerVerticle extends AbstractVerticle {
+    private Context producerContext;
+
+    @Override
+    public void start() {
+      producerContext = context;
+      KafkaProducerPool.getProducer(producerContext);
+    }
+  }
+}